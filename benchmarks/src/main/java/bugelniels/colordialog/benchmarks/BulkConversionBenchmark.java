@@ -0,0 +1,94 @@
+package bugelniels.colordialog.benchmarks;
+
+import bugelniels.colordialog.model.BulkColorConversions;
+import bugelniels.colordialog.model.HsbBulkConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scalar and the vectorized bulk conversions between packed RGB values and hue, saturation and
+ * brightness. The forked JVM adds the vector module, so both converters are available.
+ *
+ * @author BugelNiels
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "--add-modules=jdk.incubator.vector"})
+public class BulkConversionBenchmark {
+
+    /**
+     * The converter to measure: "scalar" or "vector".
+     */
+    @Param({"scalar", "vector"})
+    public String converterType;
+
+    /**
+     * The number of colors converted per operation.
+     */
+    @Param({"1024", "65536"})
+    public int count;
+
+    private HsbBulkConverter converter;
+    private int[] packedRgb;
+    private float[] hue;
+    private float[] saturation;
+    private float[] brightness;
+
+    /**
+     * Creates random colors and selects the converter.
+     */
+    @Setup
+    public void setUp() {
+        if ("vector".equals(converterType) && !BulkColorConversions.isVectorized()) {
+            throw new IllegalStateException("The vector API is not available");
+        }
+        converter = "vector".equals(converterType)
+                ? BulkColorConversions.getConverter() : BulkColorConversions.getScalarConverter();
+        Random random = new Random(count);
+        packedRgb = new int[count];
+        hue = new float[count];
+        saturation = new float[count];
+        brightness = new float[count];
+        for (int i = 0; i < count; i++) {
+            packedRgb[i] = random.nextInt();
+        }
+        converter.rgbToHsb(packedRgb, 0, hue, saturation, brightness, 0, count);
+    }
+
+    /**
+     * Converts all packed RGB values to hue, saturation and brightness.
+     *
+     * @return The hues.
+     */
+    @Benchmark
+    public float[] rgbToHsb() {
+        converter.rgbToHsb(packedRgb, 0, hue, saturation, brightness, 0, count);
+        return hue;
+    }
+
+    /**
+     * Converts all hue, saturation and brightness values to packed RGB values.
+     *
+     * @return The packed RGB values.
+     */
+    @Benchmark
+    public int[] hsbToRgb() {
+        converter.hsbToRgb(hue, saturation, brightness, 0, packedRgb, 0, count);
+        return packedRgb;
+    }
+}
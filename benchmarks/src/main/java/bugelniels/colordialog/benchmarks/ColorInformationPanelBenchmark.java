@@ -0,0 +1,60 @@
+package bugelniels.colordialog.benchmarks;
+
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.view.ColorInformationPanel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single update of the color information panel, as happens for every change of the gradient color.
+ * The panel is never shown, so this benchmark runs headless.
+ *
+ * @author BugelNiels
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ColorInformationPanelBenchmark {
+
+    private static final int SATURATION_STEPS = 256;
+
+    private GradientColor color;
+    private ColorInformationPanel panel;
+    private int step;
+
+    /**
+     * Creates the panel and the color it displays.
+     */
+    @Setup
+    public void setUp() {
+        color = new GradientColor(Color.ORANGE);
+        panel = new ColorInformationPanel(color);
+        color.addColorListener(panel);
+    }
+
+    /**
+     * Changes the saturation of the color, which notifies the panel.
+     *
+     * @return The updated panel.
+     */
+    @Benchmark
+    public ColorInformationPanel saturationChanged() {
+        step = (step + 1) % SATURATION_STEPS;
+        color.setSaturation(step / (float) (SATURATION_STEPS - 1));
+        return panel;
+    }
+}
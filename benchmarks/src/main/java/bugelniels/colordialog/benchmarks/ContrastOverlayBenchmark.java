@@ -0,0 +1,96 @@
+package bugelniels.colordialog.benchmarks;
+
+import bugelniels.colordialog.rendering.ContrastContourKernel;
+import bugelniels.colordialog.rendering.PerceptualConversions;
+import bugelniels.colordialog.rendering.SvRenderKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures updating the contrast overlay of the saturation-value gradient after a hue change, which happens for every
+ * frame of a hue drag while the overlay is shown. Every invocation uses another hue, so nothing is reused between
+ * invocations. As a baseline, {@link #perPixelLuminance()} renders the gradient and computes the relative luminance of
+ * every pixel, without finding any contours.
+ *
+ * @author BugelNiels
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ContrastOverlayBenchmark {
+
+    private static final float HUE_STEP = 0.001f;
+
+    /**
+     * Width and height of the gradient.
+     */
+    @Param({"256", "1024"})
+    public int size;
+
+    private ContrastContourKernel contourKernel;
+    private SvRenderKernel svKernel;
+    private int[] pixels;
+    private float[] luminances;
+    private float hue;
+
+    /**
+     * Creates the kernels and the rasters they render into.
+     */
+    @Setup
+    public void setUp() {
+        contourKernel = new ContrastContourKernel(size, size);
+        contourKernel.setReference(0xffffff);
+        svKernel = new SvRenderKernel(size, size);
+        pixels = new int[size * size];
+        luminances = new float[size * size];
+    }
+
+    private float nextHue() {
+        hue += HUE_STEP;
+        if (hue >= 1) {
+            hue -= 1;
+        }
+        return hue;
+    }
+
+    /**
+     * Finds the contours of the gradient for a new hue and renders them.
+     *
+     * @return The rendered overlay.
+     */
+    @Benchmark
+    public int[] contours() {
+        contourKernel.prepare(nextHue());
+        contourKernel.renderRows(pixels, 0, size);
+        return pixels;
+    }
+
+    /**
+     * Renders the gradient for a new hue and computes the relative luminance of every pixel separately.
+     *
+     * @return The luminances of the pixels.
+     */
+    @Benchmark
+    public float[] perPixelLuminance() {
+        svKernel.prepare(nextHue());
+        svKernel.renderRows(pixels, 0, size);
+        for (int i = 0; i < pixels.length; i++) {
+            luminances[i] = PerceptualConversions.relativeLuminance(pixels[i]);
+        }
+        return luminances;
+    }
+}
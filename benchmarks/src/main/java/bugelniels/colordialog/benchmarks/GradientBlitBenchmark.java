@@ -0,0 +1,115 @@
+package bugelniels.colordialog.benchmarks;
+
+import bugelniels.colordialog.model.gradients.RasterWriter;
+import bugelniels.colordialog.rendering.GradientEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures drawing a saturation-value gradient onto surfaces of different pixel layouts, as happens on every paint.
+ * There is no display when running headless, so the destination surfaces are software images; their graphics
+ * configuration stands in for the configuration of a panel. A {@code TYPE_INT_RGB} source is what gradients used to
+ * be rendered into, while a compatible source is created for the configuration of the destination, as gradients are
+ * now. The cost of writing a rendered gradient into the source image is measured separately.
+ *
+ * @author BugelNiels
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GradientBlitBenchmark {
+
+    private static final int SIZE = 512;
+
+    /**
+     * Pixel layout of the surface the gradient is drawn on.
+     */
+    @Param({"INT_RGB", "INT_ARGB_PRE", "INT_BGR", "3BYTE_BGR"})
+    public String destinationType;
+
+    /**
+     * Kind of source image: {@code intRgb} for a plain {@code TYPE_INT_RGB} image, or {@code compatible} for an image
+     * created for the configuration of the destination.
+     */
+    @Param({"intRgb", "compatible"})
+    public String source;
+
+    private BufferedImage destination;
+    private Graphics2D graphics;
+    private BufferedImage sourceImage;
+    private RasterWriter writer;
+    private int[] pixels;
+
+    /**
+     * Creates the destination surface and renders the gradient into the source image.
+     */
+    @Setup
+    public void setUp() {
+        destination = new BufferedImage(SIZE, SIZE, imageType(destinationType));
+        graphics = destination.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        GraphicsConfiguration configuration = "compatible".equals(source) ? graphics.getDeviceConfiguration() : null;
+        sourceImage = RasterWriter.createImage(configuration, SIZE, SIZE);
+        writer = RasterWriter.forImage(sourceImage);
+        GradientEngine engine = new GradientEngine();
+        pixels = new int[SIZE * SIZE];
+        engine.render(engine.svKernel(SIZE, SIZE), 0.6f, pixels);
+        writer.write(pixels, SIZE, SIZE, sourceImage);
+    }
+
+    private static int imageType(String name) {
+        return switch (name) {
+            case "INT_ARGB_PRE" -> BufferedImage.TYPE_INT_ARGB_PRE;
+            case "INT_BGR" -> BufferedImage.TYPE_INT_BGR;
+            case "3BYTE_BGR" -> BufferedImage.TYPE_3BYTE_BGR;
+            default -> BufferedImage.TYPE_INT_RGB;
+        };
+    }
+
+    /**
+     * Releases the graphics of the destination surface.
+     */
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    /**
+     * Draws the source image onto the destination surface.
+     *
+     * @return The destination surface.
+     */
+    @Benchmark
+    public BufferedImage blit() {
+        graphics.drawImage(sourceImage, 0, 0, null);
+        return destination;
+    }
+
+    /**
+     * Writes the rendered gradient into the source image, which happens once per rendered frame.
+     *
+     * @return The source image.
+     */
+    @Benchmark
+    public BufferedImage write() {
+        writer.write(pixels, SIZE, SIZE, sourceImage);
+        return sourceImage;
+    }
+}
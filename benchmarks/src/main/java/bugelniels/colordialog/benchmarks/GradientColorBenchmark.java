@@ -0,0 +1,60 @@
+package bugelniels.colordialog.benchmarks;
+
+import bugelniels.colordialog.model.GradientColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversions from the HSB representation of a gradient color to RGB.
+ *
+ * @author BugelNiels
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GradientColorBenchmark {
+
+    private GradientColor color;
+
+    /**
+     * Creates the color to convert.
+     */
+    @Setup
+    public void setUp() {
+        color = new GradientColor(Color.ORANGE);
+    }
+
+    /**
+     * Retrieves the packed RGB value of the color.
+     *
+     * @return The packed RGB value.
+     */
+    @Benchmark
+    public int getRGBInt() {
+        return color.getRGBInt();
+    }
+
+    /**
+     * Retrieves the color as a Color object.
+     *
+     * @return The color.
+     */
+    @Benchmark
+    public Color getColor() {
+        return color.getColor();
+    }
+}
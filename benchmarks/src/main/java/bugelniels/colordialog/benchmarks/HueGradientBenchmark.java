@@ -0,0 +1,60 @@
+package bugelniels.colordialog.benchmarks;
+
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.model.gradients.HueGradient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of the hue gradient, which happens every time a dialog is opened.
+ *
+ * @author BugelNiels
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class HueGradientBenchmark {
+
+    private static final int HUE_GRADIENT_WIDTH = 20;
+
+    /**
+     * Height of the gradient.
+     */
+    @Param({"255"})
+    public int height;
+
+    private GradientColor color;
+
+    /**
+     * Creates the color the gradient is initialized with.
+     */
+    @Setup
+    public void setUp() {
+        color = new GradientColor(Color.GREEN);
+    }
+
+    /**
+     * Creates a new hue gradient.
+     *
+     * @return The created gradient.
+     */
+    @Benchmark
+    public HueGradient construct() {
+        return new HueGradient(HUE_GRADIENT_WIDTH, height, color);
+    }
+}
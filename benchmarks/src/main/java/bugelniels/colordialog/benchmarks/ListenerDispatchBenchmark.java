@@ -0,0 +1,74 @@
+package bugelniels.colordialog.benchmarks;
+
+import bugelniels.colordialog.model.GradientColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures notifying the listeners of a gradient color, comparing the typed listeners with PropertyChangeListeners.
+ * Run with the GC profiler to see the allocations per change.
+ *
+ * @author BugelNiels
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ListenerDispatchBenchmark {
+
+    private static final int HUE_STEPS = 256;
+    private static final int LISTENER_COUNT = 4;
+
+    /**
+     * The kind of listeners registered on the color: "typed" or "propertyChange".
+     */
+    @Param({"typed", "propertyChange"})
+    public String listenerType;
+
+    private GradientColor color;
+    private int step;
+
+    /**
+     * Creates the color and registers the listeners.
+     *
+     * @param blackhole Consumes the values received by the listeners.
+     */
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        color = new GradientColor(Color.ORANGE);
+        for (int i = 0; i < LISTENER_COUNT; i++) {
+            if ("typed".equals(listenerType)) {
+                color.addColorListener((changed, hue, saturation, brightness) -> blackhole.consume(hue));
+            } else {
+                color.addListener(evt -> blackhole.consume(GradientColor.getChangedComponents(evt)));
+            }
+        }
+    }
+
+    /**
+     * Changes the hue, which notifies all listeners.
+     *
+     * @return The changed color.
+     */
+    @Benchmark
+    public GradientColor changeHue() {
+        step = (step + 1) % HUE_STEPS;
+        color.setHSB(step / (float) HUE_STEPS, color.getSaturation(), color.getBrightness());
+        return color;
+    }
+}
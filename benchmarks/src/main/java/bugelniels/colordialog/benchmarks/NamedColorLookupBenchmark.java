@@ -0,0 +1,110 @@
+package bugelniels.colordialog.benchmarks;
+
+import bugelniels.colordialog.model.names.ColorNameCatalog;
+import bugelniels.colordialog.model.names.NamedColorIndex;
+import bugelniels.colordialog.rendering.PerceptualConversions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding the closest named color in catalogs of different sizes, comparing the k-d tree of
+ * {@link NamedColorIndex} with a linear scan over the same OKLab coordinates.
+ *
+ * @author BugelNiels
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class NamedColorLookupBenchmark {
+
+    private static final int QUERY_COUNT = 256;
+
+    /**
+     * The number of named colors in the catalog.
+     */
+    @Param({"1000", "50000"})
+    public int catalogSize;
+
+    private NamedColorIndex index;
+    private float[] coordinates;
+    private float[] queries;
+    private int query;
+
+    /**
+     * Creates a catalog of random colors, its index, and random query colors.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        String[] names = new String[catalogSize];
+        int[] colors = new int[catalogSize];
+        coordinates = new float[catalogSize * 3];
+        float[] oklab = new float[3];
+        for (int i = 0; i < catalogSize; i++) {
+            names[i] = "color " + i;
+            colors[i] = random.nextInt(1 << 24);
+            PerceptualConversions.rgbToOklab(colors[i], oklab);
+            System.arraycopy(oklab, 0, coordinates, i * 3, 3);
+        }
+        index = new NamedColorIndex(new ColorNameCatalog(names, colors));
+        queries = new float[QUERY_COUNT * 3];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            PerceptualConversions.rgbToOklab(random.nextInt(1 << 24), oklab);
+            System.arraycopy(oklab, 0, queries, i * 3, 3);
+        }
+    }
+
+    /**
+     * Finds the closest color using the index.
+     *
+     * @return The catalog index of the closest color.
+     */
+    @Benchmark
+    public int kdTree() {
+        int offset = nextQuery();
+        return index.nearest(queries[offset], queries[offset + 1], queries[offset + 2]);
+    }
+
+    /**
+     * Finds the closest color by comparing the query with every color in the catalog.
+     *
+     * @return The catalog index of the closest color.
+     */
+    @Benchmark
+    public int linearScan() {
+        int offset = nextQuery();
+        int best = -1;
+        float bestDistance = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < catalogSize; i++) {
+            float dl = queries[offset] - coordinates[i * 3];
+            float da = queries[offset + 1] - coordinates[i * 3 + 1];
+            float db = queries[offset + 2] - coordinates[i * 3 + 2];
+            float distance = dl * dl + da * da + db * db;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private int nextQuery() {
+        query = (query + 1) % QUERY_COUNT;
+        return query * 3;
+    }
+}
@@ -0,0 +1,63 @@
+package bugelniels.colordialog.benchmarks;
+
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.model.gradients.SvGradient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to re-render the saturation-value gradient for a new hue.
+ *
+ * @author BugelNiels
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SvGradientBenchmark {
+
+    private static final int HUE_STEPS = 256;
+
+    /**
+     * Width and height of the gradient.
+     */
+    @Param({"255", "512", "1024"})
+    public int size;
+
+    private SvGradient gradient;
+    private int step;
+
+    /**
+     * Creates the gradient.
+     */
+    @Setup
+    public void setUp() {
+        gradient = new SvGradient(size, size, new GradientColor(Color.GREEN));
+    }
+
+    /**
+     * Renders the gradient for the next hue of the slider.
+     *
+     * @return The rendered gradient.
+     */
+    @Benchmark
+    public SvGradient renderHue() {
+        step = (step + 1) % HUE_STEPS;
+        gradient.renderFrame(step / (float) (HUE_STEPS - 1));
+        return gradient;
+    }
+}
@@ -0,0 +1,298 @@
+package bugelniels.colordialog;
+
+import bugelniels.colordialog.controller.CrossHairSelectionController;
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.model.crosshairs.AlphaCrossHair;
+import bugelniels.colordialog.model.crosshairs.HueCrossHair;
+import bugelniels.colordialog.model.crosshairs.OklchCrossHair;
+import bugelniels.colordialog.model.crosshairs.SvCrossHair;
+import bugelniels.colordialog.model.gradients.AlphaGradient;
+import bugelniels.colordialog.model.gradients.GradientCache;
+import bugelniels.colordialog.model.gradients.HueGradient;
+import bugelniels.colordialog.model.gradients.OklchGradient;
+import bugelniels.colordialog.model.gradients.PlaneGradient;
+import bugelniels.colordialog.model.gradients.SvGradient;
+import bugelniels.colordialog.rendering.TiledRenderer;
+import bugelniels.colordialog.view.AlphaSliderPanel;
+import bugelniels.colordialog.view.ColorInformationPanel;
+import bugelniels.colordialog.view.HueSliderPanel;
+import bugelniels.colordialog.view.OklchSelectionPanel;
+import bugelniels.colordialog.view.SvSelectionPanel;
+import lombok.Getter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+
+/**
+ * Color picker that can be embedded in any container, consisting of a plane, a hue slider, an alpha slider and
+ * optionally an information panel with the values of the color in several color spaces. The plane shows either the
+ * saturation and value of the hue, or the OKLCH chroma and lightness of the hue, see {@link #setPlane(Plane)}. This is
+ * the component shown by {@link JColorDialog}, but it is cheap enough to embed many pickers at once, for example as
+ * inline editors in a property grid:
+ * <ul>
+ *     <li>All pickers render on the same renderer and share a single cache of rendered gradients, see
+ *     {@link #getGradientCache()}. Hue gradients of the same size are shared as well.</li>
+ *     <li>The plane is only rendered at full resolution while the picker is showing. A picker that is not showing,
+ *     including a newly created one, only keeps a low-resolution preview, and the OKLCH plane is only created once it
+ *     is selected.</li>
+ *     <li>Dragging the alpha slider only repaints the alpha slider and the information panel; the
+ *     saturation-value gradient does not depend on the alpha and is not re-rendered.</li>
+ *     <li>The information panel, which holds a text field per color component, can be left out.</li>
+ * </ul>
+ * Listeners can be added to the color of the picker, see {@link #getGradientColor()}.
+ *
+ * @author BugelNiels
+ */
+public class ColorPickerPanel extends JPanel {
+
+    private static final int SV_GRADIENT_WIDTH = 255;
+    private static final int SV_GRADIENT_HEIGHT = 255;
+    private static final int HUE_GRADIENT_WIDTH = 20;
+    private static final int HUE_GRADIENT_HEIGHT = 255;
+    private static final int ALPHA_GRADIENT_WIDTH = 20;
+    private static final int ALPHA_GRADIENT_HEIGHT = 255;
+    private static final int INFORMATION_WIDTH = 295;
+    private static final int GAP = 10;
+    private static final long GRADIENT_CACHE_BUDGET = 16L * 1024 * 1024;
+    private static final GradientCache GRADIENT_CACHE = new GradientCache(GRADIENT_CACHE_BUDGET);
+
+    @Getter
+    private final GradientColor gradientColor;
+    private final SvGradient svGradient;
+    private final SvSelectionPanel svSelectionPanel;
+    private final HueSliderPanel hueSliderPanel;
+    private final AlphaSliderPanel alphaSliderPanel;
+    private final JPanel planePanel = new JPanel(new CardLayout());
+    private OklchGradient oklchGradient;
+    private OklchSelectionPanel oklchSelectionPanel;
+    /**
+     * The plane the color is picked in.
+     */
+    @Getter
+    private Plane plane = Plane.SATURATION_VALUE;
+
+    /**
+     * The planes a color can be picked in. Both planes show the colors of a single hue and share the hue slider.
+     */
+    public enum Plane {
+        /**
+         * Saturation increases from left to right and brightness from bottom to top, at the HSB hue of the color.
+         */
+        SATURATION_VALUE,
+        /**
+         * OKLCH chroma increases from left to right and OKLCH lightness from bottom to top, at the OKLCH hue of the
+         * color. Equal steps in this plane look like equal steps in color. Colors outside the sRGB gamut are hatched;
+         * picking one picks the most chromatic color of the same lightness inside the gamut.
+         */
+        OKLCH
+    }
+
+    /**
+     * Creates a new picker including an information panel.
+     *
+     * @param color The color to initialise the picker with.
+     */
+    public ColorPickerPanel(Color color) {
+        this(color, true);
+    }
+
+    /**
+     * Creates a new picker.
+     *
+     * @param color           The color to initialise the picker with.
+     * @param showInformation True to show the information panel next to the hue slider, false to leave it out.
+     */
+    public ColorPickerPanel(Color color, boolean showInformation) {
+        super(new BorderLayout(GAP, 0));
+        gradientColor = new GradientColor(color);
+        svGradient = new SvGradient(SV_GRADIENT_WIDTH, SV_GRADIENT_HEIGHT, gradientColor, TiledRenderer.getDefault(),
+                true);
+        svSelectionPanel = initSvPanel();
+        hueSliderPanel = initHuePanel();
+        alphaSliderPanel = initAlphaPanel();
+        JPanel sliders = new JPanel(new GridLayout(1, 2));
+        sliders.add(hueSliderPanel);
+        sliders.add(alphaSliderPanel);
+        JPanel sidePanel = new JPanel(new BorderLayout());
+        sidePanel.add(sliders, BorderLayout.WEST);
+        if (showInformation) {
+            sidePanel.add(initInformationPanel(), BorderLayout.CENTER);
+        }
+        planePanel.add(svSelectionPanel, Plane.SATURATION_VALUE.name());
+        add(planePanel, BorderLayout.CENTER);
+        add(sidePanel, BorderLayout.EAST);
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                updateSuspension();
+            }
+        });
+    }
+
+    /**
+     * Retrieves the cache of rendered saturation-value gradients that is shared by all pickers.
+     * Can be used to inspect its hit and miss statistics.
+     *
+     * @return The shared gradient cache.
+     */
+    public static GradientCache getGradientCache() {
+        return GRADIENT_CACHE;
+    }
+
+    /**
+     * Retrieves the color currently picked, including its alpha.
+     *
+     * @return The picked color.
+     */
+    public Color getColor() {
+        return gradientColor.getColor();
+    }
+
+    /**
+     * Replaces the picked color as a whole, including its alpha.
+     *
+     * @param color The new color.
+     */
+    public void setColor(Color color) {
+        selectColor(color.getRGB());
+    }
+
+    /**
+     * Replaces the picked color as a whole, for example when a swatch is clicked. The gradient color notifies the
+     * gradients and the information panel; the cross-hairs are moved explicitly, as they normally only follow the
+     * mouse.
+     *
+     * @param argb The packed ARGB value of the new color.
+     */
+    public void selectColor(int argb) {
+        gradientColor.setARGB(argb);
+        svSelectionPanel.syncWithColor();
+        if (oklchSelectionPanel != null) {
+            oklchSelectionPanel.syncWithColor();
+        }
+        hueSliderPanel.syncWithColor();
+        alphaSliderPanel.syncWithColor();
+    }
+
+    /**
+     * Selects the plane the color is picked in. The OKLCH plane is created the first time it is selected.
+     *
+     * @param newPlane The plane to show.
+     */
+    public void setPlane(Plane newPlane) {
+        if (newPlane == plane) {
+            return;
+        }
+        if (newPlane == Plane.OKLCH && oklchSelectionPanel == null) {
+            oklchSelectionPanel = initOklchPanel();
+            planePanel.add(oklchSelectionPanel, Plane.OKLCH.name());
+        }
+        plane = newPlane;
+        ((CardLayout) planePanel.getLayout()).show(planePanel, plane.name());
+        updateSuspension();
+    }
+
+    /**
+     * Shows the contour lines where the WCAG contrast ratio against the provided reference color crosses 3:1, 4.5:1
+     * and 7:1 on the saturation-value panel, or hides them. The contour lines are not shown on the OKLCH plane.
+     *
+     * @param reference The color the contrast is computed against, or null to hide the contour lines.
+     */
+    public void setContrastReference(Color reference) {
+        svSelectionPanel.setContrastReference(reference);
+    }
+
+    /**
+     * Retrieves the color the contour lines on the saturation-value panel are computed against.
+     *
+     * @return The reference color, or null if no contour lines are shown.
+     */
+    public Color getContrastReference() {
+        return svSelectionPanel.getContrastReference();
+    }
+
+    /**
+     * Renders the selected plane at full resolution while this picker is showing, and releases the full-resolution
+     * buffers of the other plane and of any plane while the picker is not showing.
+     */
+    private void updateSuspension() {
+        boolean showing = isShowing();
+        updateSuspension(svGradient, svSelectionPanel, showing && plane == Plane.SATURATION_VALUE);
+        if (oklchGradient != null) {
+            updateSuspension(oklchGradient, oklchSelectionPanel, showing && plane == Plane.OKLCH);
+        }
+    }
+
+    /**
+     * Suspends or resumes a single plane. A plane that is resumed is first resized to its panel, so that the first
+     * full-resolution frame already has the right size.
+     *
+     * @param gradient The plane.
+     * @param panel    The panel the plane is shown in.
+     * @param visible  True to resume the plane, false to suspend it.
+     */
+    private static void updateSuspension(PlaneGradient gradient, JPanel panel, boolean visible) {
+        if (!visible) {
+            gradient.suspend();
+            return;
+        }
+        if (panel.getWidth() > 0 && panel.getHeight() > 0) {
+            gradient.resize(panel.getWidth(), panel.getHeight());
+        }
+        gradient.resume();
+    }
+
+    private SvSelectionPanel initSvPanel() {
+        svGradient.setCache(GRADIENT_CACHE);
+        SvCrossHair svCrossHair = new SvCrossHair(gradientColor, svGradient);
+        SvSelectionPanel panel = new SvSelectionPanel(svCrossHair);
+        panel.setPreferredSize(new Dimension(SV_GRADIENT_WIDTH, SV_GRADIENT_HEIGHT));
+        new CrossHairSelectionController(svCrossHair, panel);
+        gradientColor.addColorListener(svGradient);
+        gradientColor.addColorListener(panel);
+        svGradient.addListener(panel);
+        return panel;
+    }
+
+    private OklchSelectionPanel initOklchPanel() {
+        oklchGradient = new OklchGradient(SV_GRADIENT_WIDTH, SV_GRADIENT_HEIGHT, gradientColor,
+                TiledRenderer.getDefault(), true);
+        oklchGradient.setCache(GRADIENT_CACHE);
+        OklchCrossHair oklchCrossHair = new OklchCrossHair(gradientColor, oklchGradient);
+        OklchSelectionPanel panel = new OklchSelectionPanel(oklchCrossHair);
+        panel.setPreferredSize(new Dimension(SV_GRADIENT_WIDTH, SV_GRADIENT_HEIGHT));
+        new CrossHairSelectionController(oklchCrossHair, panel);
+        gradientColor.addColorListener(oklchGradient);
+        gradientColor.addColorListener(panel);
+        oklchGradient.addListener(panel);
+        return panel;
+    }
+
+    private HueSliderPanel initHuePanel() {
+        HueGradient hueGradient = new HueGradient(HUE_GRADIENT_WIDTH, HUE_GRADIENT_HEIGHT, gradientColor);
+        HueCrossHair hueCrossHair = new HueCrossHair(gradientColor, hueGradient);
+        HueSliderPanel panel = new HueSliderPanel(hueCrossHair);
+        panel.setPreferredSize(new Dimension(HUE_GRADIENT_WIDTH * 2, HUE_GRADIENT_HEIGHT));
+        new CrossHairSelectionController(hueCrossHair, panel);
+        gradientColor.addColorListener(panel);
+        return panel;
+    }
+
+    private AlphaSliderPanel initAlphaPanel() {
+        AlphaGradient alphaGradient = new AlphaGradient(ALPHA_GRADIENT_WIDTH, ALPHA_GRADIENT_HEIGHT, gradientColor);
+        AlphaCrossHair alphaCrossHair = new AlphaCrossHair(gradientColor, alphaGradient);
+        AlphaSliderPanel panel = new AlphaSliderPanel(alphaCrossHair);
+        panel.setPreferredSize(new Dimension(ALPHA_GRADIENT_WIDTH * 2, ALPHA_GRADIENT_HEIGHT));
+        new CrossHairSelectionController(alphaCrossHair, panel);
+        gradientColor.addColorListener(panel);
+        return panel;
+    }
+
+    private JPanel initInformationPanel() {
+        ColorInformationPanel informationPanel = new ColorInformationPanel(gradientColor);
+        int informationHeight = Math.max(SV_GRADIENT_HEIGHT, informationPanel.getPreferredSize().height);
+        informationPanel.setPreferredSize(new Dimension(INFORMATION_WIDTH, informationHeight));
+        gradientColor.addColorListener(informationPanel);
+        return informationPanel;
+    }
+}
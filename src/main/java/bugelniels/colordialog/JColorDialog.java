@@ -1,41 +1,51 @@
 package bugelniels.colordialog;
 
-import bugelniels.colordialog.controller.CrossHairSelectionController;
-import bugelniels.colordialog.model.GradientColor;
-import bugelniels.colordialog.model.crosshairs.HueCrossHair;
-import bugelniels.colordialog.model.crosshairs.SvCrossHair;
-import bugelniels.colordialog.model.gradients.HueGradient;
-import bugelniels.colordialog.model.gradients.SvGradient;
-import bugelniels.colordialog.view.ColorInformationPanel;
-import bugelniels.colordialog.view.HueSliderPanel;
-import bugelniels.colordialog.view.SvSelectionPanel;
+import bugelniels.colordialog.controller.SwatchSelectionController;
+import bugelniels.colordialog.model.ColorHistory;
+import bugelniels.colordialog.model.ColorPublisher;
+import bugelniels.colordialog.model.EmissionPolicy;
+import bugelniels.colordialog.model.gradients.GradientCache;
+import bugelniels.colordialog.view.SwatchStrip;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
  * Spawns a new JColorDialog. The aim is to provide an easy-to-use (both in terms of implementation and user experience)
  * component that can be used for picking colors. The color dialog can be initialized with an existing color or without
- * one. Whenever the correct color has been chosen, the dialog can be closed.
+ * one. Whenever the correct color has been chosen, the dialog can be closed. Alternatively, a non-modal dialog can be
+ * shown that publishes every color change while it is open, see
+ * {@link #showNonModalColorDialog(Color, EmissionPolicy)}. The picker itself is a {@link ColorPickerPanel}, which
+ * can also be embedded in other components directly.
+ * <p>
+ * Closed dialogs can optionally be kept in a pool, see {@link #setPoolSize(int)}. Opening a pooled dialog only resets
+ * it to the new color, which skips building the components. Like any hidden picker, a pooled dialog only keeps a
+ * low-resolution preview of its gradient; the full-resolution gradient is usually restored from the gradient cache.
+ * <p>
+ * Every dialog shows the recently picked colors and the favorite colors, which are shared by all dialogs. Both live
+ * on the heap by default; they can be replaced by histories that are persisted in a file, see
+ * {@link #setRecentColors(ColorHistory)} and {@link ColorHistory#open(java.nio.file.Path, int)}.
  *
  * @author BugelNiels
  */
 public class JColorDialog extends JDialog {
 
-    private static final int DIALOG_WIDTH = 600;
-    private static final int DIALOG_HEIGHT = 300;
-
-    private static final int HSV_GRADIENT_WIDTH = 255;
-    private static final int HSV_GRADIENT_HEIGHT = 255;
-
-    private static final int HUE_GRADIENT_WIDTH = 20;
-    private static final int HUE_GRADIENT_HEIGHT = 255;
     private static final Color DEFAULT_COLOR = Color.GREEN;
-    private static final int HSV_GRADIENT_OFFSET_LEFT = 10;
+    private static final int HISTORY_GAP = 10;
+    private static final int HISTORY_LABEL_WIDTH = 70;
+    private static final Deque<JColorDialog> POOL = new ArrayDeque<>();
 
-    private final GradientColor gradientColor;
+    private static int poolSize;
+    private static ColorHistory recentColors = new ColorHistory(ColorHistory.DEFAULT_CAPACITY);
+    private static ColorHistory favoriteColors = new ColorHistory(ColorHistory.DEFAULT_CAPACITY);
+    private static volatile long lastOpenToFirstPaintNanos = -1;
 
-    // TODO: make this not private to give users the option to attach listeners to it.
+    private final ColorPickerPanel picker;
+    private long openStartNanos;
 
     /**
      * Instantiates a new JColorDialog.
@@ -44,18 +54,13 @@ public class JColorDialog extends JDialog {
      */
     private JColorDialog(Color color) {
         setModal(true);
-        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        setPreferredSize(new Dimension(DIALOG_WIDTH, DIALOG_HEIGHT));
-        setResizable(false);
-
-        gradientColor = new GradientColor(color);
-        JPanel colorInfoPanel = initColorInfoPanel(gradientColor);
-        JPanel hsvPanel = initHsvPanel(gradientColor);
-        JPanel huePanel = initHuePanel(gradientColor);
-        add(initView(hsvPanel, huePanel, colorInfoPanel));
+        setDefaultCloseOperation(WindowConstants.HIDE_ON_CLOSE);
+        setResizable(true);
+
+        picker = new ColorPickerPanel(color);
+        add(picker);
+        add(initHistoryPanel(), BorderLayout.SOUTH);
         pack();
-        setLocationRelativeTo(null);
-        setVisible(true);
     }
 
     /**
@@ -64,8 +69,15 @@ public class JColorDialog extends JDialog {
      * @return The color picked by the user.
      */
     public static Color showColorDialog(Color color) {
-        JColorDialog c = new JColorDialog(color);
-        return c.getPickedColor();
+        long start = System.nanoTime();
+        JColorDialog dialog = acquire(color);
+        dialog.openStartNanos = start;
+        dialog.setLocationRelativeTo(null);
+        dialog.setVisible(true);
+        Color picked = dialog.getPickedColor();
+        getRecentColors().add(picked.getRGB());
+        release(dialog);
+        return picked;
     }
 
     /**
@@ -76,45 +88,197 @@ public class JColorDialog extends JDialog {
         return showColorDialog(DEFAULT_COLOR);
     }
 
-    private JPanel initColorInfoPanel(GradientColor color) {
-        ColorInformationPanel informationPanel = new ColorInformationPanel(color);
-        color.addListener(informationPanel);
-        return informationPanel;
+    /**
+     * Shows a new, non-modal color dialog and returns immediately. The returned publisher emits the current color
+     * followed by every color the user picks, on a background thread and conflated according to the provided policy.
+     * Subscribers are completed when the user closes the dialog, at which point the last color is added to the recent
+     * colors.
+     *
+     * @param color  The color that the color chooser should be initialized with.
+     * @param policy Decides how often colors are emitted to each subscriber.
+     * @return The publisher of the picked colors.
+     */
+    public static ColorPublisher showNonModalColorDialog(Color color, EmissionPolicy policy) {
+        long start = System.nanoTime();
+        JColorDialog dialog = new JColorDialog(color);
+        dialog.setModal(false);
+        dialog.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        ColorPublisher publisher = new ColorPublisher(dialog.picker.getGradientColor(), policy);
+        dialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                publisher.close();
+                getRecentColors().add(dialog.picker.getGradientColor().getARGBInt());
+            }
+        });
+        dialog.openStartNanos = start;
+        dialog.setLocationRelativeTo(null);
+        dialog.setVisible(true);
+        return publisher;
+    }
+
+    /**
+     * Retrieves the cache of rendered saturation-value gradients that is shared by all dialogs and pickers.
+     * Can be used to inspect its hit and miss statistics.
+     *
+     * @return The shared gradient cache.
+     */
+    public static GradientCache getGradientCache() {
+        return ColorPickerPanel.getGradientCache();
+    }
+
+    /**
+     * Sets the maximum number of closed dialogs that are kept for reuse. A size of 0, the default, disposes every
+     * dialog when it is closed. Pooled dialogs beyond the new size are disposed.
+     *
+     * @param size The maximum number of pooled dialogs.
+     */
+    public static void setPoolSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Pool size must not be negative: " + size);
+        }
+        synchronized (POOL) {
+            poolSize = size;
+            trimPool(poolSize);
+        }
+    }
+
+    private static void trimPool(int size) {
+        synchronized (POOL) {
+            while (POOL.size() > size) {
+                POOL.pop().dispose();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the history of recently picked colors, which is shared by all dialogs.
+     *
+     * @return The recent colors.
+     */
+    public static synchronized ColorHistory getRecentColors() {
+        return recentColors;
+    }
+
+    /**
+     * Replaces the history of recently picked colors, for example by a history that is persisted in a file.
+     * Pooled dialogs still show the previous history, so they are disposed.
+     *
+     * @param history The new history of recent colors.
+     */
+    public static synchronized void setRecentColors(ColorHistory history) {
+        recentColors = history;
+        trimPool(0);
+    }
+
+    /**
+     * Retrieves the favorite colors, which are shared by all dialogs.
+     *
+     * @return The favorite colors.
+     */
+    public static synchronized ColorHistory getFavoriteColors() {
+        return favoriteColors;
     }
 
-    private JPanel initHuePanel(GradientColor color) {
+    /**
+     * Replaces the favorite colors, for example by a history that is persisted in a file.
+     * Pooled dialogs still show the previous favorites, so they are disposed.
+     *
+     * @param history The new favorite colors.
+     */
+    public static synchronized void setFavoriteColors(ColorHistory history) {
+        favoriteColors = history;
+        trimPool(0);
+    }
 
-        HueGradient hueGradient = new HueGradient(HUE_GRADIENT_WIDTH, HUE_GRADIENT_HEIGHT, color);
-        HueCrossHair hueCrossHair = new HueCrossHair(color, hueGradient);
-        HueSliderPanel hueSliderPanel = new HueSliderPanel(hueCrossHair);
-        new CrossHairSelectionController(hueCrossHair, hueSliderPanel);
-        color.addListener(hueSliderPanel);
-        return hueSliderPanel;
+    /**
+     * Retrieves the time between the start of the most recent {@link #showColorDialog(Color)} call and the first
+     * paint of its dialog. This includes building the dialog when no pooled dialog was available.
+     *
+     * @return The open-to-first-paint time in nanoseconds, or -1 if no dialog has been painted yet.
+     */
+    public static long getLastOpenToFirstPaintNanos() {
+        return lastOpenToFirstPaintNanos;
     }
 
-    private JPanel initHsvPanel(GradientColor color) {
-        SvGradient svGradient = new SvGradient(HSV_GRADIENT_WIDTH, HSV_GRADIENT_HEIGHT, color);
-        SvCrossHair svCrosshair = new SvCrossHair(color, svGradient);
-        SvSelectionPanel svSelectionPanel = new SvSelectionPanel(svCrosshair);
-        new CrossHairSelectionController(svCrosshair, svSelectionPanel);
-        color.addListener(svGradient);
-        color.addListener(svSelectionPanel);
-        return svSelectionPanel;
+    /**
+     * Takes a dialog from the pool and resets it to the provided color, or creates a new dialog if the pool is empty.
+     *
+     * @param color The color to initialise the dialog with.
+     * @return The dialog.
+     */
+    private static JColorDialog acquire(Color color) {
+        JColorDialog dialog;
+        synchronized (POOL) {
+            dialog = POOL.poll();
+        }
+        if (dialog == null) {
+            return new JColorDialog(color);
+        }
+        dialog.picker.setColor(color);
+        return dialog;
     }
 
-    private JComponent initView(JPanel hsvSelectionPanel, JPanel hueSliderPanel, JPanel colorInformationPanel) {
+    /**
+     * Returns a closed dialog to the pool, or disposes it if the pool is full.
+     *
+     * @param dialog The closed dialog.
+     */
+    private static void release(JColorDialog dialog) {
+        synchronized (POOL) {
+            if (POOL.size() < poolSize) {
+                POOL.push(dialog);
+                return;
+            }
+        }
+        dialog.dispose();
+    }
 
-        JSplitPane selectorPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, hsvSelectionPanel, hueSliderPanel);
-        selectorPane.setDividerLocation(HSV_GRADIENT_WIDTH + HSV_GRADIENT_OFFSET_LEFT);
-        selectorPane.setEnabled(false);
-        selectorPane.setDividerSize(0);
+    /**
+     * Paints the dialog and records the open-to-first-paint time of the first paint after it was opened.
+     *
+     * @param g The graphics to paint with.
+     */
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (openStartNanos != 0) {
+            lastOpenToFirstPaintNanos = System.nanoTime() - openStartNanos;
+            openStartNanos = 0;
+        }
+    }
 
-        JSplitPane informationPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, selectorPane, colorInformationPanel);
-        informationPane.setDividerLocation(HSV_GRADIENT_HEIGHT + HSV_GRADIENT_OFFSET_LEFT + HUE_GRADIENT_WIDTH * 2);
-        informationPane.setEnabled(false);
-        informationPane.setDividerSize(0);
+    /**
+     * Creates the rows of recent and favorite colors. Clicking a swatch selects its color; favorites are added with
+     * the button next to them and removed by right-clicking them.
+     *
+     * @return The component containing both rows.
+     */
+    private JComponent initHistoryPanel() {
+        JButton addFavorite = new JButton("+");
+        addFavorite.setToolTipText("Add to favorites");
+        addFavorite.addActionListener(e -> getFavoriteColors().add(picker.getGradientColor().getARGBInt()));
+        JPanel panel = new JPanel(new GridLayout(2, 1));
+        panel.add(initHistoryRow("Recent:", getRecentColors(), false, null));
+        panel.add(initHistoryRow("Favorites:", getFavoriteColors(), true, addFavorite));
+        return panel;
+    }
 
-        return informationPane;
+    private JComponent initHistoryRow(String title, ColorHistory history, boolean removable, JComponent action) {
+        SwatchStrip strip = new SwatchStrip(history);
+        new SwatchSelectionController(strip, picker::selectColor, removable);
+        JScrollPane scrollPane = new JScrollPane(strip, ScrollPaneConstants.VERTICAL_SCROLLBAR_NEVER,
+                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+        scrollPane.getHorizontalScrollBar().setUnitIncrement(SwatchStrip.SWATCH_STEP);
+        JLabel label = new JLabel(title);
+        label.setPreferredSize(new Dimension(HISTORY_LABEL_WIDTH, SwatchStrip.SWATCH_STEP));
+        JPanel row = new JPanel(new BorderLayout(HISTORY_GAP, 0));
+        row.add(label, BorderLayout.WEST);
+        row.add(scrollPane, BorderLayout.CENTER);
+        if (action != null) {
+            row.add(action, BorderLayout.EAST);
+        }
+        return row;
     }
 
     /**
@@ -123,7 +287,7 @@ public class JColorDialog extends JDialog {
      * @return the picked color
      */
     private Color getPickedColor() {
-        return gradientColor.getColor();
+        return picker.getColor();
     }
 
 }
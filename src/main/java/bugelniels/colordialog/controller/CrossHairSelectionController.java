@@ -68,14 +68,13 @@ public class CrossHairSelectionController extends MouseInputAdapter {
     }
 
     /**
-     * Updates the position of the cross-hair according to the provided mouse event.
+     * Updates the position of the cross-hair according to the provided mouse event. Both coordinates are applied as a
+     * single update.
      *
      * @param m Mouse event containing the x and y coordinates.
      */
     protected void updateCrossHairCoordinates(MouseEvent m) {
-        crossHair.setX(m.getX());
-        crossHair.setY(m.getY());
-
+        crossHair.setPosition(m.getX(), m.getY());
     }
 
 }
@@ -0,0 +1,56 @@
+package bugelniels.colordialog.controller;
+
+import bugelniels.colordialog.view.SwatchStrip;
+
+import javax.swing.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.function.IntConsumer;
+
+/**
+ * Mouse selection controller for swatch strips. Clicking a swatch selects its color; right-clicking a swatch removes
+ * its color from the history, if the strip allows it.
+ *
+ * @author BugelNiels
+ */
+public class SwatchSelectionController extends MouseAdapter {
+
+    private final SwatchStrip strip;
+    private final IntConsumer selection;
+    private final boolean removable;
+    private final int[] clicked = new int[1];
+
+    /**
+     * Adds a new selection listener to the provided strip.
+     *
+     * @param strip     The strip to listen to.
+     * @param selection Receives the packed ARGB value of every selected color.
+     * @param removable Whether right-clicking a swatch removes its color from the history.
+     */
+    public SwatchSelectionController(SwatchStrip strip, IntConsumer selection, boolean removable) {
+        this.strip = strip;
+        this.selection = selection;
+        this.removable = removable;
+        strip.addMouseListener(this);
+    }
+
+    /**
+     * Selects or removes the color of the clicked swatch.
+     *
+     * @param e The mouse event.
+     */
+    @Override
+    public void mouseClicked(MouseEvent e) {
+        int index = strip.indexAt(e.getX());
+        if (index < 0 || strip.getHistory().copyTo(index, clicked, 0, 1) == 0) {
+            return;
+        }
+        if (SwingUtilities.isRightMouseButton(e)) {
+            if (removable) {
+                strip.getHistory().remove(clicked[0]);
+            }
+        } else {
+            selection.accept(clicked[0]);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package bugelniels.colordialog.metrics;
+
+import jdk.jfr.FlightRecorder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects rendering and event metrics of all color dialogs: render and paint time histograms, the time from
+ * requesting a gradient frame to painting it, the rate of color events, and coalesced and dropped frames.
+ * Metrics are exposed through JMX under {@value #OBJECT_NAME} and as flight recorder events in the "Color Dialog"
+ * category. Collection is disabled by default, in which case every hook costs a single volatile read, plus a check
+ * whether a flight recording enabled the corresponding event. Metrics are enabled through
+ * {@link #setEnabled(boolean)}, or at startup by setting the system property {@value #ENABLED_PROPERTY} to true.
+ *
+ * @author BugelNiels
+ */
+public final class ColorDialogMetrics implements ColorDialogMetricsMXBean {
+
+    /**
+     * The object name the metrics are registered under in the platform MBean server.
+     */
+    public static final String OBJECT_NAME = "bugelniels.colordialog:type=ColorDialogMetrics";
+    /**
+     * System property that enables the metrics at startup when set to true.
+     */
+    public static final String ENABLED_PROPERTY = "bugelniels.colordialog.metrics";
+
+    private static final long RATE_WINDOW_NANOS = 1_000_000_000L;
+    private static final ColorDialogMetrics INSTANCE = new ColorDialogMetrics();
+
+    private static volatile boolean enabled;
+
+    private final LatencyHistogram renderTimes = new LatencyHistogram();
+    private final LatencyHistogram paintTimes = new LatencyHistogram();
+    private final LatencyHistogram requestToPaintTimes = new LatencyHistogram();
+    private final AtomicLong previewCount = new AtomicLong();
+    private final AtomicLong colorEventCount = new AtomicLong();
+    private final AtomicLong coalescedFrameCount = new AtomicLong();
+    private final AtomicLong droppedFrameCount = new AtomicLong();
+    private boolean registered;
+    private long windowStartNanos;
+    private long windowStartCount;
+    private double colorEventsPerSecond;
+
+    static {
+        if (Boolean.getBoolean(ENABLED_PROPERTY)) {
+            INSTANCE.setEnabled(true);
+        }
+    }
+
+    private ColorDialogMetrics() {
+    }
+
+    /**
+     * Retrieves the metrics shared by all color dialogs.
+     *
+     * @return The metrics.
+     */
+    public static ColorDialogMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops collecting metrics. The first time metrics are enabled, they are registered in the platform MBean
+     * server and the periodic flight recorder statistics event is registered.
+     *
+     * @param enabled True to collect metrics, false to stop collecting them.
+     * @throws IllegalStateException If the metrics could not be registered in the platform MBean server.
+     */
+    @Override
+    public synchronized void setEnabled(boolean enabled) {
+        if (enabled && !registered) {
+            registered = true;
+            register();
+        }
+        windowStartNanos = System.nanoTime();
+        windowStartCount = colorEventCount.get();
+        ColorDialogMetrics.enabled = enabled;
+    }
+
+    private void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register the color dialog metrics", e);
+        }
+        FlightRecorder.addPeriodicEvent(ColorDialogStatisticsEvent.class, () -> new ColorDialogStatisticsEvent(
+                getColorEventsPerSecond(), getCoalescedFrameCount(), getDroppedFrameCount()).commit());
+    }
+
+    /**
+     * Starts timing the rendering of a gradient frame.
+     *
+     * @return The current time in nanoseconds, or 0 if render times are neither collected nor recorded.
+     */
+    public static long startRender() {
+        return enabled || new GradientRenderEvent().isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the rendering of a gradient frame that was started with {@link #startRender()}.
+     *
+     * @param startNanos The time returned by {@link #startRender()}.
+     * @param width      The width of the rendered frame.
+     * @param height     The height of the rendered frame.
+     * @param parameter  The parameter of the rendered frame, such as the hue.
+     * @param preview    Whether the frame is a low-resolution preview.
+     */
+    public static void renderFinished(long startNanos, int width, int height, float parameter, boolean preview) {
+        if (startNanos == 0) {
+            return;
+        }
+        long duration = System.nanoTime() - startNanos;
+        if (enabled) {
+            INSTANCE.renderTimes.record(duration);
+            if (preview) {
+                INSTANCE.previewCount.incrementAndGet();
+            }
+        }
+        GradientRenderEvent event = new GradientRenderEvent(width, height, parameter, preview, duration);
+        if (event.shouldCommit()) {
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts timing a paint.
+     *
+     * @return The current time in nanoseconds, or 0 if paint times are neither collected nor recorded.
+     */
+    public static long startPaint() {
+        return enabled || new GradientPaintEvent().isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Marks the moment a gradient frame is requested, so the time until that frame is painted can be measured.
+     *
+     * @return The current time in nanoseconds, or 0 if paint times are neither collected nor recorded.
+     */
+    public static long frameRequested() {
+        return startPaint();
+    }
+
+    /**
+     * Records a paint that was started with {@link #startPaint()}.
+     *
+     * @param startNanos   The time returned by {@link #startPaint()}.
+     * @param requestNanos The time returned by {@link #frameRequested()} for the painted frame, or 0 if the paint did
+     *                     not show a new frame.
+     * @param width        The width of the painted component.
+     * @param height       The height of the painted component.
+     */
+    public static void paintFinished(long startNanos, long requestNanos, int width, int height) {
+        if (startNanos == 0) {
+            return;
+        }
+        long end = System.nanoTime();
+        long requestToPaint = requestNanos == 0 ? 0 : end - requestNanos;
+        if (enabled) {
+            INSTANCE.paintTimes.record(end - startNanos);
+            if (requestNanos != 0) {
+                INSTANCE.requestToPaintTimes.record(requestToPaint);
+            }
+        }
+        GradientPaintEvent event = new GradientPaintEvent(width, height, end - startNanos, requestToPaint);
+        if (event.shouldCommit()) {
+            event.commit();
+        }
+    }
+
+    /**
+     * Counts a change event fired by a gradient color.
+     */
+    public static void colorEventFired() {
+        if (enabled) {
+            INSTANCE.colorEventCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Counts a frame request that was replaced by a newer request before it was rendered.
+     */
+    public static void frameCoalesced() {
+        if (enabled) {
+            INSTANCE.coalescedFrameCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Counts a frame that was published, but replaced by a newer frame before it was painted.
+     */
+    public static void frameDropped() {
+        if (enabled) {
+            INSTANCE.droppedFrameCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    public LatencySnapshot getRenderTimes() {
+        return renderTimes.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getPaintTimes() {
+        return paintTimes.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getRequestToPaintTimes() {
+        return requestToPaintTimes.snapshot();
+    }
+
+    @Override
+    public long getPreviewCount() {
+        return previewCount.get();
+    }
+
+    @Override
+    public long getColorEventCount() {
+        return colorEventCount.get();
+    }
+
+    /**
+     * Retrieves the number of color events per second. The rate is updated whenever it is retrieved at least one
+     * second after the previous update, and otherwise the previous rate is returned.
+     *
+     * @return The number of color events per second.
+     */
+    @Override
+    public synchronized double getColorEventsPerSecond() {
+        long now = System.nanoTime();
+        long elapsed = now - windowStartNanos;
+        if (elapsed >= RATE_WINDOW_NANOS) {
+            long count = colorEventCount.get();
+            colorEventsPerSecond = (count - windowStartCount) * (double) RATE_WINDOW_NANOS / elapsed;
+            windowStartNanos = now;
+            windowStartCount = count;
+        }
+        return colorEventsPerSecond;
+    }
+
+    @Override
+    public long getCoalescedFrameCount() {
+        return coalescedFrameCount.get();
+    }
+
+    @Override
+    public long getDroppedFrameCount() {
+        return droppedFrameCount.get();
+    }
+
+    @Override
+    public synchronized void reset() {
+        renderTimes.reset();
+        paintTimes.reset();
+        requestToPaintTimes.reset();
+        previewCount.set(0);
+        colorEventCount.set(0);
+        coalescedFrameCount.set(0);
+        droppedFrameCount.set(0);
+        windowStartNanos = System.nanoTime();
+        windowStartCount = 0;
+        colorEventsPerSecond = 0;
+    }
+}
@@ -0,0 +1,88 @@
+package bugelniels.colordialog.metrics;
+
+/**
+ * Management interface of {@link ColorDialogMetrics}, registered as
+ * {@value ColorDialogMetrics#OBJECT_NAME} once metrics are enabled.
+ *
+ * @author BugelNiels
+ */
+public interface ColorDialogMetricsMXBean {
+
+    /**
+     * Retrieves whether metrics are currently collected.
+     *
+     * @return True if metrics are collected, false otherwise.
+     */
+    boolean isEnabled();
+
+    /**
+     * Starts or stops collecting metrics. Metrics collected so far are kept.
+     *
+     * @param enabled True to collect metrics, false to stop collecting them.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Retrieves the time it took to render gradient frames on the render thread, including previews and frames that
+     * were copied from a cache.
+     *
+     * @return The render times.
+     */
+    LatencySnapshot getRenderTimes();
+
+    /**
+     * Retrieves the time it took to paint the saturation-value panel on the event dispatch thread.
+     *
+     * @return The paint times.
+     */
+    LatencySnapshot getPaintTimes();
+
+    /**
+     * Retrieves the time from requesting a gradient frame, for example by moving the hue cross-hair, until the panel
+     * finished painting that frame.
+     *
+     * @return The request-to-paint times.
+     */
+    LatencySnapshot getRequestToPaintTimes();
+
+    /**
+     * Retrieves the number of rendered frames that were low-resolution previews.
+     *
+     * @return The number of previews.
+     */
+    long getPreviewCount();
+
+    /**
+     * Retrieves the number of change events fired by gradient colors.
+     *
+     * @return The number of color events.
+     */
+    long getColorEventCount();
+
+    /**
+     * Retrieves the number of change events fired by gradient colors per second, measured over the most recent
+     * window of at least one second.
+     *
+     * @return The number of color events per second.
+     */
+    double getColorEventsPerSecond();
+
+    /**
+     * Retrieves the number of frame requests that were replaced by a newer request before they were rendered.
+     *
+     * @return The number of coalesced frames.
+     */
+    long getCoalescedFrameCount();
+
+    /**
+     * Retrieves the number of frames that were published, but replaced by a newer frame before they were painted.
+     *
+     * @return The number of dropped frames.
+     */
+    long getDroppedFrameCount();
+
+    /**
+     * Removes all collected metrics.
+     */
+    void reset();
+}
@@ -0,0 +1,43 @@
+package bugelniels.colordialog.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * Periodic flight recorder event with the color event rate and frame counters. Emitted while metrics are enabled.
+ *
+ * @author BugelNiels
+ */
+@Name("bugelniels.colordialog.Statistics")
+@Label("Color Dialog Statistics")
+@Category("Color Dialog")
+@Description("Color event rate and frame counters of all color dialogs")
+@Period("1 s")
+@StackTrace(false)
+final class ColorDialogStatisticsEvent extends Event {
+
+    @Label("Color Events Per Second")
+    private final double colorEventsPerSecond;
+    @Label("Coalesced Frames")
+    private final long coalescedFrames;
+    @Label("Dropped Frames")
+    private final long droppedFrames;
+
+    /**
+     * Creates a new event.
+     *
+     * @param colorEventsPerSecond The number of color events per second.
+     * @param coalescedFrames      The total number of coalesced frames.
+     * @param droppedFrames        The total number of dropped frames.
+     */
+    ColorDialogStatisticsEvent(double colorEventsPerSecond, long coalescedFrames, long droppedFrames) {
+        this.colorEventsPerSecond = colorEventsPerSecond;
+        this.coalescedFrames = coalescedFrames;
+        this.droppedFrames = droppedFrames;
+    }
+}
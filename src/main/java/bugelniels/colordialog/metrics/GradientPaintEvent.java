@@ -0,0 +1,56 @@
+package bugelniels.colordialog.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a single paint of the saturation-value panel on the event dispatch thread.
+ *
+ * @author BugelNiels
+ */
+@Name("bugelniels.colordialog.GradientPaint")
+@Label("Gradient Paint")
+@Category("Color Dialog")
+@Description("A paint of the saturation-value panel")
+@StackTrace(false)
+final class GradientPaintEvent extends Event {
+
+    @Label("Width")
+    private final int width;
+    @Label("Height")
+    private final int height;
+    @Label("Paint Time")
+    @Timespan
+    private final long paintTime;
+    @Label("Request To Paint")
+    @Description("Time from requesting the painted frame until it was painted, or 0 if no new frame was painted")
+    @Timespan
+    private final long requestToPaint;
+
+    /**
+     * Creates an empty event, used to check whether the event is enabled.
+     */
+    GradientPaintEvent() {
+        this(0, 0, 0, 0);
+    }
+
+    /**
+     * Creates a new event.
+     *
+     * @param width          The width of the painted panel.
+     * @param height         The height of the painted panel.
+     * @param paintTime      The time it took to paint the panel in nanoseconds.
+     * @param requestToPaint The time from requesting the painted frame until it was painted in nanoseconds, or 0.
+     */
+    GradientPaintEvent(int width, int height, long paintTime, long requestToPaint) {
+        this.width = width;
+        this.height = height;
+        this.paintTime = paintTime;
+        this.requestToPaint = requestToPaint;
+    }
+}
@@ -0,0 +1,58 @@
+package bugelniels.colordialog.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a single gradient frame rendered on the render thread.
+ *
+ * @author BugelNiels
+ */
+@Name("bugelniels.colordialog.GradientRender")
+@Label("Gradient Render")
+@Category("Color Dialog")
+@Description("A gradient frame rendered in the background")
+@StackTrace(false)
+final class GradientRenderEvent extends Event {
+
+    @Label("Width")
+    private final int width;
+    @Label("Height")
+    private final int height;
+    @Label("Parameter")
+    private final float parameter;
+    @Label("Preview")
+    private final boolean preview;
+    @Label("Render Time")
+    @Timespan
+    private final long renderTime;
+
+    /**
+     * Creates an empty event, used to check whether the event is enabled.
+     */
+    GradientRenderEvent() {
+        this(0, 0, 0, false, 0);
+    }
+
+    /**
+     * Creates a new event.
+     *
+     * @param width      The width of the rendered frame.
+     * @param height     The height of the rendered frame.
+     * @param parameter  The parameter of the rendered frame, such as the hue.
+     * @param preview    Whether the frame is a low-resolution preview.
+     * @param renderTime The time it took to render the frame in nanoseconds.
+     */
+    GradientRenderEvent(int width, int height, float parameter, boolean preview, long renderTime) {
+        this.width = width;
+        this.height = height;
+        this.parameter = parameter;
+        this.preview = preview;
+        this.renderTime = renderTime;
+    }
+}
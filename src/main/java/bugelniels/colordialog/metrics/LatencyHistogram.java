@@ -0,0 +1,93 @@
+package bugelniels.colordialog.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds. Bucket i counts the durations whose highest set bit is bit i - 1,
+ * so bucket boundaries are powers of two and every duration is recorded with a relative error of at most a factor
+ * of two. Recording never allocates and may happen concurrently with other recordings and snapshots.
+ *
+ * @author BugelNiels
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of buckets. The last bucket holds every duration of at least 2^62 nanoseconds.
+     */
+    public static final int BUCKET_COUNT = Long.SIZE;
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double MEDIAN = 0.5;
+    private static final double TAIL = 0.99;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a single duration. Negative durations are recorded as 0.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long duration = Math.max(0, nanos);
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(duration));
+        count.incrementAndGet();
+        totalNanos.addAndGet(duration);
+        maxNanos.accumulateAndGet(duration, Math::max);
+    }
+
+    /**
+     * Retrieves the number of recorded durations.
+     *
+     * @return The number of recorded durations.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Removes all recorded durations.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    /**
+     * Creates a summary of the recorded durations. Percentiles are reported as the upper bound of the bucket they fall
+     * in, limited to the largest recorded duration.
+     *
+     * @return The summary.
+     */
+    public LatencySnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        long max = maxNanos.get();
+        double mean = total == 0 ? 0 : totalNanos.get() / (double) count.get() / NANOS_PER_MILLI;
+        return new LatencySnapshot(total, mean, percentile(counts, total, MEDIAN, max),
+                percentile(counts, total, TAIL, max), max / NANOS_PER_MILLI, counts);
+    }
+
+    private static double percentile(long[] counts, long total, double fraction, long max) {
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return Math.min((1L << i) - 1, max) / NANOS_PER_MILLI;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,42 @@
+package bugelniels.colordialog.metrics;
+
+import lombok.Getter;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Summary of a {@link LatencyHistogram} at a single point in time. Exposed through JMX as composite data.
+ *
+ * @author BugelNiels
+ */
+@Getter
+public class LatencySnapshot {
+
+    private final long count;
+    private final double meanMillis;
+    private final double medianMillis;
+    private final double p99Millis;
+    private final double maxMillis;
+    private final long[] bucketCounts;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param count        The number of recorded durations.
+     * @param meanMillis   The mean duration in milliseconds.
+     * @param medianMillis The median duration in milliseconds.
+     * @param p99Millis    The 99th percentile of the durations in milliseconds.
+     * @param maxMillis    The largest duration in milliseconds.
+     * @param bucketCounts The number of durations per power-of-two bucket of nanoseconds.
+     */
+    @ConstructorProperties({"count", "meanMillis", "medianMillis", "p99Millis", "maxMillis", "bucketCounts"})
+    public LatencySnapshot(long count, double meanMillis, double medianMillis, double p99Millis, double maxMillis,
+                           long[] bucketCounts) {
+        this.count = count;
+        this.meanMillis = meanMillis;
+        this.medianMillis = medianMillis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+        this.bucketCounts = bucketCounts;
+    }
+}
@@ -0,0 +1,157 @@
+package bugelniels.colordialog.model;
+
+/**
+ * Converts whole arrays of colors between packed RGB values and the hue-saturation-brightness model, with results
+ * identical to {@link GradientColor} and {@link java.awt.Color}. When the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}, the conversions use the vector API to convert several colors per
+ * instruction; otherwise, they fall back to converting one color at a time. The vector API can be disabled explicitly
+ * by setting the system property {@value #SCALAR_PROPERTY} to true.
+ *
+ * @author BugelNiels
+ */
+public final class BulkColorConversions {
+
+    /**
+     * Name of the system property that disables the vector API when set to true.
+     */
+    public static final String SCALAR_PROPERTY = "bugelniels.colordialog.scalar";
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_CONVERTER = "bugelniels.colordialog.model.VectorHsbBulkConverter";
+    private static final int BLOCK_SIZE = 1024;
+    private static final int COMPONENTS = 3;
+
+    private static final HsbBulkConverter SCALAR_CONVERTER = new ScalarHsbBulkConverter();
+    private static final HsbBulkConverter CONVERTER = loadConverter();
+
+    private BulkColorConversions() {
+    }
+
+    /**
+     * Loads the vectorized converter if the vector API is available and not disabled.
+     *
+     * @return The fastest available converter.
+     */
+    private static HsbBulkConverter loadConverter() {
+        if (Boolean.getBoolean(SCALAR_PROPERTY) || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return SCALAR_CONVERTER;
+        }
+        try {
+            return (HsbBulkConverter) Class.forName(VECTOR_CONVERTER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR_CONVERTER;
+        }
+    }
+
+    /**
+     * Retrieves the converter used by the conversions of this class.
+     *
+     * @return The fastest available converter.
+     */
+    public static HsbBulkConverter getConverter() {
+        return CONVERTER;
+    }
+
+    /**
+     * Retrieves a converter that converts one color at a time, regardless of the availability of the vector API.
+     *
+     * @return The scalar converter.
+     */
+    public static HsbBulkConverter getScalarConverter() {
+        return SCALAR_CONVERTER;
+    }
+
+    /**
+     * Checks whether the conversions use the vector API.
+     *
+     * @return True if the conversions are vectorized, false otherwise.
+     */
+    public static boolean isVectorized() {
+        return CONVERTER != SCALAR_CONVERTER;
+    }
+
+    /**
+     * Converts packed RGB values to hue, saturation and brightness, stored in separate arrays.
+     *
+     * @param packedRgb  The packed RGB values to convert. The alpha channel is ignored.
+     * @param hue        The array to store the hues in. Must be at least as long as the packed RGB values.
+     * @param saturation The array to store the saturations in. Must be at least as long as the packed RGB values.
+     * @param brightness The array to store the brightnesses in. Must be at least as long as the packed RGB values.
+     */
+    public static void rgbToHsb(int[] packedRgb, float[] hue, float[] saturation, float[] brightness) {
+        checkCapacity(packedRgb.length, hue, saturation, brightness);
+        CONVERTER.rgbToHsb(packedRgb, 0, hue, saturation, brightness, 0, packedRgb.length);
+    }
+
+    /**
+     * Converts hue, saturation and brightness values, stored in separate arrays, to packed RGB values. Converts as
+     * many colors as the packed RGB array holds.
+     *
+     * @param hue        The hues to convert. Only the fractional part is used.
+     * @param saturation The saturations to convert, between 0 and 1.
+     * @param brightness The brightnesses to convert, between 0 and 1.
+     * @param packedRgb  The array to store the packed RGB values in, with an alpha of 255.
+     */
+    public static void hsbToRgb(float[] hue, float[] saturation, float[] brightness, int[] packedRgb) {
+        checkCapacity(packedRgb.length, hue, saturation, brightness);
+        CONVERTER.hsbToRgb(hue, saturation, brightness, 0, packedRgb, 0, packedRgb.length);
+    }
+
+    /**
+     * Converts packed RGB values to hue, saturation and brightness, interleaved in a single array as
+     * {@code h0, s0, b0, h1, s1, b1, ...}.
+     *
+     * @param packedRgb The packed RGB values to convert. The alpha channel is ignored.
+     * @param hsb       The array to store the components in. Must hold 3 values per packed RGB value.
+     */
+    public static void rgbToHsb(int[] packedRgb, float[] hsb) {
+        checkCapacity((long) packedRgb.length * COMPONENTS, hsb.length);
+        float[][] block = new float[COMPONENTS][Math.min(BLOCK_SIZE, packedRgb.length)];
+        for (int start = 0; start < packedRgb.length; start += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, packedRgb.length - start);
+            CONVERTER.rgbToHsb(packedRgb, start, block[0], block[1], block[2], 0, count);
+            for (int i = 0; i < count; i++) {
+                int index = (start + i) * COMPONENTS;
+                hsb[index] = block[0][i];
+                hsb[index + 1] = block[1][i];
+                hsb[index + 2] = block[2][i];
+            }
+        }
+    }
+
+    /**
+     * Converts hue, saturation and brightness values, interleaved in a single array as
+     * {@code h0, s0, b0, h1, s1, b1, ...}, to packed RGB values. Converts as many colors as the packed RGB array
+     * holds.
+     *
+     * @param hsb       The components to convert. Must hold 3 values per packed RGB value.
+     * @param packedRgb The array to store the packed RGB values in, with an alpha of 255.
+     */
+    public static void hsbToRgb(float[] hsb, int[] packedRgb) {
+        checkCapacity((long) packedRgb.length * COMPONENTS, hsb.length);
+        float[][] block = new float[COMPONENTS][Math.min(BLOCK_SIZE, packedRgb.length)];
+        for (int start = 0; start < packedRgb.length; start += BLOCK_SIZE) {
+            int count = Math.min(BLOCK_SIZE, packedRgb.length - start);
+            for (int i = 0; i < count; i++) {
+                int index = (start + i) * COMPONENTS;
+                block[0][i] = hsb[index];
+                block[1][i] = hsb[index + 1];
+                block[2][i] = hsb[index + 2];
+            }
+            CONVERTER.hsbToRgb(block[0], block[1], block[2], 0, packedRgb, start, count);
+        }
+    }
+
+    private static void checkCapacity(int required, float[]... components) {
+        for (float[] component : components) {
+            checkCapacity(required, component.length);
+        }
+    }
+
+    private static void checkCapacity(long required, int available) {
+        if (available < required) {
+            throw new IllegalArgumentException("Array holds " + available + " values, but " + required
+                    + " are required");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package bugelniels.colordialog.model;
+
+/**
+ * Listener that is notified whenever one or more components of a {@link GradientColor} change. Unlike a
+ * PropertyChangeListener, it receives the changed components as a bitmask and the new values as primitives, so
+ * notifying it does not allocate.
+ *
+ * @author BugelNiels
+ */
+@FunctionalInterface
+public interface ColorChangeListener {
+
+    /**
+     * Called after the color changed.
+     *
+     * @param changedComponents The bitmask of the changed components, made up of {@link GradientColor#HUE_COMPONENT},
+     *                          {@link GradientColor#SATURATION_COMPONENT}, {@link GradientColor#BRIGHTNESS_COMPONENT}
+     *                          and {@link GradientColor#ALPHA_COMPONENT}. The alpha itself is not passed; listeners
+     *                          that need it read it from the color.
+     * @param hue               The new hue, between 0 and 1.
+     * @param saturation        The new saturation, between 0 and 1.
+     * @param brightness        The new brightness, between 0 and 1.
+     */
+    void colorChanged(int changedComponents, float hue, float saturation, float brightness);
+}
@@ -0,0 +1,99 @@
+package bugelniels.colordialog.model;
+
+import bugelniels.colordialog.metrics.ColorDialogMetrics;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeSupport;
+import java.util.Arrays;
+
+/**
+ * Notifies the listeners of a {@link GradientColor}. {@link ColorChangeListener}s are kept in an array that is copied
+ * whenever a listener is added or removed, so notifying them does not allocate. PropertyChangeEvents are only created
+ * when at least one PropertyChangeListener for the event is registered.
+ *
+ * @author BugelNiels
+ */
+final class ColorChangeSupport {
+
+    private final GradientColor source;
+    private final PropertyChangeSupport changeSupport;
+    private volatile ColorChangeListener[] colorListeners = new ColorChangeListener[0];
+
+    /**
+     * Creates new support for the provided color.
+     *
+     * @param source        The color whose changes are fired.
+     * @param changeSupport The support holding the PropertyChangeListeners of the color.
+     */
+    ColorChangeSupport(GradientColor source, PropertyChangeSupport changeSupport) {
+        this.source = source;
+        this.changeSupport = changeSupport;
+    }
+
+    /**
+     * Adds a listener that is notified whenever the color changes.
+     *
+     * @param listener The listener to add.
+     */
+    synchronized void addColorListener(ColorChangeListener listener) {
+        ColorChangeListener[] listeners = Arrays.copyOf(colorListeners, colorListeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+        colorListeners = listeners;
+    }
+
+    /**
+     * Removes a listener that was added through {@link #addColorListener(ColorChangeListener)}.
+     *
+     * @param listener The listener to remove.
+     */
+    synchronized void removeColorListener(ColorChangeListener listener) {
+        for (int i = 0; i < colorListeners.length; i++) {
+            if (colorListeners[i] == listener) {
+                ColorChangeListener[] listeners = new ColorChangeListener[colorListeners.length - 1];
+                System.arraycopy(colorListeners, 0, listeners, 0, i);
+                System.arraycopy(colorListeners, i + 1, listeners, i, listeners.length - i);
+                colorListeners = listeners;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Notifies the listeners of a change of several components at once. The PropertyChangeEvent is named
+     * {@link GradientColor#COLOR_CHANGED} and its new value is the bitmask of the changed components.
+     *
+     * @param changed The bitmask of the changed components.
+     */
+    void fireColorChanged(int changed) {
+        notifyColorListeners(changed);
+        if (changeSupport.hasListeners(GradientColor.COLOR_CHANGED)) {
+            changeSupport.firePropertyChange(new PropertyChangeEvent(source, GradientColor.COLOR_CHANGED, null,
+                    changed));
+        }
+    }
+
+    /**
+     * Notifies the listeners of a change of a single component. Nothing is fired if the value did not change.
+     *
+     * @param component    The bit of the changed component.
+     * @param propertyName The name of the PropertyChangeEvent belonging to the component.
+     * @param oldValue     The previous value of the component.
+     * @param newValue     The new value of the component.
+     */
+    void fireComponentChanged(int component, String propertyName, float oldValue, float newValue) {
+        if (Float.compare(oldValue, newValue) == 0) {
+            return;
+        }
+        notifyColorListeners(component);
+        if (changeSupport.hasListeners(propertyName)) {
+            changeSupport.firePropertyChange(propertyName, oldValue, newValue);
+        }
+    }
+
+    private void notifyColorListeners(int changed) {
+        ColorDialogMetrics.colorEventFired();
+        for (ColorChangeListener listener : colorListeners) {
+            listener.colorChanged(changed, source.getHue(), source.getSaturation(), source.getBrightness());
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package bugelniels.colordialog.model;
+
+import lombok.Getter;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bounded list of colors, such as recently picked or favorite colors, ordered from most to least recently added.
+ * Colors are stored as packed ARGB ints in a ring buffer; no {@link java.awt.Color} objects are kept. Once the history
+ * is full, adding a color overwrites the least recent one. Adding a color that is already present moves it to the
+ * front instead of storing it twice.
+ * <p>
+ * A history can live on the heap, or in a memory-mapped file, see {@link #open(Path, int)}. In the latter case the
+ * ring buffer is the mapped file itself: opening a history only maps the file, without parsing it, and every change is
+ * written straight into the mapping. The history holds an exclusive lock on the file until it is closed, see
+ * {@link #close()}, so a file can only be opened by one history at a time, in this or any other process.
+ * Fires a PropertyChangeEvent whenever the colors change. All methods are thread-safe.
+ *
+ * @author BugelNiels
+ */
+public class ColorHistory implements Closeable {
+
+    /**
+     * Name of the PropertyChangeEvent that is fired when the colors in the history changed.
+     */
+    public static final String HISTORY_CHANGED = "historyChanged";
+    /**
+     * The default maximum number of colors in a history.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final int MAGIC = 0x43484953;
+    private static final int VERSION = 1;
+    private static final int MAGIC_INDEX = 0;
+    private static final int VERSION_INDEX = 1;
+    private static final int CAPACITY_INDEX = 2;
+    private static final int HEAD_INDEX = 3;
+    private static final int SIZE_INDEX = 4;
+    private static final int HEADER_INTS = 5;
+
+    private ByteBuffer storage;
+    private IntBuffer buffer;
+    private FileChannel channel;
+    @Getter
+    private final int capacity;
+    private int head;
+    private int size;
+    private final PropertyChangeSupport changeSupport = new PropertyChangeSupport(this);
+
+    /**
+     * Creates a new, empty history on the heap.
+     *
+     * @param capacity The maximum number of colors in the history. Must be positive.
+     */
+    public ColorHistory(int capacity) {
+        this(ByteBuffer.allocate((HEADER_INTS + checkCapacity(capacity)) * Integer.BYTES), capacity);
+        initialize();
+    }
+
+    private ColorHistory(ByteBuffer storage, int capacity) {
+        this.storage = storage;
+        this.buffer = storage.asIntBuffer();
+        this.capacity = capacity;
+    }
+
+    private static int checkCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        return capacity;
+    }
+
+    /**
+     * Opens a history that is persisted in the provided file, creating the file if it does not exist. A file written
+     * with a different capacity is rewritten, keeping the most recent colors that fit the new capacity. A file that is
+     * not a valid history is started empty. The file stays locked until the history is closed.
+     *
+     * @param file     The file to map.
+     * @param capacity The maximum number of colors in the history. Must be positive.
+     * @return The history.
+     * @throws IOException If the file could not be opened or mapped, or is already opened by another history.
+     */
+    public static ColorHistory open(Path file, int capacity) throws IOException {
+        checkCapacity(capacity);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        ColorHistory history = null;
+        try {
+            lock(channel, file);
+            history = map(channel, capacity);
+            history.channel = channel;
+            return history;
+        } finally {
+            if (history == null) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Takes an exclusive lock on a history file. The lock is released when the channel is closed.
+     *
+     * @param channel The channel of the file.
+     * @param file    The file, used in the error message.
+     * @throws IOException If the file could not be locked, for example because another history holds the lock.
+     */
+    private static void lock(FileChannel channel, Path file) throws IOException {
+        try {
+            if (channel.tryLock() != null) {
+                return;
+            }
+        } catch (OverlappingFileLockException e) {
+            // Locked by another history in this process.
+        }
+        throw new IOException("The color history " + file + " is already opened by another history");
+    }
+
+    /**
+     * Maps a history file, rewriting it first if it was written with a different capacity.
+     *
+     * @param channel  The channel of the file.
+     * @param capacity The maximum number of colors in the history.
+     * @return The history.
+     * @throws IOException If the file could not be read or mapped.
+     */
+    private static ColorHistory map(FileChannel channel, int capacity) throws IOException {
+        long bytes = (long) (HEADER_INTS + capacity) * Integer.BYTES;
+        int[] previous = new int[0];
+        if (channel.size() != bytes) {
+            previous = readEntries(channel);
+            channel.truncate(0);
+        }
+        MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        ColorHistory history = new ColorHistory(mapping, capacity);
+        if (previous.length == 0 && history.isValid()) {
+            history.load();
+            return history;
+        }
+        history.initialize();
+        for (int i = Math.min(previous.length, capacity) - 1; i >= 0; i--) {
+            history.append(previous[i]);
+        }
+        return history;
+    }
+
+    /**
+     * Reads the colors of an existing file that was written with a different capacity. The file is read into the
+     * heap instead of being mapped, so it can be truncated afterwards.
+     *
+     * @param channel The channel of the file.
+     * @return The colors, most recent first, or an empty array if the file is not a valid history.
+     * @throws IOException If the file could not be read.
+     */
+    private static int[] readEntries(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < (long) (HEADER_INTS + 1) * Integer.BYTES || fileSize % Integer.BYTES != 0
+                || fileSize > Integer.MAX_VALUE) {
+            return new int[0];
+        }
+        ByteBuffer contents = ByteBuffer.allocate((int) fileSize);
+        int read = 0;
+        while (contents.hasRemaining() && read >= 0) {
+            read = channel.read(contents, contents.position());
+        }
+        contents.flip();
+        ColorHistory stored = new ColorHistory(contents, (int) (fileSize / Integer.BYTES) - HEADER_INTS);
+        if (!stored.isValid()) {
+            return new int[0];
+        }
+        stored.load();
+        return stored.toArray();
+    }
+
+    private boolean isValid() {
+        int storedHead = buffer.get(HEAD_INDEX);
+        int storedSize = buffer.get(SIZE_INDEX);
+        return buffer.get(MAGIC_INDEX) == MAGIC && buffer.get(VERSION_INDEX) == VERSION
+                && buffer.get(CAPACITY_INDEX) == capacity && storedHead >= 0 && storedHead < capacity
+                && storedSize >= 0 && storedSize <= capacity;
+    }
+
+    private void load() {
+        head = buffer.get(HEAD_INDEX);
+        size = buffer.get(SIZE_INDEX);
+    }
+
+    private void initialize() {
+        buffer.put(MAGIC_INDEX, MAGIC);
+        buffer.put(VERSION_INDEX, VERSION);
+        buffer.put(CAPACITY_INDEX, capacity);
+        head = 0;
+        size = 0;
+        storePosition();
+    }
+
+    private void storePosition() {
+        buffer.put(HEAD_INDEX, head);
+        buffer.put(SIZE_INDEX, size);
+    }
+
+    private int slot(int index) {
+        return HEADER_INTS + Math.floorMod(head - index, capacity);
+    }
+
+    private void append(int argb) {
+        head = (head + 1) % capacity;
+        buffer.put(HEADER_INTS + head, argb);
+        size = Math.min(size + 1, capacity);
+        storePosition();
+    }
+
+    /**
+     * Adds a color to the front of the history. A color that is already present is moved to the front. If the history
+     * is full, the least recent color is overwritten.
+     *
+     * @param argb The packed ARGB value of the color.
+     */
+    public void add(int argb) {
+        synchronized (this) {
+            int index = indexOf(argb);
+            if (index == 0) {
+                return;
+            }
+            if (index > 0) {
+                removeAt(index);
+            }
+            append(argb);
+        }
+        changeSupport.firePropertyChange(HISTORY_CHANGED, null, null);
+    }
+
+    /**
+     * Removes a color from the history.
+     *
+     * @param argb The packed ARGB value of the color.
+     * @return True if the color was present, false otherwise.
+     */
+    public boolean remove(int argb) {
+        synchronized (this) {
+            int index = indexOf(argb);
+            if (index < 0) {
+                return false;
+            }
+            removeAt(index);
+            storePosition();
+        }
+        changeSupport.firePropertyChange(HISTORY_CHANGED, null, null);
+        return true;
+    }
+
+    /**
+     * Removes the color at the provided index by moving every less recent color one position forward.
+     *
+     * @param index The index of the color, where 0 is the most recent color.
+     */
+    private void removeAt(int index) {
+        for (int i = index; i < size - 1; i++) {
+            buffer.put(slot(i), buffer.get(slot(i + 1)));
+        }
+        size--;
+    }
+
+    /**
+     * Retrieves the index of a color.
+     *
+     * @param argb The packed ARGB value of the color.
+     * @return The index of the color, where 0 is the most recent color, or -1 if it is not present.
+     */
+    public synchronized int indexOf(int argb) {
+        for (int i = 0; i < size; i++) {
+            if (buffer.get(slot(i)) == argb) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the color at the provided index.
+     *
+     * @param index The index of the color, where 0 is the most recent color.
+     * @return The packed ARGB value of the color.
+     */
+    public synchronized int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size);
+        }
+        return buffer.get(slot(index));
+    }
+
+    /**
+     * Copies a range of colors into the provided array. Copies fewer colors if the history holds fewer colors.
+     *
+     * @param fromIndex The index of the first color to copy, where 0 is the most recent color.
+     * @param target    The array to copy the packed ARGB values into.
+     * @param offset    The index in the target array of the first copied color.
+     * @param count     The maximum number of colors to copy.
+     * @return The number of copied colors.
+     */
+    public synchronized int copyTo(int fromIndex, int[] target, int offset, int count) {
+        int copied = Math.max(0, Math.min(count, size - fromIndex));
+        for (int i = 0; i < copied; i++) {
+            target[offset + i] = buffer.get(slot(fromIndex + i));
+        }
+        return copied;
+    }
+
+    /**
+     * Retrieves all colors, from most to least recent.
+     *
+     * @return The packed ARGB values of the colors.
+     */
+    public synchronized int[] toArray() {
+        int[] colors = new int[size];
+        copyTo(0, colors, 0, size);
+        return colors;
+    }
+
+    /**
+     * Retrieves the number of colors in the history.
+     *
+     * @return The number of colors.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Removes all colors from the history.
+     */
+    public void clear() {
+        synchronized (this) {
+            size = 0;
+            storePosition();
+        }
+        changeSupport.firePropertyChange(HISTORY_CHANGED, null, null);
+    }
+
+    /**
+     * Writes any changes of a history that is persisted in a file to the storage device. Changes are visible in the
+     * file without calling this method, but might be lost if the operating system crashes.
+     */
+    public synchronized void flush() {
+        if (storage instanceof MappedByteBuffer mapping) {
+            mapping.force();
+        }
+    }
+
+    /**
+     * Detaches a history that is persisted in a file from that file. Its changes are written to the storage device,
+     * and the file is closed and unlocked, so that it can be opened again. The history keeps its colors and remains
+     * usable, but later changes only live on the heap. Java cannot unmap a file explicitly; the mapping is released
+     * once it has been garbage collected. Closing a history that lives on the heap has no effect.
+     *
+     * @throws IOException If the file could not be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        flush();
+        ByteBuffer copy = ByteBuffer.allocate(storage.capacity());
+        copy.put(0, storage, 0, storage.capacity());
+        storage = copy;
+        buffer = copy.asIntBuffer();
+        FileChannel closed = channel;
+        channel = null;
+        closed.close();
+    }
+
+    /**
+     * Adds a PropertyChangeListener that is notified whenever the colors in the history changed. The listener is
+     * notified on the thread that changed the history.
+     *
+     * @param listener Instance that will be listening to this history.
+     */
+    public void addListener(PropertyChangeListener listener) {
+        changeSupport.addPropertyChangeListener(listener);
+    }
+
+    /**
+     * Removes a PropertyChangeListener that was added through {@link #addListener(PropertyChangeListener)}.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(PropertyChangeListener listener) {
+        changeSupport.removePropertyChangeListener(listener);
+    }
+}
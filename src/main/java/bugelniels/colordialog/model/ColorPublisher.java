@@ -0,0 +1,316 @@
+package bugelniels.colordialog.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the changes of a {@link GradientColor} to {@link Flow.Subscriber}s. Every subscriber first receives the
+ * current color, followed by the colors it changes to. Subscribers never slow down the thread changing the color:
+ * a change only stores the new color per subscriber, and delivery happens on a separate executor. As colors are
+ * conflated according to the {@link EmissionPolicy}, a slow subscriber only misses intermediate colors and never
+ * builds up a queue. Every subscriber is delivered to separately, so as long as the executor can run several tasks at
+ * once, a slow subscriber does not delay the others either. A subscriber that throws from one of its methods has its
+ * subscription cancelled; unless the method was onError or onComplete, it then receives the exception through onError.
+ *
+ * @author BugelNiels
+ */
+public class ColorPublisher implements Flow.Publisher<Color>, ColorChangeListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColorPublisher.class);
+    private static ExecutorService sharedDeliveryPool;
+    private static ScheduledExecutorService sharedTimer;
+
+    private final GradientColor gradientColor;
+    private final EmissionPolicy policy;
+    private final Executor executor;
+    private final List<ColorSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private volatile boolean closed;
+    /**
+     * The most recent color, written on the thread changing the color. {@link GradientColor} itself is not
+     * thread-safe, so subscribing from other threads only reads this snapshot.
+     */
+    private volatile int latestColor;
+
+    /**
+     * Creates a new publisher that delivers colors on a shared pool of background threads, which grows when
+     * subscribers are slow to handle their colors. Must be called on the thread that changes the color.
+     *
+     * @param gradientColor The color whose changes are published.
+     * @param policy        Decides how often colors are emitted.
+     */
+    public ColorPublisher(GradientColor gradientColor, EmissionPolicy policy) {
+        this(gradientColor, policy, getSharedDeliveryPool());
+    }
+
+    /**
+     * Creates a new publisher. Must be called on the thread that changes the color.
+     *
+     * @param gradientColor The color whose changes are published.
+     * @param policy        Decides how often colors are emitted.
+     * @param executor      The executor colors are delivered on. The colors of a single subscriber are never delivered
+     *                      concurrently, but if the executor runs one task at a time, a slow subscriber delays the
+     *                      others.
+     */
+    public ColorPublisher(GradientColor gradientColor, EmissionPolicy policy, Executor executor) {
+        this.gradientColor = gradientColor;
+        this.policy = policy;
+        this.executor = executor;
+        this.latestColor = gradientColor.getARGBInt();
+        gradientColor.addColorListener(this);
+    }
+
+    private static synchronized Executor getSharedDeliveryPool() {
+        if (sharedDeliveryPool == null) {
+            sharedDeliveryPool = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "color-publisher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return sharedDeliveryPool;
+    }
+
+    /**
+     * Retrieves the timer that wakes up subscriptions waiting for the minimum interval of their policy. The timer only
+     * schedules deliveries on the executor of the publisher and never calls subscribers itself.
+     *
+     * @return The shared timer.
+     */
+    private static synchronized ScheduledExecutorService getSharedTimer() {
+        if (sharedTimer == null) {
+            ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "color-publisher-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.setRemoveOnCancelPolicy(true);
+            sharedTimer = timer;
+        }
+        return sharedTimer;
+    }
+
+    /**
+     * Subscribes to the color changes. The subscriber first receives the current color. Subscribing to a closed
+     * publisher completes the subscriber immediately. Can be called from any thread.
+     *
+     * @param subscriber The subscriber.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Color> subscriber) {
+        ColorSubscription subscription = new ColorSubscription(subscriber);
+        subscriptions.add(subscription);
+        int color;
+        do {
+            // Offer again if the color changed meanwhile, as that change may have been offered before this one.
+            color = latestColor;
+            subscription.offer(color);
+        } while (color != latestColor);
+        if (closed) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Offers the new color to all subscribers.
+     *
+     * @param changedComponents The bitmask of the changed components.
+     * @param hue               The new hue.
+     * @param saturation        The new saturation.
+     * @param brightness        The new brightness.
+     */
+    @Override
+    public void colorChanged(int changedComponents, float hue, float saturation, float brightness) {
+        int argb = gradientColor.getARGBInt();
+        latestColor = argb;
+        for (ColorSubscription subscription : subscriptions) {
+            subscription.offer(argb);
+        }
+    }
+
+    /**
+     * Stops publishing. Every subscriber receives the last color if it has demand for it, after which it is completed.
+     */
+    public void close() {
+        closed = true;
+        gradientColor.removeColorListener(this);
+        for (ColorSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Retrieves the number of active subscriptions.
+     *
+     * @return The number of subscriptions.
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Subscription of a single subscriber. Holds at most one undelivered color; all callbacks of the subscriber are
+     * made while draining, which never runs concurrently with itself.
+     */
+    private final class ColorSubscription implements Flow.Subscription {
+
+        private static final long PENDING = 1L << Integer.SIZE;
+
+        private final Flow.Subscriber<? super Color> subscriber;
+        private final AtomicLong pendingColor = new AtomicLong();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+
+        private volatile boolean cancelled;
+        private volatile boolean completing;
+        private volatile Throwable error;
+        private volatile boolean delayScheduled;
+        private boolean subscribed;
+        private long lastEmitNanos;
+
+        private ColorSubscription(Flow.Subscriber<? super Color> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private void offer(int rgb) {
+            pendingColor.set(PENDING | (rgb & 0xFFFFFFFFL));
+            scheduleDrain();
+        }
+
+        private void complete() {
+            completing = true;
+            scheduleDrain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested a non-positive number of colors: " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void scheduleDrain() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Drains until no more work was scheduled meanwhile. Should an error escape from a subscriber anyway, the
+         * subscription is cancelled and the work counter is reset, so the drain never stays marked as running.
+         */
+        private void drain() {
+            boolean drained = false;
+            try {
+                do {
+                    if (!cancelled) {
+                        drainOnce();
+                    }
+                } while (work.decrementAndGet() != 0);
+                drained = true;
+            } finally {
+                if (!drained) {
+                    cancel();
+                    work.set(0);
+                }
+            }
+        }
+
+        /**
+         * Emits the pending color if the subscriber has demand and the policy allows it, and terminates the subscriber
+         * if requested. The first drain hands the subscription to the subscriber.
+         */
+        private void drainOnce() {
+            if (!subscribed) {
+                subscribed = true;
+                if (!call(() -> subscriber.onSubscribe(this), true)) {
+                    return;
+                }
+            }
+            if (error != null) {
+                cancel();
+                call(() -> subscriber.onError(error), false);
+                return;
+            }
+            if (demand.get() > 0 && pendingColor.get() != 0 && !delayed()) {
+                long pending = pendingColor.getAndSet(0);
+                demand.decrementAndGet();
+                lastEmitNanos = System.nanoTime();
+                Color color = new Color((int) pending, true);
+                if (!call(() -> subscriber.onNext(color), true)) {
+                    return;
+                }
+            }
+            if (completing && (pendingColor.get() == 0 || demand.get() == 0)) {
+                cancel();
+                call(subscriber::onComplete, false);
+            }
+        }
+
+        /**
+         * Calls a method of the subscriber. Subscribers must not throw; one that does anyway has its subscription
+         * cancelled, like {@link java.util.concurrent.SubmissionPublisher} does, and the exception is logged.
+         *
+         * @param callback    The call to the subscriber.
+         * @param signalError True to pass the exception to onError of the subscriber, false if the call was terminal.
+         * @return True if the subscriber returned normally, false if it threw.
+         */
+        private boolean call(Runnable callback, boolean signalError) {
+            try {
+                callback.run();
+                return true;
+            } catch (RuntimeException e) {
+                cancel();
+                LOGGER.warn("Subscriber {} threw, its subscription is cancelled", subscriber, e);
+                if (signalError) {
+                    call(() -> subscriber.onError(e), false);
+                }
+                return false;
+            }
+        }
+
+        /**
+         * Checks whether the policy requires waiting before the next emission, and schedules a new drain for when it
+         * no longer does.
+         *
+         * @return True if the next emission has to wait, false otherwise.
+         */
+        private boolean delayed() {
+            if (delayScheduled) {
+                return true;
+            }
+            long wait = lastEmitNanos + policy.minIntervalNanos() - System.nanoTime();
+            if (lastEmitNanos == 0 || wait <= 0) {
+                return false;
+            }
+            delayScheduled = true;
+            getSharedTimer().schedule(() -> {
+                delayScheduled = false;
+                scheduleDrain();
+            }, wait, TimeUnit.NANOSECONDS);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package bugelniels.colordialog.model;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how often a {@link ColorPublisher} emits colors to its subscribers. Colors are always conflated: a subscriber
+ * only ever receives the most recent color, and colors that changed while it was busy or had no demand are dropped.
+ * A policy can additionally limit the number of colors emitted per second.
+ *
+ * @author BugelNiels
+ * @param minIntervalNanos The minimum time in nanoseconds between two colors emitted to the same subscriber.
+ */
+public record EmissionPolicy(long minIntervalNanos) {
+
+    /**
+     * Creates a new policy.
+     *
+     * @param minIntervalNanos The minimum time in nanoseconds between two colors emitted to the same subscriber.
+     */
+    public EmissionPolicy {
+        if (minIntervalNanos < 0) {
+            throw new IllegalArgumentException("Minimum interval must not be negative: " + minIntervalNanos);
+        }
+    }
+
+    /**
+     * Creates a policy that emits the most recent color as soon as the subscriber has demand for it.
+     *
+     * @return The policy.
+     */
+    public static EmissionPolicy latestOnly() {
+        return new EmissionPolicy(0);
+    }
+
+    /**
+     * Creates a policy that emits the most recent color at most the provided number of times per second.
+     *
+     * @param colorsPerSecond The maximum number of colors emitted per second to a single subscriber.
+     * @return The policy.
+     */
+    public static EmissionPolicy maxRate(double colorsPerSecond) {
+        if (!(colorsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + colorsPerSecond);
+        }
+        return new EmissionPolicy((long) (TimeUnit.SECONDS.toNanos(1) / colorsPerSecond));
+    }
+}
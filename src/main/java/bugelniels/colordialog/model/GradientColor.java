@@ -1,16 +1,22 @@
 package bugelniels.colordialog.model;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.awt.*;
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 
 /**
- * This class contains functionality related to colors. Its fundamental representation is hue-saturation-brightness.
- * The class provides methods for converting this into other representations.
- * Fires PropertyChangeEvents whenever the hue, saturation or brightness is updated. Other classes can listen to this
- * and handle these events accordingly.
+ * This class contains functionality related to colors. Its fundamental representation is hue-saturation-brightness,
+ * together with an alpha value for the opacity. The class provides methods for converting this into other
+ * representations. The RGB representations are opaque; the ARGB representations include the alpha value.
+ * Notifies {@link ColorChangeListener}s whenever the hue, saturation, brightness or alpha is updated. These listeners
+ * receive the changed components and the new values as primitives, so a change does not allocate. For compatibility,
+ * PropertyChangeListeners are still supported; their events are only created when at least one of them is registered.
+ * The packed RGB value is cached and only recomputed after one of the components changed, so reading the RGB value or
+ * its channels does not allocate. A Color object is only created when one is explicitly requested.
  *
  * @author BugelNiels
  */
@@ -29,12 +35,52 @@ public class GradientColor {
      * Name of the PropertyChangeEvent that is fired when the hue has changed.
      */
     public static final String HUE_CHANGED = "hueChanged";
+    /**
+     * Name of the PropertyChangeEvent that is fired when the alpha has changed.
+     */
+    public static final String ALPHA_CHANGED = "alphaChanged";
+    /**
+     * Name of the PropertyChangeEvent that is fired when several components have changed at once.
+     * The new value of the event is a bitmask of the changed components.
+     */
+    public static final String COLOR_CHANGED = "colorChanged";
+
+    /**
+     * Bit of the hue in the bitmask of changed components.
+     */
+    public static final int HUE_COMPONENT = 1;
+    /**
+     * Bit of the saturation in the bitmask of changed components.
+     */
+    public static final int SATURATION_COMPONENT = 1 << 1;
+    /**
+     * Bit of the brightness in the bitmask of changed components.
+     */
+    public static final int BRIGHTNESS_COMPONENT = 1 << 2;
+    /**
+     * Bit of the alpha in the bitmask of changed components.
+     */
+    public static final int ALPHA_COMPONENT = 1 << 3;
+
+    private static final float MAX_CHANNEL = 255f;
 
     private float hue;
     private float saturation;
     private float brightness;
+    private float alpha = 1.0f;
+
+    @Getter(AccessLevel.NONE)
+    private int rgb;
+    @Getter(AccessLevel.NONE)
+    private boolean rgbValid;
+    @Getter(AccessLevel.NONE)
+    private Color color;
+    @Getter(AccessLevel.NONE)
+    private final float[] hsbBuffer = new float[3];
 
     private final PropertyChangeSupport changeSupport = new PropertyChangeSupport(this);
+    @Getter(AccessLevel.NONE)
+    private final ColorChangeSupport colorChangeSupport = new ColorChangeSupport(this, changeSupport);
 
     /**
      * Instantiates a new Gradient color from provided red, green, blue values.
@@ -44,16 +90,17 @@ public class GradientColor {
      * @param blue  The Blue value of the color. Must be between 0 and 255.
      */
     public GradientColor(int red, int green, int blue) {
-        updateHSB(new Color(red, green, blue));
+        updateHSB(red, green, blue);
     }
 
     /**
-     * Instantiates a new Gradient color from provided red, green, blue values.
+     * Instantiates a new Gradient color from provided red, green, blue and alpha values.
      *
      * @param color Color to instantiate the gradient color with.
      */
     public GradientColor(Color color) {
-        updateHSB(color);
+        updateHSB(color.getRed(), color.getGreen(), color.getBlue());
+        alpha = color.getAlpha() / MAX_CHANNEL;
     }
 
     /**
@@ -62,17 +109,99 @@ public class GradientColor {
      * @param copyColor The Gradient color that the values need to be copied from.
      */
     public GradientColor(GradientColor copyColor) {
-        updateHSB(copyColor.getColor());
+        setARGB(copyColor.getARGBInt());
     }
 
     /**
-     * Sets the RGB and HSV based on an RGB int.
+     * Sets the RGB and HSV based on an RGB int. Fires a single propertyChangeEvent for all changed components.
+     * The alpha of the color is not changed, see {@link #setARGB(int)}.
      *
      * @param rgb An integer representation of RGB.
      */
     public void setColor(int rgb) {
-        Color color = new Color(rgb);
-        updateHSB(color);
+        Color.RGBtoHSB((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF, hsbBuffer);
+        setHSB(hsbBuffer[0], hsbBuffer[1], hsbBuffer[2]);
+    }
+
+    /**
+     * Sets the hue, saturation and brightness at once. Fires a single propertyChangeEvent named
+     * {@link #COLOR_CHANGED} whose new value is the bitmask of the components that changed. Fires nothing if none of
+     * the components changed.
+     *
+     * @param hue        The new hue. Must be between 0 and 1.
+     * @param saturation The new saturation value. Must be between 0 and 1.
+     * @param brightness The new brightness. Must be between 0 and 1.
+     */
+    public void setHSB(float hue, float saturation, float brightness) {
+        setHSBA(hue, saturation, brightness, alpha);
+    }
+
+    /**
+     * Sets the RGB, HSV and alpha based on an ARGB int, for example a color from a history. Fires a single
+     * propertyChangeEvent named {@link #COLOR_CHANGED} for all changed components.
+     *
+     * @param argb An integer representation of ARGB.
+     */
+    public void setARGB(int argb) {
+        Color.RGBtoHSB((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, hsbBuffer);
+        setHSBA(hsbBuffer[0], hsbBuffer[1], hsbBuffer[2], (argb >>> 24) / MAX_CHANNEL);
+    }
+
+    /**
+     * Sets all components at once. Fires a single propertyChangeEvent named {@link #COLOR_CHANGED} whose new value is
+     * the bitmask of the components that changed. Fires nothing if none of the components changed.
+     *
+     * @param newHue        The new hue. Must be between 0 and 1.
+     * @param newSaturation The new saturation value. Must be between 0 and 1.
+     * @param newBrightness The new brightness. Must be between 0 and 1.
+     * @param newAlpha      The new alpha. Must be between 0 and 1.
+     */
+    private void setHSBA(float newHue, float newSaturation, float newBrightness, float newAlpha) {
+        int changed = changedComponents(newHue, newSaturation, newBrightness, newAlpha);
+        if (changed == 0) {
+            return;
+        }
+        this.hue = newHue;
+        this.saturation = newSaturation;
+        this.brightness = newBrightness;
+        this.alpha = newAlpha;
+        invalidateRGB();
+        colorChangeSupport.fireColorChanged(changed);
+    }
+
+    private int changedComponents(float newHue, float newSaturation, float newBrightness, float newAlpha) {
+        int changed = 0;
+        if (Float.compare(hue, newHue) != 0) {
+            changed |= HUE_COMPONENT;
+        }
+        if (Float.compare(saturation, newSaturation) != 0) {
+            changed |= SATURATION_COMPONENT;
+        }
+        if (Float.compare(brightness, newBrightness) != 0) {
+            changed |= BRIGHTNESS_COMPONENT;
+        }
+        if (Float.compare(alpha, newAlpha) != 0) {
+            changed |= ALPHA_COMPONENT;
+        }
+        return changed;
+    }
+
+    /**
+     * Determines which components of a gradient color changed according to the provided event. Works for both the
+     * events of single components and the {@link #COLOR_CHANGED} event.
+     *
+     * @param evt An event fired by a gradient color.
+     * @return The bitmask of the changed components.
+     */
+    public static int getChangedComponents(PropertyChangeEvent evt) {
+        return switch (evt.getPropertyName()) {
+            case HUE_CHANGED -> HUE_COMPONENT;
+            case SATURATION_CHANGED -> SATURATION_COMPONENT;
+            case BRIGHTNESS_CHANGED -> BRIGHTNESS_COMPONENT;
+            case ALPHA_CHANGED -> ALPHA_COMPONENT;
+            case COLOR_CHANGED -> (int) evt.getNewValue();
+            default -> 0;
+        };
     }
 
     /**
@@ -83,7 +212,8 @@ public class GradientColor {
     public void setSaturation(float saturation) {
         float oldSaturation = this.saturation;
         this.saturation = saturation;
-        changeSupport.firePropertyChange(SATURATION_CHANGED, oldSaturation, saturation);
+        invalidateRGB();
+        colorChangeSupport.fireComponentChanged(SATURATION_COMPONENT, SATURATION_CHANGED, oldSaturation, saturation);
     }
 
     /**
@@ -94,7 +224,8 @@ public class GradientColor {
     public void setBrightness(float brightness) {
         float oldBrightness = this.brightness;
         this.brightness = brightness;
-        changeSupport.firePropertyChange(BRIGHTNESS_CHANGED, oldBrightness, brightness);
+        invalidateRGB();
+        colorChangeSupport.fireComponentChanged(BRIGHTNESS_COMPONENT, BRIGHTNESS_CHANGED, oldBrightness, brightness);
     }
 
     /**
@@ -105,43 +236,139 @@ public class GradientColor {
     public void setHue(float hue) {
         float oldHue = this.hue;
         this.hue = hue;
-        changeSupport.firePropertyChange(HUE_CHANGED, oldHue, hue);
+        invalidateRGB();
+        colorChangeSupport.fireComponentChanged(HUE_COMPONENT, HUE_CHANGED, oldHue, hue);
     }
 
     /**
-     * Updates the Hue, Saturation and Brightness values based on the provided color.
+     * Sets the alpha value. Fires a propertyChangeEvent. Only the ARGB representations depend on the alpha, so the
+     * cached RGB value stays valid.
      *
-     * @param color The color to update the hsb values with.
+     * @param alpha The new alpha. Must be between 0 (fully transparent) and 1 (opaque).
      */
-    private void updateHSB(Color color) {
-        float[] hsv = new float[3];
-        Color.RGBtoHSB(color.getRed(), color.getGreen(), color.getBlue(), hsv);
-        hue = hsv[0];
-        saturation = hsv[1];
-        brightness = hsv[2];
+    public void setAlpha(float alpha) {
+        float oldAlpha = this.alpha;
+        this.alpha = alpha;
+        color = null;
+        colorChangeSupport.fireComponentChanged(ALPHA_COMPONENT, ALPHA_CHANGED, oldAlpha, alpha);
     }
 
     /**
-     * Retrieves a Color representation of this class.
+     * Updates the Hue, Saturation and Brightness values based on the provided red, green and blue values.
+     *
+     * @param red   The Red value of the color. Must be between 0 and 255.
+     * @param green The Green value of the color. Must be between 0 and 255.
+     * @param blue  The Blue value of the color. Must be between 0 and 255.
+     */
+    private void updateHSB(int red, int green, int blue) {
+        Color.RGBtoHSB(red, green, blue, hsbBuffer);
+        hue = hsbBuffer[0];
+        saturation = hsbBuffer[1];
+        brightness = hsbBuffer[2];
+        invalidateRGB();
+    }
+
+    /**
+     * Invalidates the cached RGB representations. Must be called whenever one of the components changes.
+     */
+    private void invalidateRGB() {
+        rgbValid = false;
+        color = null;
+    }
+
+    /**
+     * Retrieves a Color representation of this class, including its alpha. The Color is created on the first call
+     * after the color changed; subsequent calls return the same instance.
      *
      * @return The color that this gradient color represents.
      */
     public Color getColor() {
-        return Color.getHSBColor(hue, saturation, brightness);
+        if (color == null) {
+            color = new Color(getARGBInt(), true);
+        }
+        return color;
+    }
+
+    /**
+     * Retrieves ARGB as an integer value, which is the RGB value combined with the alpha of this color.
+     *
+     * @return An integer representation of ARGB.
+     */
+    public int getARGBInt() {
+        return (getAlphaInt() << 24) | (getRGBInt() & 0xFFFFFF);
     }
 
     /**
-     * Retrieves RGB as an integer value.
+     * Retrieves the alpha channel of this color.
+     *
+     * @return The alpha value, between 0 (fully transparent) and 255 (opaque).
+     */
+    public int getAlphaInt() {
+        return Math.round(alpha * MAX_CHANNEL);
+    }
+
+    /**
+     * Retrieves RGB as an integer value. The value is packed as ARGB, with an alpha of 255.
      *
      * @return An integer representation of RGB.
      */
     public int getRGBInt() {
-        Color col = Color.getHSBColor(hue, saturation, brightness);
-        return col.getRGB();
+        if (!rgbValid) {
+            rgb = Color.HSBtoRGB(hue, saturation, brightness);
+            rgbValid = true;
+        }
+        return rgb;
+    }
+
+    /**
+     * Retrieves the red channel of this color.
+     *
+     * @return The red value, between 0 and 255.
+     */
+    public int getRed() {
+        return (getRGBInt() >> 16) & 0xFF;
+    }
+
+    /**
+     * Retrieves the green channel of this color.
+     *
+     * @return The green value, between 0 and 255.
+     */
+    public int getGreen() {
+        return (getRGBInt() >> 8) & 0xFF;
+    }
+
+    /**
+     * Retrieves the blue channel of this color.
+     *
+     * @return The blue value, between 0 and 255.
+     */
+    public int getBlue() {
+        return getRGBInt() & 0xFF;
     }
 
     /**
-     * Adds a PropertyChangeListener to this gradient color.
+     * Adds a listener that is notified whenever the color changes, without allocating any events.
+     *
+     * @param listener Instance that will be listening to this gradient color.
+     */
+    public void addColorListener(ColorChangeListener listener) {
+        colorChangeSupport.addColorListener(listener);
+    }
+
+    /**
+     * Removes a listener that was added through {@link #addColorListener(ColorChangeListener)}.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeColorListener(ColorChangeListener listener) {
+        colorChangeSupport.removeColorListener(listener);
+    }
+
+    /**
+     * Adds a PropertyChangeListener to this gradient color. Kept for compatibility; listeners that only need to know
+     * which components changed should use {@link #addColorListener(ColorChangeListener)} instead, which does not
+     * allocate an event per change.
      *
      * @param listener Instance that will be listening to this gradient color.
      */
@@ -149,4 +376,13 @@ public class GradientColor {
         changeSupport.addPropertyChangeListener(listener);
     }
 
+    /**
+     * Removes a listener that was added through {@link #addListener(PropertyChangeListener)}.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(PropertyChangeListener listener) {
+        changeSupport.removePropertyChangeListener(listener);
+    }
+
 }
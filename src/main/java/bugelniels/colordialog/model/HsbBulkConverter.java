@@ -0,0 +1,41 @@
+package bugelniels.colordialog.model;
+
+/**
+ * Converts ranges of colors between packed RGB values and the hue-saturation-brightness model at once. The hue,
+ * saturation and brightness are stored in separate arrays, which allows implementations to process several colors per
+ * instruction. All implementations produce results identical to {@link java.awt.Color#RGBtoHSB(int, int, int, float[])}
+ * and {@link java.awt.Color#HSBtoRGB(float, float, float)}.
+ *
+ * @author BugelNiels
+ * @see BulkColorConversions
+ */
+public interface HsbBulkConverter {
+
+    /**
+     * Converts packed RGB values to hue, saturation and brightness. The alpha channel is ignored.
+     *
+     * @param packedRgb  The packed RGB values to convert.
+     * @param rgbOffset  The index of the first packed RGB value to convert.
+     * @param hue        The array to store the hues in.
+     * @param saturation The array to store the saturations in.
+     * @param brightness The array to store the brightnesses in.
+     * @param hsbOffset  The index in the component arrays to store the first color at.
+     * @param count      The number of colors to convert.
+     */
+    void rgbToHsb(int[] packedRgb, int rgbOffset, float[] hue, float[] saturation, float[] brightness, int hsbOffset,
+                  int count);
+
+    /**
+     * Converts hue, saturation and brightness values to packed RGB values with an alpha of 255.
+     *
+     * @param hue        The hues to convert. Only the fractional part is used.
+     * @param saturation The saturations to convert, between 0 and 1.
+     * @param brightness The brightnesses to convert, between 0 and 1.
+     * @param hsbOffset  The index in the component arrays of the first color to convert.
+     * @param packedRgb  The array to store the packed RGB values in.
+     * @param rgbOffset  The index to store the first packed RGB value at.
+     * @param count      The number of colors to convert.
+     */
+    void hsbToRgb(float[] hue, float[] saturation, float[] brightness, int hsbOffset, int[] packedRgb, int rgbOffset,
+                  int count);
+}
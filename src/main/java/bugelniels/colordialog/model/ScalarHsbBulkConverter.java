@@ -0,0 +1,64 @@
+package bugelniels.colordialog.model;
+
+import bugelniels.colordialog.rendering.ColorConversions;
+
+/**
+ * Converts one color at a time, using the same arithmetic as {@link java.awt.Color}. Used whenever the vector API is
+ * not available, and for the remainder of the colors that does not fill a complete vector.
+ *
+ * @author BugelNiels
+ */
+final class ScalarHsbBulkConverter implements HsbBulkConverter {
+
+    @Override
+    public void rgbToHsb(int[] packedRgb, int rgbOffset, float[] hue, float[] saturation, float[] brightness,
+                         int hsbOffset, int count) {
+        for (int k = 0; k < count; k++) {
+            int rgb = packedRgb[rgbOffset + k];
+            int red = (rgb >> 16) & 0xFF;
+            int green = (rgb >> 8) & 0xFF;
+            int blue = rgb & 0xFF;
+            int max = Math.max(Math.max(red, green), blue);
+            int min = Math.min(Math.min(red, green), blue);
+            int i = hsbOffset + k;
+            brightness[i] = max / 255.0f;
+            saturation[i] = max != 0 ? (max - min) / (float) max : 0;
+            hue[i] = saturation[i] == 0 ? 0 : hue(red, green, blue, max, max - min);
+        }
+    }
+
+    /**
+     * Computes the hue of a color with a non-zero saturation.
+     *
+     * @param red   The red channel.
+     * @param green The green channel.
+     * @param blue  The blue channel.
+     * @param max   The largest of the channels.
+     * @param range The difference between the largest and the smallest channel. Must not be 0.
+     * @return The hue, between 0 and 1.
+     */
+    private static float hue(int red, int green, int blue, int max, int range) {
+        float redDistance = (max - red) / (float) range;
+        float greenDistance = (max - green) / (float) range;
+        float blueDistance = (max - blue) / (float) range;
+        float hue;
+        if (red == max) {
+            hue = blueDistance - greenDistance;
+        } else if (green == max) {
+            hue = 2.0f + redDistance - blueDistance;
+        } else {
+            hue = 4.0f + greenDistance - redDistance;
+        }
+        hue = hue / 6.0f;
+        return hue < 0 ? hue + 1.0f : hue;
+    }
+
+    @Override
+    public void hsbToRgb(float[] hue, float[] saturation, float[] brightness, int hsbOffset, int[] packedRgb,
+                         int rgbOffset, int count) {
+        for (int k = 0; k < count; k++) {
+            int i = hsbOffset + k;
+            packedRgb[rgbOffset + k] = ColorConversions.hsbToRgb(hue[i], saturation[i], brightness[i]);
+        }
+    }
+}
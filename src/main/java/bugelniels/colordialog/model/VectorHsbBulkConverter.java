@@ -0,0 +1,194 @@
+package bugelniels.colordialog.model;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Converts as many colors at once as fit in the preferred vector size of the platform, using the incubating vector
+ * API. Performs exactly the same floating point operations as {@link ScalarHsbBulkConverter}, per lane, so the
+ * results are identical. This class is only loaded reflectively, when the {@code jdk.incubator.vector} module is
+ * present; referring to it directly would fail on runtimes without that module.
+ * <p>
+ * The conversion to RGB is split into small passes over blocks of colors. A single loop doing all the work is too
+ * large for the JIT compiler to keep all vectors in registers, in which case every vector operation allocates.
+ *
+ * @author BugelNiels
+ */
+final class VectorHsbBulkConverter implements HsbBulkConverter {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final int OPAQUE = 0xff000000;
+    private static final float MAX_CHANNEL = 255.0f;
+    private static final float SECTORS = 6.0f;
+    private static final float ROUNDING_MAGIC = 8388608.0f;
+    private static final int MAGIC_BITS = Float.floatToRawIntBits(ROUNDING_MAGIC);
+    private static final int BLOCK_SIZE = 256;
+    private static final int SECTOR = 0;
+    private static final int LOWEST = 1;
+    private static final int FALLING = 2;
+    private static final int RISING = 3;
+    private static final int SATURATION = 4;
+    private static final int BRIGHTNESS = 5;
+    private static final int RED_POSITION = 16;
+    private static final int RED = RED_POSITION;
+    private static final int GREEN = (4 << 8) | 8;
+    private static final int BLUE = 2 << 8;
+
+    private final ScalarHsbBulkConverter remainder = new ScalarHsbBulkConverter();
+    private final ThreadLocal<float[][]> scratch = ThreadLocal.withInitial(() -> new float[BRIGHTNESS + 1][BLOCK_SIZE]);
+
+    @Override
+    public void rgbToHsb(int[] packedRgb, int rgbOffset, float[] hue, float[] saturation, float[] brightness,
+                         int hsbOffset, int count) {
+        int k = 0;
+        for (int bound = INTS.loopBound(count); k < bound; k += INTS.length()) {
+            IntVector pixels = IntVector.fromArray(INTS, packedRgb, rgbOffset + k);
+            int i = hsbOffset + k;
+            IntVector red = pixels.lanewise(VectorOperators.LSHR, 16).and(0xFF);
+            IntVector green = pixels.lanewise(VectorOperators.LSHR, 8).and(0xFF);
+            IntVector blue = pixels.and(0xFF);
+            FloatVector max = toFloats(red.max(green).max(blue));
+            FloatVector range = max.sub(toFloats(red.min(green).min(blue)));
+            max.div(MAX_CHANNEL).intoArray(brightness, i);
+            FloatVector zero = FloatVector.zero(FLOATS);
+            VectorMask<Float> chromatic = range.compare(VectorOperators.NE, 0);
+            zero.blend(range.div(max), chromatic).intoArray(saturation, i);
+            zero.blend(hue(toFloats(red), toFloats(green), toFloats(blue), max, range), chromatic).intoArray(hue, i);
+        }
+        remainder.rgbToHsb(packedRgb, rgbOffset + k, hue, saturation, brightness, hsbOffset + k, count - k);
+    }
+
+    private static FloatVector toFloats(IntVector vector) {
+        return (FloatVector) vector.convertShape(VectorOperators.I2F, FLOATS, 0);
+    }
+
+    /**
+     * Computes the hues of the provided colors. Lanes with a range of 0 produce meaningless values.
+     *
+     * @param red   The red channels.
+     * @param green The green channels.
+     * @param blue  The blue channels.
+     * @param max   The largest channels.
+     * @param range The differences between the largest and the smallest channels.
+     * @return The hues, between 0 and 1.
+     */
+    private static FloatVector hue(FloatVector red, FloatVector green, FloatVector blue, FloatVector max,
+                                   FloatVector range) {
+        FloatVector redDistance = max.sub(red).div(range);
+        FloatVector greenDistance = max.sub(green).div(range);
+        FloatVector blueDistance = max.sub(blue).div(range);
+        FloatVector hue = FloatVector.broadcast(FLOATS, 4.0f).add(greenDistance).sub(redDistance);
+        hue = hue.blend(FloatVector.broadcast(FLOATS, 2.0f).add(redDistance).sub(blueDistance),
+                green.compare(VectorOperators.EQ, max));
+        hue = hue.blend(blueDistance.sub(greenDistance), red.compare(VectorOperators.EQ, max));
+        hue = hue.div(SECTORS);
+        return hue.add(1.0f, hue.compare(VectorOperators.LT, 0));
+    }
+
+    @Override
+    public void hsbToRgb(float[] hue, float[] saturation, float[] brightness, int hsbOffset, int[] packedRgb,
+                         int rgbOffset, int count) {
+        float[][] buffers = scratch.get();
+        int vectorCount = FLOATS.loopBound(count);
+        for (int start = 0; start < vectorCount; start += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, vectorCount - start);
+            prepare(hue, saturation, brightness, hsbOffset + start, buffers, length);
+            int target = rgbOffset + start;
+            channelPass(buffers, packedRgb, target, length, RED);
+            channelPass(buffers, packedRgb, target, length, GREEN);
+            channelPass(buffers, packedRgb, target, length, BLUE);
+        }
+        remainder.hsbToRgb(hue, saturation, brightness, hsbOffset + vectorCount, packedRgb, rgbOffset + vectorCount,
+                count - vectorCount);
+    }
+
+    /**
+     * Computes the sector of the hue circle and the three intermediate values of a block of colors, and copies the
+     * saturations and brightnesses of the block.
+     *
+     * @param hue        The hues.
+     * @param saturation The saturations.
+     * @param brightness The brightnesses.
+     * @param offset     The index of the first color of the block.
+     * @param buffers    The buffers to store the sectors, the intermediate values and the copies in.
+     * @param length     The number of colors in the block. Must be a multiple of the vector length.
+     */
+    private static void prepare(float[] hue, float[] saturation, float[] brightness, int offset, float[][] buffers,
+                                int length) {
+        for (int j = 0; j < length; j += FLOATS.length()) {
+            FloatVector h = FloatVector.fromArray(FLOATS, hue, offset + j);
+            FloatVector s = FloatVector.fromArray(FLOATS, saturation, offset + j);
+            FloatVector v = FloatVector.fromArray(FLOATS, brightness, offset + j);
+            FloatVector sectors = h.sub(floor(h)).mul(SECTORS);
+            FloatVector rounded = sectors.add(ROUNDING_MAGIC).sub(ROUNDING_MAGIC);
+            FloatVector sector = rounded.sub(1.0f, rounded.compare(VectorOperators.GT, sectors));
+            FloatVector f = sectors.sub(sector);
+            sector.intoArray(buffers[SECTOR], j);
+            s.intoArray(buffers[SATURATION], j);
+            v.intoArray(buffers[BRIGHTNESS], j);
+            v.mul(s.neg().add(1.0f)).intoArray(buffers[LOWEST], j);
+            v.mul(s.mul(f).neg().add(1.0f)).intoArray(buffers[FALLING], j);
+            v.mul(s.mul(f.neg().add(1.0f)).neg().add(1.0f)).intoArray(buffers[RISING], j);
+        }
+    }
+
+    /**
+     * Assigns the brightness or one of the intermediate values to a single channel of a block of colors, depending on
+     * the sector of the hue circle, and adds the channel to the packed RGB values. Every channel follows the same
+     * pattern over the sectors, shifted by a number of sectors. Keeping the passes small allows them to be compiled to
+     * vector instructions entirely.
+     *
+     * @param buffers   The buffers filled by the preparation.
+     * @param packedRgb The packed RGB values.
+     * @param rgbOffset The index of the first packed RGB value of the block.
+     * @param length    The number of colors in the block. Must be a multiple of the vector length.
+     * @param channel   The shift in sectors of the channel compared to red, times 256, plus its bit position.
+     */
+    private static void channelPass(float[][] buffers, int[] packedRgb, int rgbOffset, int length, int channel) {
+        int shift = channel >> 8;
+        int bitPosition = channel & 0xFF;
+        for (int j = 0; j < length; j += FLOATS.length()) {
+            FloatVector sector = FloatVector.fromArray(FLOATS, buffers[SECTOR], j);
+            FloatVector v = FloatVector.fromArray(FLOATS, buffers[BRIGHTNESS], j);
+            FloatVector k = sector.add(shift);
+            k = k.sub(SECTORS, k.compare(VectorOperators.GE, SECTORS));
+            // Lanes outside the six sectors are black, like they are in Color.HSBtoRGB, unless they are gray.
+            FloatVector value = FloatVector.fromArray(FLOATS, buffers[LOWEST], j)
+                    .blend(v, k.compare(VectorOperators.EQ, 0).or(k.compare(VectorOperators.EQ, 5)))
+                    .blend(FloatVector.fromArray(FLOATS, buffers[FALLING], j), k.compare(VectorOperators.EQ, 1))
+                    .blend(FloatVector.fromArray(FLOATS, buffers[RISING], j), k.compare(VectorOperators.EQ, 4))
+                    .blend(0, sector.compare(VectorOperators.EQ, SECTORS))
+                    .blend(v, FloatVector.fromArray(FLOATS, buffers[SATURATION], j).compare(VectorOperators.EQ, 0));
+            // Adding 2^23 rounds to the nearest integer, which can be read from the bits of the sum.
+            FloatVector scaled = value.mul(MAX_CHANNEL).add(0.5f);
+            FloatVector rounded = scaled.add(ROUNDING_MAGIC);
+            IntVector packed = rounded.sub(1.0f, rounded.sub(ROUNDING_MAGIC).compare(VectorOperators.GT, scaled))
+                    .reinterpretAsInts().sub(MAGIC_BITS).lanewise(VectorOperators.LSHL, bitPosition);
+            if (bitPosition == RED_POSITION) {
+                packed.or(OPAQUE).intoArray(packedRgb, rgbOffset + j);
+            } else {
+                packed.or(IntVector.fromArray(INTS, packedRgb, rgbOffset + j)).intoArray(packedRgb, rgbOffset + j);
+            }
+        }
+    }
+
+    /**
+     * Rounds down to the nearest integer. Avoids converting to integers, which is not compiled to vector instructions
+     * on every platform: adding and subtracting 2^23 rounds a float to the nearest integer, which is then corrected
+     * downwards if needed. Floats with a magnitude of at least 2^23 are integers already.
+     *
+     * @param value The values to round.
+     * @return The rounded values.
+     */
+    private static FloatVector floor(FloatVector value) {
+        FloatVector magic = FloatVector.broadcast(FLOATS, ROUNDING_MAGIC)
+                .blend(-ROUNDING_MAGIC, value.compare(VectorOperators.LT, 0));
+        FloatVector rounded = value.add(magic).sub(magic);
+        return rounded.sub(1.0f, rounded.compare(VectorOperators.GT, value))
+                .blend(value, value.abs().compare(VectorOperators.GE, ROUNDING_MAGIC));
+    }
+}
@@ -0,0 +1,100 @@
+package bugelniels.colordialog.model.crosshairs;
+
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.model.gradients.AlphaGradient;
+import lombok.Getter;
+
+/**
+ * This class represents the cross-hair in an alpha gradient. As a result, this cross-hair can only be moved in the
+ * y-direction. Updating this y-position of the cross-hair will update the alpha of the provided gradient color.
+ *
+ * @author BugelNiels
+ */
+public class AlphaCrossHair implements CrossHair {
+
+    private static final int MIN_ALPHA = 0;
+
+    @Getter
+    private int y;
+    private final GradientColor gradientColor;
+
+    @Getter
+    private final AlphaGradient parent;
+
+    /**
+     * Creates a new cross-hair for the alpha gradient. The position will be initialized based on the alpha value of
+     * the provided color, and the height of the alpha gradient itself.
+     *
+     * @param color  The color whose alpha this cross-hair updates.
+     * @param parent The alpha gradient this cross-hair operates in.
+     */
+    public AlphaCrossHair(GradientColor color, AlphaGradient parent) {
+        this.gradientColor = color;
+        this.parent = parent;
+        updatePosition();
+    }
+
+    /**
+     * Moves the cross-hair to the position belonging to the current alpha of the color, for example after the
+     * gradient was resized.
+     */
+    public void updatePosition() {
+        this.y = Math.round((1 - gradientColor.getAlpha()) * getMaxY());
+    }
+
+    /**
+     * Retrieves the x position of the cross-hair, which is always at the right edge of the gradient.
+     *
+     * @return The x position of the cross-hair.
+     */
+    @Override
+    public int getX() {
+        return parent.getWidth();
+    }
+
+    private int clamp(int value, int min, int max) {
+        return Math.min(Math.max(value, min), max);
+    }
+
+    /**
+     * Does not do anything, as the alpha gradient is 1-dimensional.
+     *
+     * @param newX New x position of the cross-hair. Its value is ignored.
+     */
+    @Override
+    public void setX(int newX) {
+    }
+
+    /**
+     * Updates the y coordinate of this cross-hair and the corresponding alpha of the color. The top row of the alpha
+     * gradient is opaque and the bottom row is fully transparent, so the selected alpha always matches the row under
+     * the cross-hair.
+     *
+     * @param newY The new y coordinate of the cross-hair.
+     */
+    public void setY(int newY) {
+        this.y = clamp(newY, getMinY(), getMaxY());
+        gradientColor.setAlpha(1 - y / (float) Math.max(1, getMaxY()));
+    }
+
+    @Override
+    public int getMinX() {
+        return getX();
+    }
+
+    @Override
+    public int getMaxX() {
+        return getX();
+    }
+
+    @Override
+    public int getMinY() {
+        return MIN_ALPHA;
+    }
+
+    @Override
+    public int getMaxY() {
+        return parent.getHeight() - 1;
+    }
+
+}
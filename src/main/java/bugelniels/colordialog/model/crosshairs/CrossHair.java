@@ -35,6 +35,18 @@ public interface CrossHair {
      */
     void setY(int newY);
 
+    /**
+     * Updates both the x-position and the y-position of the cross-hair. By default this updates the x-position first
+     * and the y-position second; implementations can override this to apply both as a single update.
+     *
+     * @param newX New x position of the cross-hair. The value is clamped if it falls outside the x range.
+     * @param newY New y position of the cross-hair. The value is clamped if it falls outside the y range.
+     */
+    default void setPosition(int newX, int newY) {
+        setX(newX);
+        setY(newY);
+    }
+
     /**
      * Retrieves the minimum value the x coordinate can take.
      *
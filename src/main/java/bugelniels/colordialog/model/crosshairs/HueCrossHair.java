@@ -13,10 +13,7 @@ import lombok.Getter;
 public class HueCrossHair implements CrossHair {
 
     private static final int MIN_HUE = 0;
-    private static final int MAX_HUE = 255;
 
-    @Getter
-    private final int x;
     @Getter
     private int y;
     private final GradientColor gradientColor;
@@ -34,10 +31,27 @@ public class HueCrossHair implements CrossHair {
     public HueCrossHair(GradientColor color, HueGradient parent) {
         this.gradientColor = color;
         this.parent = parent;
-        this.x = parent.getWidth();
+        updatePosition();
+    }
+
+    /**
+     * Moves the cross-hair to the position belonging to the current hue of the color, for example after the gradient
+     * was resized.
+     */
+    public void updatePosition() {
         this.y = (int) (gradientColor.getHue() * parent.getHeight());
     }
 
+    /**
+     * Retrieves the x position of the cross-hair, which is always at the right edge of the gradient.
+     *
+     * @return The x position of the cross-hair.
+     */
+    @Override
+    public int getX() {
+        return parent.getWidth();
+    }
+
     private int clamp(int value, int min, int max) {
         return Math.min(Math.max(value, min), max);
     }
@@ -52,23 +66,24 @@ public class HueCrossHair implements CrossHair {
     }
 
     /**
-     * Updates the y coordinate of this cross-hair and the corresponding hue of the color.
+     * Updates the y coordinate of this cross-hair and the corresponding hue of the color. Row y of the hue gradient
+     * shows the hue {@code y / height}, so the selected hue always matches the color under the cross-hair.
      *
      * @param newY The new y coordinate of the cross-hair.
      */
     public void setY(int newY) {
         this.y = clamp(newY, getMinY(), getMaxY());
-        gradientColor.setHue(newY / (float) parent.getHeight());
+        gradientColor.setHue(y / (float) parent.getHeight());
     }
 
     @Override
     public int getMinX() {
-        return x;
+        return getX();
     }
 
     @Override
     public int getMaxX() {
-        return x;
+        return getX();
     }
 
     @Override
@@ -78,7 +93,7 @@ public class HueCrossHair implements CrossHair {
 
     @Override
     public int getMaxY() {
-        return MAX_HUE;
+        return parent.getHeight();
     }
 
 }
@@ -0,0 +1,171 @@
+package bugelniels.colordialog.model.crosshairs;
+
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.model.gradients.OklchGradient;
+import bugelniels.colordialog.rendering.OklchRenderKernel;
+import bugelniels.colordialog.rendering.PerceptualConversions;
+import lombok.Getter;
+
+import java.awt.*;
+
+/**
+ * This class represents a cross-hair in an OKLCH plane. Moving in the x direction changes the chroma, while moving in
+ * the y direction changes the lightness; the hue is the OKLCH hue of the plane. A position in the hatched area outside
+ * the sRGB gamut picks the color with the same lightness and the highest chroma that is still inside the gamut.
+ *
+ * @author BugelNiels
+ */
+public class OklchCrossHair implements CrossHair {
+
+    private static final int SIZE = 16;
+    private static final int OPAQUE_RGB = 0xFFFFFF;
+    private static final int GAMUT_SEARCH_STEPS = 16;
+    private static final float GAMUT_TOLERANCE = 1e-4f;
+
+    @Getter
+    private int x;
+    @Getter
+    private int y;
+    private final GradientColor gradientColor;
+    private final float[] scratch = new float[3];
+
+    @Getter
+    private final OklchGradient parent;
+
+    /**
+     * Creates a new OKLCH cross-hair. The position will be initialized according to the lightness and chroma of the
+     * provided color.
+     *
+     * @param color  The color this cross-hair updates.
+     * @param parent The OKLCH plane this cross-hair operates in.
+     */
+    public OklchCrossHair(GradientColor color, OklchGradient parent) {
+        this.gradientColor = color;
+        this.parent = parent;
+        updatePosition();
+    }
+
+    /**
+     * Moves the cross-hair to the position belonging to the current lightness and chroma of the color, for example
+     * after the color changed or the plane was resized.
+     */
+    public void updatePosition() {
+        PerceptualConversions.rgbToOklch(gradientColor.getRGBInt(), scratch);
+        this.x = clamp(Math.round(scratch[1] / OklchRenderKernel.MAX_CHROMA * getMaxX()), getMinX(), getMaxX());
+        this.y = clamp(Math.round((1 - scratch[0]) * getMaxY()), getMinY(), getMaxY());
+    }
+
+    private int clamp(int value, int min, int max) {
+        return Math.min(Math.max(value, min), max);
+    }
+
+    /**
+     * Updates the x coordinate of this cross-hair and the corresponding chroma of the color.
+     *
+     * @param newX The new x coordinate of the cross-hair.
+     */
+    @Override
+    public void setX(int newX) {
+        setPosition(newX, y);
+    }
+
+    /**
+     * Updates the y coordinate of this cross-hair and the corresponding lightness of the color.
+     *
+     * @param newY The new y coordinate of the cross-hair.
+     */
+    @Override
+    public void setY(int newY) {
+        setPosition(x, newY);
+    }
+
+    /**
+     * Updates both coordinates of this cross-hair and applies the corresponding lightness and chroma to the color as a
+     * single update. The alpha of the color is kept.
+     *
+     * @param newX The new x coordinate of the cross-hair.
+     * @param newY The new y coordinate of the cross-hair.
+     */
+    @Override
+    public void setPosition(int newX, int newY) {
+        this.x = clamp(newX, getMinX(), getMaxX());
+        this.y = clamp(newY, getMinY(), getMaxY());
+        float lightness = 1 - y / (float) getMaxY();
+        float chroma = OklchRenderKernel.MAX_CHROMA * x / getMaxX();
+        float hue = parent.getOklchHue();
+        float gamutChroma = inGamutChroma(lightness, chroma, hue);
+        int rgb = PerceptualConversions.oklchToRgb(lightness, gamutChroma, hue, scratch);
+        parent.selectColor((gradientColor.getAlphaInt() << 24) | (rgb & OPAQUE_RGB));
+    }
+
+    /**
+     * Finds the highest chroma up to the provided chroma for which the color is inside the sRGB gamut, using the same
+     * tolerance as the hatching of the plane.
+     *
+     * @param lightness The lightness of the color.
+     * @param chroma    The requested chroma.
+     * @param hue       The hue of the color.
+     * @return The requested chroma if it is inside the gamut, or otherwise the highest chroma that is.
+     */
+    private float inGamutChroma(float lightness, float chroma, float hue) {
+        double angle = hue * 2 * Math.PI;
+        float cos = (float) Math.cos(angle);
+        float sin = (float) Math.sin(angle);
+        if (inGamut(lightness, chroma * cos, chroma * sin)) {
+            return chroma;
+        }
+        float low = 0;
+        float high = chroma;
+        for (int i = 0; i < GAMUT_SEARCH_STEPS; i++) {
+            float middle = (low + high) / 2;
+            if (inGamut(lightness, middle * cos, middle * sin)) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private boolean inGamut(float lightness, float a, float b) {
+        PerceptualConversions.oklabToLinear(lightness, a, b, scratch);
+        for (int i = 0; i < scratch.length; i++) {
+            if (scratch[i] < -GAMUT_TOLERANCE || scratch[i] > 1 + GAMUT_TOLERANCE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getMaxX() {
+        return parent.getWidth() - 1;
+    }
+
+    @Override
+    public int getMaxY() {
+        return parent.getHeight() - 1;
+    }
+
+    /**
+     * Retrieves the color that the cross-hair itself should be displayed as.
+     * This is used to ensure high contrast with background.
+     *
+     * @return The color of the cross-hair.
+     */
+    public Color getCrossHairColor() {
+        if (y <= (float) parent.getHeight() / 2) {
+            return Color.black;
+        }
+        return Color.white;
+    }
+
+    /**
+     * Retrieves the size of the cross-hair. The cross-hair itself fits in a square box of getSize() x getSize().
+     *
+     * @return The size of the cross-hair.
+     */
+    public int getSize() {
+        return SIZE;
+    }
+}
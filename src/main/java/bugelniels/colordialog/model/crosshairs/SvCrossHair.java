@@ -35,8 +35,16 @@ public class SvCrossHair implements CrossHair {
     public SvCrossHair(GradientColor color, SvGradient parent) {
         this.gradientColor = color;
         this.parent = parent;
-        this.x = (int) (color.getSaturation() * parent.getWidth());
-        this.y = (int) ((1.0 - color.getBrightness()) * parent.getHeight());
+        updatePosition();
+    }
+
+    /**
+     * Moves the cross-hair to the position belonging to the current saturation and brightness of the color, for
+     * example after the gradient was resized.
+     */
+    public void updatePosition() {
+        this.x = (int) (gradientColor.getSaturation() * parent.getWidth());
+        this.y = (int) ((1.0 - gradientColor.getBrightness()) * parent.getHeight());
     }
 
     private int clamp(int value, int min, int max) {
@@ -63,6 +71,20 @@ public class SvCrossHair implements CrossHair {
         gradientColor.setSaturation(x / (float) parent.getWidth());
     }
 
+    /**
+     * Updates both coordinates of this cross-hair and applies the corresponding saturation and brightness to the color
+     * as a single update, so that only one event is fired.
+     *
+     * @param newX The new x coordinate of the cross-hair.
+     * @param newY The new y coordinate of the cross-hair.
+     */
+    @Override
+    public void setPosition(int newX, int newY) {
+        this.x = clamp(newX, getMinX(), getMaxX());
+        this.y = clamp(newY, getMinY(), getMaxY());
+        gradientColor.setHSB(gradientColor.getHue(), x / (float) parent.getWidth(), 1 - y / (float) parent.getHeight());
+    }
+
     @Override
     public int getMaxX() {
         return parent.getWidth();
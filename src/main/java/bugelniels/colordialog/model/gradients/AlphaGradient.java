@@ -0,0 +1,117 @@
+package bugelniels.colordialog.model.gradients;
+
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.rendering.AlphaRenderKernel;
+import lombok.Getter;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Represents the 1-dimensional gradient of the alpha slider: the color of a gradient color, faded from opaque in the
+ * top row to fully transparent in the bottom row and composited over a checkerboard by an {@link AlphaRenderKernel}.
+ * The gradient only depends on the RGB value of the color, not on its alpha, so dragging the alpha never re-renders
+ * it. After the RGB value changed, the gradient is re-rendered when its image is requested next. The gradient is
+ * small, so it is rendered directly on the requesting thread; nothing is allocated until it is first requested.
+ * Images are created for the {@link GraphicsConfiguration} the gradient is displayed on, see
+ * {@link #setGraphicsConfiguration(GraphicsConfiguration)}.
+ *
+ * @author BugelNiels
+ */
+public class AlphaGradient {
+
+    @Getter
+    private int height;
+    @Getter
+    private int width;
+    /**
+     * Number of times the gradient was rendered.
+     */
+    @Getter
+    private long renderCount;
+
+    private final GradientColor gradientColor;
+    private AlphaRenderKernel kernel;
+    private int[] pixels;
+    private BufferedImage alphaGradientImage;
+    private GraphicsConfiguration configuration;
+    private int renderedRGB;
+
+    /**
+     * Creates a new alpha gradient with the provided width and height.
+     *
+     * @param width         The width the gradient should have.
+     * @param height        The height the gradient should have.
+     * @param gradientColor The color whose RGB value the gradient shows.
+     */
+    public AlphaGradient(int width, int height, GradientColor gradientColor) {
+        this.gradientColor = gradientColor;
+        resize(width, height);
+    }
+
+    /**
+     * Changes the size of the gradient. The gradient is re-rendered at the new size when its image is requested next.
+     *
+     * @param newWidth  The new width of the gradient.
+     * @param newHeight The new height of the gradient.
+     */
+    public void resize(int newWidth, int newHeight) {
+        int clampedWidth = Math.max(1, newWidth);
+        int clampedHeight = Math.max(1, newHeight);
+        if (kernel != null && clampedWidth == width && clampedHeight == height) {
+            return;
+        }
+        this.width = clampedWidth;
+        this.height = clampedHeight;
+        kernel = new AlphaRenderKernel(width, height, true);
+        pixels = null;
+        alphaGradientImage = null;
+    }
+
+    /**
+     * Sets the configuration of the surface the gradient is displayed on. If it differs from the current
+     * configuration, the image is replaced by one in the native pixel layout of the new configuration. Cheap to call
+     * on every paint.
+     *
+     * @param newConfiguration The configuration of the surface, or null to use a plain {@code TYPE_INT_RGB} image.
+     */
+    public void setGraphicsConfiguration(GraphicsConfiguration newConfiguration) {
+        if (newConfiguration != configuration) {
+            configuration = newConfiguration;
+            alphaGradientImage = null;
+        }
+    }
+
+    /**
+     * Gets the alpha gradient image, rendering it first if the RGB value of the color changed since it was rendered.
+     *
+     * @return the alpha gradient image
+     */
+    public BufferedImage getAlphaGradientImage() {
+        int rgb = gradientColor.getRGBInt();
+        if (alphaGradientImage == null || rgb != renderedRGB) {
+            render(rgb);
+        }
+        return alphaGradientImage;
+    }
+
+    /**
+     * Renders the gradient of the provided color into the image.
+     *
+     * @param rgb The packed RGB value of the color.
+     */
+    private void render(int rgb) {
+        if (alphaGradientImage == null) {
+            alphaGradientImage = RasterWriter.createImage(configuration, width, height);
+        }
+        if (pixels == null) {
+            pixels = new int[width * height];
+        }
+        kernel.setColor(rgb);
+        kernel.prepare(1.0f);
+        kernel.renderRows(pixels, 0, height);
+        RasterWriter.forImage(alphaGradientImage).write(pixels, width, height, alphaGradientImage);
+        renderedRGB = rgb;
+        renderCount++;
+    }
+}
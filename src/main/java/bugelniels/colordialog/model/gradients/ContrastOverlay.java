@@ -0,0 +1,121 @@
+package bugelniels.colordialog.model.gradients;
+
+import bugelniels.colordialog.rendering.ContrastContourKernel;
+import bugelniels.colordialog.rendering.TiledRenderer;
+import lombok.Getter;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Overlay for a saturation-value gradient that shows where the WCAG contrast ratio against a reference color crosses
+ * 3:1, 4.5:1 and 7:1, rendered by a {@link ContrastContourKernel}. The overlay is rendered when its image is requested
+ * for a hue, reference or size it was not rendered for yet, so it follows live hue changes at the rate the gradient is
+ * painted. Its pixels are either fully transparent or opaque, so the image can be drawn over the gradient as is.
+ *
+ * @author BugelNiels
+ */
+public class ContrastOverlay {
+
+    private static final int MIN_SIZE = 2;
+
+    @Getter
+    private int width;
+    @Getter
+    private int height;
+    /**
+     * The packed RGB value of the reference color.
+     */
+    @Getter
+    private int reference;
+    /**
+     * Number of times the overlay was rendered.
+     */
+    @Getter
+    private long renderCount;
+
+    private final ContrastContourKernel kernel;
+    private final TiledRenderer renderer;
+    private int[] pixels;
+    private BufferedImage overlayImage;
+    private boolean valid;
+    private float renderedHue;
+
+    /**
+     * Creates a new overlay with the provided size.
+     *
+     * @param width     The width of the gradient.
+     * @param height    The height of the gradient.
+     * @param reference The packed RGB value of the color the contrast is computed against.
+     */
+    public ContrastOverlay(int width, int height, int reference) {
+        this.width = Math.max(MIN_SIZE, width);
+        this.height = Math.max(MIN_SIZE, height);
+        this.kernel = new ContrastContourKernel(this.width, this.height);
+        this.renderer = TiledRenderer.getDefault();
+        setReference(reference);
+    }
+
+    /**
+     * Changes the color the contrast is computed against. The overlay is re-rendered when its image is requested next.
+     *
+     * @param newReference The packed RGB value of the new reference color. The alpha is ignored.
+     */
+    public void setReference(int newReference) {
+        int rgb = newReference | 0xff000000;
+        if (!valid || rgb != reference) {
+            reference = rgb;
+            kernel.setReference(rgb);
+            valid = false;
+        }
+    }
+
+    /**
+     * Changes the size of the overlay. The overlay is re-rendered when its image is requested next.
+     *
+     * @param newWidth  The new width of the gradient.
+     * @param newHeight The new height of the gradient.
+     */
+    public void resize(int newWidth, int newHeight) {
+        int clampedWidth = Math.max(MIN_SIZE, newWidth);
+        int clampedHeight = Math.max(MIN_SIZE, newHeight);
+        if (clampedWidth != width || clampedHeight != height) {
+            width = clampedWidth;
+            height = clampedHeight;
+            kernel.resize(width, height);
+            pixels = null;
+            overlayImage = null;
+            valid = false;
+        }
+    }
+
+    /**
+     * Gets the overlay image for the provided hue, rendering it first if needed.
+     *
+     * @param hue The hue of the gradient the overlay is drawn over.
+     * @return The overlay image, with the size of the gradient.
+     */
+    public BufferedImage getOverlayImage(float hue) {
+        if (!valid || Float.compare(hue, renderedHue) != 0) {
+            render(hue);
+        }
+        return overlayImage;
+    }
+
+    /**
+     * Renders the overlay for the provided hue. The image is premultiplied, which needs no conversion as all pixels are
+     * either fully transparent or opaque.
+     *
+     * @param hue The hue of the gradient.
+     */
+    private void render(float hue) {
+        if (overlayImage == null) {
+            overlayImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            pixels = new int[width * height];
+        }
+        renderer.render(kernel, pixels, hue);
+        overlayImage.getRaster().setDataElements(0, 0, width, height, pixels);
+        renderedHue = hue;
+        valid = true;
+        renderCount++;
+    }
+}
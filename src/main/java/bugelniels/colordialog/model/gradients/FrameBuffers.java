@@ -0,0 +1,97 @@
+package bugelniels.colordialog.model.gradients;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+
+/**
+ * Creates the images of a {@link PlaneGradient} and holds the pixel buffer frames are rendered into before they are
+ * written into those images. Images are created for a single {@link GraphicsConfiguration} at a time; images created
+ * for a configuration with a different pixel layout are replaced as soon as they are reused. Must only be used by the
+ * thread that renders the frames.
+ *
+ * @author BugelNiels
+ */
+final class FrameBuffers {
+
+    private GraphicsConfiguration configuration;
+    private ColorModel imageModel;
+    private RasterWriter writer;
+    private int[] pixels = new int[0];
+
+    /**
+     * Creates new buffers that create plain {@code TYPE_INT_RGB} images.
+     */
+    FrameBuffers() {
+        adopt(null);
+    }
+
+    /**
+     * Retrieves the configuration images are currently created for.
+     *
+     * @return The configuration, or null if plain {@code TYPE_INT_RGB} images are created.
+     */
+    GraphicsConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Switches to the pixel layout of the provided configuration.
+     *
+     * @param newConfiguration The configuration to create images for, or null for plain {@code TYPE_INT_RGB} images.
+     */
+    void adopt(GraphicsConfiguration newConfiguration) {
+        BufferedImage probe = RasterWriter.createImage(newConfiguration, 1, 1);
+        configuration = newConfiguration;
+        imageModel = probe.getColorModel();
+        writer = RasterWriter.forImage(probe);
+    }
+
+    /**
+     * Returns the provided image if it has the provided size and the pixel layout of the current configuration,
+     * otherwise creates a new image that does.
+     *
+     * @param image       The image to reuse, or null.
+     * @param imageWidth  The required width.
+     * @param imageHeight The required height.
+     * @return An image of the required size and layout.
+     */
+    BufferedImage ensureImage(BufferedImage image, int imageWidth, int imageHeight) {
+        if (image != null && image.getWidth() == imageWidth && image.getHeight() == imageHeight
+                && image.getColorModel().equals(imageModel)) {
+            return image;
+        }
+        return RasterWriter.createImage(configuration, imageWidth, imageHeight);
+    }
+
+    /**
+     * Retrieves the pixel buffer, growing it if it holds fewer than the provided number of pixels.
+     *
+     * @param length The required number of pixels.
+     * @return The pixel buffer.
+     */
+    int[] pixels(int length) {
+        if (pixels.length < length) {
+            pixels = new int[length];
+        }
+        return pixels;
+    }
+
+    /**
+     * Writes the top-left region of the pixel buffer into the provided image.
+     *
+     * @param imageWidth  The width of the region, which is also the stride of the pixels in the buffer.
+     * @param imageHeight The height of the region.
+     * @param image       The image to write into. Must have the pixel layout of the current configuration.
+     */
+    void write(int imageWidth, int imageHeight, BufferedImage image) {
+        writer.write(pixels, imageWidth, imageHeight, image);
+    }
+
+    /**
+     * Releases the pixel buffer. It is re-allocated at the size of the next frame.
+     */
+    void release() {
+        pixels = new int[0];
+    }
+}
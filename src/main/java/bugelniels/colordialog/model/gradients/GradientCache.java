@@ -0,0 +1,177 @@
+package bugelniels.colordialog.model.gradients;
+
+import lombok.Getter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of rendered gradient rasters, keyed by kernel type, parameter and size. The hue selected
+ * through the hue slider is quantized to the rows of the slider, so scrubbing back and forth hits a small set of
+ * distinct keys. Because the kernel type is part of the key, gradients of different kinds can share a single cache.
+ * The cache is bounded by a memory budget; whenever storing a raster would exceed the budget, the least recently used
+ * rasters are evicted. All methods are thread-safe, so a single cache can be shared between gradients.
+ *
+ * @author BugelNiels
+ */
+public class GradientCache {
+
+    @Getter
+    private final long budgetBytes;
+    private final Map<CacheKey, int[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long usedBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a new, empty cache.
+     *
+     * @param budgetBytes The maximum number of bytes the cached rasters may occupy.
+     */
+    public GradientCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Copies the cached raster belonging to the provided kernel type, parameter and size into the provided raster, if
+     * there is one.
+     *
+     * @param kernelType The type of the kernel that rendered the gradient.
+     * @param parameter  The parameter of the gradient, such as the hue.
+     * @param width      The width of the gradient.
+     * @param height     The height of the gradient.
+     * @param raster     The raster to copy the cached pixels into.
+     * @return True if the raster was cached, false otherwise.
+     */
+    public synchronized boolean copyInto(Class<?> kernelType, float parameter, int width, int height, int[] raster) {
+        int[] cached = entries.get(new CacheKey(kernelType, Float.floatToIntBits(parameter), width, height));
+        if (cached == null) {
+            missCount++;
+            return false;
+        }
+        hitCount++;
+        System.arraycopy(cached, 0, raster, 0, cached.length);
+        return true;
+    }
+
+    /**
+     * Stores a copy of the provided raster. Evicts the least recently used rasters until the copy fits the budget.
+     * A raster that is already cached is overwritten in place, without evicting any other raster. Rasters larger than
+     * the entire budget are not stored.
+     *
+     * @param kernelType The type of the kernel that rendered the gradient.
+     * @param parameter  The parameter of the gradient, such as the hue.
+     * @param width      The width of the gradient.
+     * @param height     The height of the gradient.
+     * @param raster     The rendered raster. Must hold width x height values.
+     */
+    public synchronized void store(Class<?> kernelType, float parameter, int width, int height, int[] raster) {
+        int length = width * height;
+        long size = (long) length * Integer.BYTES;
+        if (size > budgetBytes) {
+            return;
+        }
+        CacheKey key = new CacheKey(kernelType, Float.floatToIntBits(parameter), width, height);
+        int[] copy = entries.remove(key);
+        if (copy != null) {
+            usedBytes -= size;
+        } else {
+            copy = evictUntilFits(size, length);
+        }
+        if (copy == null) {
+            copy = new int[length];
+        }
+        System.arraycopy(raster, 0, copy, 0, length);
+        entries.put(key, copy);
+        usedBytes += size;
+    }
+
+    /**
+     * Evicts the least recently used rasters until an additional raster of the provided size fits the budget.
+     *
+     * @param size   The size in bytes of the raster that needs to fit.
+     * @param length The number of pixels of the raster that needs to fit.
+     * @return An evicted raster of the requested length that can be reused, or null if there is none.
+     */
+    private int[] evictUntilFits(long size, int length) {
+        int[] reusable = null;
+        Iterator<int[]> iterator = entries.values().iterator();
+        while (usedBytes + size > budgetBytes && iterator.hasNext()) {
+            int[] evicted = iterator.next();
+            iterator.remove();
+            usedBytes -= (long) evicted.length * Integer.BYTES;
+            evictionCount++;
+            if (evicted.length == length) {
+                reusable = evicted;
+            }
+        }
+        return reusable;
+    }
+
+    /**
+     * Removes all cached rasters. The statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Retrieves the number of lookups that found a cached raster.
+     *
+     * @return The number of cache hits.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Retrieves the number of lookups that did not find a cached raster.
+     *
+     * @return The number of cache misses.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Retrieves the number of rasters that were evicted to stay within the budget.
+     *
+     * @return The number of evictions.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Retrieves the number of bytes currently occupied by the cached rasters.
+     *
+     * @return The number of used bytes.
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Retrieves the number of cached rasters.
+     *
+     * @return The number of cached rasters.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Key of a cached raster. The parameter is stored as its exact bit pattern.
+     *
+     * @param kernelType    The type of the kernel that rendered the raster.
+     * @param parameterBits The bits of the parameter, as given by {@link Float#floatToIntBits(float)}.
+     * @param width         The width of the raster.
+     * @param height        The height of the raster.
+     */
+    private record CacheKey(Class<?> kernelType, int parameterBits, int width, int height) {
+    }
+}
@@ -1,27 +1,39 @@
 package bugelniels.colordialog.model.gradients;
 
 import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.rendering.AssetCache;
+import bugelniels.colordialog.rendering.HueRenderKernel;
+import bugelniels.colordialog.rendering.TiledRenderer;
 import lombok.Getter;
 
+import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
+import java.awt.image.ColorModel;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Represents a 1-dimensional gradient containing all different hue values.
+ * Every row of the gradient holds a single color, so the gradient is stored as a column that is 1 pixel wide and
+ * drawn stretched to the width of the gradient. The column is rendered by a {@link HueRenderKernel} and does not depend
+ * on any color, so gradients of the same height and pixel layout share a single, never modified image.
+ * Images are created for the {@link GraphicsConfiguration} the gradient is displayed on, see
+ * {@link #setGraphicsConfiguration(GraphicsConfiguration)}.
  *
  * @author BugelNiels
  */
 public class HueGradient {
 
+    private static final int SHARED_IMAGE_LIMIT = 8;
+    private static final Map<ColorModel, AssetCache<BufferedImage>> SHARED_IMAGES = new HashMap<>();
+
     @Getter
-    private final int height;
+    private int height;
     @Getter
-    private final int width;
-    private final double[] reds;
-    private final double[] greens;
-    private final double[] blues;
+    private int width;
 
-    private final BufferedImage hueGradientImage;
+    private BufferedImage hueGradientImage;
+    private GraphicsConfiguration configuration;
 
     /**
      * Creates a new hue gradient with the provided width and height.
@@ -32,60 +44,73 @@ public class HueGradient {
      * @param gradientColor The color whose hue value will be used for initialization.
      */
     public HueGradient(int width, int height, GradientColor gradientColor) {
-        this.width = width;
-        this.height = height;
-        reds = new double[height];
-        greens = new double[height];
-        blues = new double[height];
-        hueGradientImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        calculateImage();
+        resize(width, height);
     }
 
     /**
-     * Initializes the image with the different hue values.
+     * Changes the size of the gradient. The column only depends on the height, so a column of another height is only
+     * looked up or rendered if the height actually changed.
+     *
+     * @param newWidth  The new width of the gradient.
+     * @param newHeight The new height of the gradient.
      */
-    private void calculateImage() {
-        calcHueArray();
-        int[] gradientRaster = ((DataBufferInt) hueGradientImage.getRaster().getDataBuffer()).getData();
-        int currentColorRGB;
-        for (int y = 0; y < height; y++) {
-            currentColorRGB = getRGBColorAtIndex(y);
-            for (int x = 0; x < width; x++) {
-                gradientRaster[y * width + x] = currentColorRGB;
-            }
+    public void resize(int newWidth, int newHeight) {
+        this.width = Math.max(1, newWidth);
+        if (hueGradientImage != null && newHeight == height) {
+            return;
         }
+        this.height = Math.max(1, newHeight);
+        hueGradientImage = sharedImage(configuration, height);
     }
 
     /**
-     * Fills in the reds, greens and blues arrays.
+     * Sets the configuration of the surface the gradient is displayed on. If it differs from the current
+     * configuration, the image is replaced by one in the native pixel layout of the new configuration. Cheap to call
+     * on every paint.
+     *
+     * @param newConfiguration The configuration of the surface, or null to use a plain {@code TYPE_INT_RGB} image.
      */
-    private void calcHueArray() {
-        int[] order = new int[]{1, 0, 2};
-        int segmentWidth = height / 6;
-        double direction = 6;
-        int count = 0;
-        int i;
-        // Start of RGB hue array; starts at a red color
-        int[] rgb = new int[]{255, 0, 0};
-        for (i = 0; i < 255 - segmentWidth; i += segmentWidth) {
-            calcSegment(rgb, i, i + segmentWidth, order[count % 3], direction);
-            count++;
-            direction *= -1;
+    public void setGraphicsConfiguration(GraphicsConfiguration newConfiguration) {
+        if (newConfiguration != configuration) {
+            configuration = newConfiguration;
+            hueGradientImage = sharedImage(configuration, height);
         }
-        calcSegment(rgb, i, 255, order[count % 3], direction);
     }
 
-    private void calcSegment(int[] rgb, int start, int end, int colorChannel, double direction) {
-        for (int i = start; i < end; i++) {
-            rgb[colorChannel] += direction;
-            reds[i] = rgb[0];
-            greens[i] = rgb[1];
-            blues[i] = rgb[2];
+    /**
+     * Retrieves the shared column of the provided height for the provided configuration, creating it if needed.
+     *
+     * @param configuration The configuration to create the column for, or null.
+     * @param height        The height of the column.
+     * @return The shared column.
+     */
+    private static BufferedImage sharedImage(GraphicsConfiguration configuration, int height) {
+        ColorModel colorModel = RasterWriter.createImage(configuration, 1, 1).getColorModel();
+        AssetCache<BufferedImage> images;
+        synchronized (SHARED_IMAGES) {
+            images = SHARED_IMAGES.computeIfAbsent(colorModel, model -> new AssetCache<>(SHARED_IMAGE_LIMIT));
         }
+        return images.get(height, key -> createColumn(configuration, height));
     }
 
     /**
-     * Gets hue gradient image.
+     * Creates a column, 1 pixel wide, with the different hue values.
+     *
+     * @param configuration The configuration to create the column for, or null.
+     * @param height        The height of the column.
+     * @return The created column.
+     */
+    private static BufferedImage createColumn(GraphicsConfiguration configuration, int height) {
+        BufferedImage image = RasterWriter.createImage(configuration, 1, height);
+        int[] column = new int[height];
+        TiledRenderer.getDefault().render(new HueRenderKernel(1, height), column, 0);
+        RasterWriter.forImage(image).write(column, 1, height, image);
+        return image;
+    }
+
+    /**
+     * Gets the hue gradient image. The image is 1 pixel wide and should be drawn stretched to the width of the
+     * gradient.
      *
      * @return the hue gradient image
      */
@@ -93,8 +118,4 @@ public class HueGradient {
         return hueGradientImage;
     }
 
-    private int getRGBColorAtIndex(int index) {
-        return (int) (65536 * reds[index] + 256 * greens[index] + blues[index]);
-    }
-
 }
@@ -0,0 +1,122 @@
+package bugelniels.colordialog.model.gradients;
+
+import bugelniels.colordialog.model.ColorChangeListener;
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.rendering.ColorConversions;
+import bugelniels.colordialog.rendering.OklchRenderKernel;
+import bugelniels.colordialog.rendering.PerceptualConversions;
+import bugelniels.colordialog.rendering.TiledRenderer;
+import lombok.Getter;
+
+/**
+ * This class represents a 2-dimensional OKLCH plane containing all chroma and lightness values for the OKLCH hue of a
+ * color. Chroma increases from left to right and lightness decreases from top to bottom; colors outside the sRGB
+ * gamut are hatched. The plane is re-rendered in the background whenever the hue of the color changes; see
+ * {@link PlaneGradient} for how frames are rendered, previewed and swapped in. Colors without chroma have no hue, so
+ * the plane keeps its previous hue while such a color is selected. Colors picked in the plane itself, see
+ * {@link #selectColor(int)}, keep the hue of the plane as well.
+ *
+ * @author BugelNiels
+ */
+public class OklchGradient extends PlaneGradient implements ColorChangeListener {
+
+    private static final float ACHROMATIC_CHROMA = 1e-4f;
+
+    @Getter
+    private final GradientColor gradientColor;
+    private final float[] oklch = new float[3];
+    /**
+     * The OKLCH hue of the plane, as a fraction of a full turn.
+     */
+    @Getter
+    private volatile float oklchHue;
+    private boolean selecting;
+
+    /**
+     * Creates a new OKLCH plane with the provided width and height.
+     *
+     * @param width         The width the plane should have.
+     * @param height        The height the plane should have.
+     * @param gradientColor The color whose OKLCH hue will be used to determine how the plane should be drawn.
+     */
+    public OklchGradient(int width, int height, GradientColor gradientColor) {
+        this(width, height, gradientColor, TiledRenderer.getDefault());
+    }
+
+    /**
+     * Creates a new OKLCH plane with the provided width and height that is rendered by the provided renderer.
+     *
+     * @param width         The width the plane should have.
+     * @param height        The height the plane should have.
+     * @param gradientColor The color whose OKLCH hue will be used to determine how the plane should be drawn.
+     * @param renderer      The renderer used to fill the plane image.
+     */
+    public OklchGradient(int width, int height, GradientColor gradientColor, TiledRenderer renderer) {
+        this(width, height, gradientColor, renderer, false);
+    }
+
+    /**
+     * Creates a new OKLCH plane with the provided width and height that is rendered by the provided renderer, and
+     * optionally starts out suspended, see {@link #suspend()}.
+     *
+     * @param width         The width the plane should have.
+     * @param height        The height the plane should have.
+     * @param gradientColor The color whose OKLCH hue will be used to determine how the plane should be drawn.
+     * @param renderer      The renderer used to fill the plane image.
+     * @param suspended     True to start out suspended.
+     */
+    public OklchGradient(int width, int height, GradientColor gradientColor, TiledRenderer renderer,
+                         boolean suspended) {
+        super(width, height, hueOf(gradientColor.getRGBInt(), new float[3], 0), renderer,
+                new OklchRenderKernel(width, height), new OklchRenderKernel(MIN_SIZE, MIN_SIZE), suspended);
+        this.gradientColor = gradientColor;
+        this.oklchHue = hueOf(gradientColor.getRGBInt(), oklch, 0);
+    }
+
+    private static float hueOf(int rgb, float[] scratch, float fallback) {
+        PerceptualConversions.rgbToOklch(rgb, scratch);
+        return scratch[1] < ACHROMATIC_CHROMA ? fallback : scratch[2];
+    }
+
+    @Override
+    protected float getParameter() {
+        return oklchHue;
+    }
+
+    /**
+     * Replaces the gradient color with a color picked in this plane. Rounding the picked color to 8 bits per channel
+     * slightly changes its OKLCH hue, so the plane keeps its own hue instead of following the new color.
+     *
+     * @param argb The packed ARGB value of the picked color.
+     */
+    public void selectColor(int argb) {
+        selecting = true;
+        try {
+            gradientColor.setARGB(argb);
+        } finally {
+            selecting = false;
+        }
+    }
+
+    /**
+     * Requests a new plane when a change of the hue of the gradient color changes its OKLCH hue. Changes in saturation
+     * and brightness alone are ignored: they only shift the OKLCH hue through the rounding of the color to 8 bits per
+     * channel, and following those shifts would re-render the plane for every step of a drag.
+     *
+     * @param changedComponents The bitmask of the changed components.
+     * @param hue               The new hue.
+     * @param saturation        The new saturation.
+     * @param brightness        The new brightness.
+     */
+    @Override
+    public void colorChanged(int changedComponents, float hue, float saturation, float brightness) {
+        if (selecting || (changedComponents & GradientColor.HUE_COMPONENT) == 0) {
+            return;
+        }
+        float newHue = hueOf(ColorConversions.hsbToRgb(hue, saturation, brightness), oklch, oklchHue);
+        if (Float.compare(newHue, oklchHue) != 0) {
+            oklchHue = newHue;
+            requestParameter(newHue);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package bugelniels.colordialog.model.gradients;
+
+import bugelniels.colordialog.metrics.ColorDialogMetrics;
+import bugelniels.colordialog.rendering.ResizableKernel;
+import bugelniels.colordialog.rendering.TiledRenderer;
+import lombok.Getter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+
+/**
+ * This class represents a 2-dimensional gradient that is rendered by a kernel for a single parameter, such as a hue.
+ * Parameter changes are rendered in the background into a back buffer, which is swapped with the visible image once
+ * it is done. Fires a PropertyChangeEvent whenever a new gradient image has been swapped in.
+ * Large gradients are rendered progressively while the parameter is being changed: a low-resolution preview is
+ * rendered first, which is refined to the full resolution once the parameter has not changed for a short while. While
+ * the preview is shown, the gradient image is smaller than the gradient and should be drawn scaled up to its width and
+ * height.
+ * Gradient images are created for the {@link GraphicsConfiguration} the gradient is displayed on, so that drawing
+ * them does not convert pixels on every paint; see {@link #setGraphicsConfiguration(GraphicsConfiguration)}.
+ * A gradient that is not displayed can be suspended, see {@link #suspend()}. A suspended gradient only keeps a
+ * low-resolution preview; its full-resolution buffers are released until it is resumed.
+ *
+ * @author BugelNiels
+ */
+public abstract class PlaneGradient implements RenderTarget {
+
+    /**
+     * The minimum width and height of a gradient.
+     */
+    protected static final int MIN_SIZE = 2;
+
+    /**
+     * Default factor by which previews are smaller than the gradient in each dimension.
+     */
+    public static final int DEFAULT_PREVIEW_SCALE = 4;
+    /**
+     * Default minimum number of pixels a gradient needs before it is rendered progressively.
+     */
+    public static final int DEFAULT_PROGRESSIVE_THRESHOLD = 512 * 512;
+    /**
+     * Default time in milliseconds the parameter needs to be stable before a preview is refined.
+     */
+    public static final int DEFAULT_REFINE_DELAY = 120;
+
+    /**
+     * Name of the PropertyChangeEvent that is fired when a new gradient image has been swapped in.
+     */
+    public static final String GRADIENT_CHANGED = "gradientChanged";
+
+    private BufferedImage gradientImage;
+    private BufferedImage backImage;
+    private BufferedImage previewImage;
+    private BufferedImage backPreviewImage;
+    private boolean showingPreview;
+    @Getter
+    private float shownParameter;
+    private boolean renderedPreview;
+    private long renderedSize;
+    private boolean renderedSuspended;
+    @Getter
+    private volatile boolean suspended;
+    private volatile GraphicsConfiguration requestedConfiguration;
+    private final FrameBuffers buffers = new FrameBuffers();
+
+    @Getter
+    private int width;
+    @Getter
+    private int height;
+    private volatile long requestedSize;
+
+    private final ResizableKernel kernel;
+    private final ResizableKernel previewKernel;
+    @Getter
+    private volatile int previewScale = DEFAULT_PREVIEW_SCALE;
+    @Getter
+    private volatile int progressiveThreshold = DEFAULT_PROGRESSIVE_THRESHOLD;
+    private volatile boolean previewRequested;
+    private final Timer refineTimer;
+    private final TiledRenderer renderer;
+    @Getter
+    private final RenderScheduler scheduler;
+    @Getter
+    private volatile GradientCache cache;
+    private final PropertyChangeSupport changeSupport = new PropertyChangeSupport(this);
+
+    /**
+     * Creates a new gradient with the provided width and height, which is either rendered for the provided parameter
+     * or starts out suspended. A suspended gradient only renders a low-resolution preview, which makes it cheap to
+     * create many gradients that are not displayed yet.
+     *
+     * @param width         The width the gradient should have.
+     * @param height        The height the gradient should have.
+     * @param parameter     The parameter the gradient is initially rendered for.
+     * @param renderer      The renderer used to fill the gradient image.
+     * @param kernel        The kernel used to render full-resolution gradients.
+     * @param previewKernel The kernel used to render previews. Must be a different instance of the same kind.
+     * @param suspended     True to start out suspended, see {@link #suspend()}.
+     */
+    protected PlaneGradient(int width, int height, float parameter, TiledRenderer renderer, ResizableKernel kernel,
+                            ResizableKernel previewKernel, boolean suspended) {
+        this.width = width;
+        this.height = height;
+        this.kernel = kernel;
+        this.previewKernel = previewKernel;
+        this.renderer = renderer;
+        this.scheduler = new RenderScheduler(this);
+        this.requestedSize = packSize(width, height);
+        this.refineTimer = new Timer(DEFAULT_REFINE_DELAY, e -> refine());
+        this.suspended = suspended;
+        this.renderedSuspended = suspended;
+        this.shownParameter = parameter;
+        refineTimer.setRepeats(false);
+        if (suspended) {
+            backPreviewImage = buffers.ensureImage(null, previewSize(width), previewSize(height));
+            renderPreview(parameter);
+            previewImage = backPreviewImage;
+            backPreviewImage = null;
+            showingPreview = true;
+        } else {
+            gradientImage = buffers.ensureImage(null, width, height);
+            renderInto(gradientImage, parameter, false);
+        }
+    }
+
+    /**
+     * Retrieves the parameter the gradient should currently be rendered for.
+     *
+     * @return The current parameter, such as the hue of the color this gradient belongs to.
+     */
+    protected abstract float getParameter();
+
+    /**
+     * Retrieves the image that should currently be displayed. This is either the full-resolution gradient, or a
+     * low-resolution preview that should be drawn scaled up to the width and height of this gradient.
+     *
+     * @return The image to display, which was rendered for the parameter returned by {@code getShownParameter()}.
+     */
+    public BufferedImage getGradientImage() {
+        return showingPreview ? previewImage : gradientImage;
+    }
+
+    /**
+     * Sets the factor by which previews are smaller than the gradient in each dimension.
+     *
+     * @param previewScale The preview scale, for example 4 or 8. A scale of 1 disables progressive rendering.
+     */
+    public void setPreviewScale(int previewScale) {
+        this.previewScale = Math.max(1, previewScale);
+    }
+
+    /**
+     * Sets the minimum number of pixels a gradient needs before it is rendered progressively.
+     *
+     * @param progressiveThreshold The minimum number of pixels.
+     */
+    public void setProgressiveThreshold(int progressiveThreshold) {
+        this.progressiveThreshold = progressiveThreshold;
+    }
+
+    /**
+     * Sets the time the parameter needs to be stable before a preview is refined to the full resolution.
+     *
+     * @param refineDelayMillis The delay in milliseconds.
+     */
+    public void setRefineDelay(int refineDelayMillis) {
+        refineTimer.setInitialDelay(refineDelayMillis);
+    }
+
+    /**
+     * Releases the full-resolution buffers of this gradient, for example because it is no longer displayed. The
+     * gradient keeps a low-resolution preview, which follows parameter and size changes, until it is resumed.
+     */
+    public void suspend() {
+        if (!suspended) {
+            suspended = true;
+            scheduler.request(getParameter());
+        }
+    }
+
+    /**
+     * Renders the gradient at full resolution again after it was suspended. Until the full-resolution frame has been
+     * swapped in, the preview is shown.
+     */
+    public void resume() {
+        if (suspended) {
+            suspended = false;
+            scheduler.request(getParameter());
+        }
+    }
+
+    /**
+     * Computes the size of a preview. Previews of a suspended gradient are always scaled down, even if progressive
+     * rendering is disabled.
+     *
+     * @param size The width or height of the gradient.
+     * @return The width or height of the preview.
+     */
+    private int previewSize(int size) {
+        int scale = renderedSuspended ? Math.max(previewScale, DEFAULT_PREVIEW_SCALE) : previewScale;
+        return Math.max(MIN_SIZE, size / scale);
+    }
+
+    private boolean isProgressive(long size) {
+        return previewScale > 1 && (size >>> Integer.SIZE) * (int) size >= progressiveThreshold;
+    }
+
+    /**
+     * Requests the full-resolution gradient after the parameter has been stable for the refine delay.
+     */
+    private void refine() {
+        previewRequested = false;
+        scheduler.request(getParameter());
+    }
+
+    /**
+     * Requests the gradient to be rendered for a new parameter. The gradient is rendered in the background;
+     * intermediate parameters are skipped if newer ones arrive before rendering started. Large gradients first receive
+     * a preview, which is refined once the parameter is stable.
+     *
+     * @param parameter The new parameter.
+     */
+    protected void requestParameter(float parameter) {
+        if (isProgressive(requestedSize)) {
+            previewRequested = true;
+            refineTimer.restart();
+        }
+        scheduler.request(parameter);
+    }
+
+    private static long packSize(int width, int height) {
+        return ((long) width << Integer.SIZE) | height;
+    }
+
+    /**
+     * Requests the gradient to be rendered at a new size. The new size is rendered in the background like any other
+     * frame; the width and height of this gradient change once that frame has been swapped in.
+     *
+     * @param newWidth  The new width of the gradient.
+     * @param newHeight The new height of the gradient.
+     */
+    public void resize(int newWidth, int newHeight) {
+        long size = packSize(Math.max(MIN_SIZE, newWidth), Math.max(MIN_SIZE, newHeight));
+        if (size != requestedSize) {
+            requestedSize = size;
+            scheduler.request(getParameter());
+        }
+    }
+
+    /**
+     * Sets the configuration of the surface the gradient is displayed on. If it differs from the current
+     * configuration, the gradient is re-rendered into images created for the new configuration, which can be drawn
+     * onto that surface without converting pixels. Cheap to call on every paint.
+     *
+     * @param configuration The configuration of the surface, or null to use plain {@code TYPE_INT_RGB} images.
+     */
+    public void setGraphicsConfiguration(GraphicsConfiguration configuration) {
+        if (configuration != requestedConfiguration) {
+            requestedConfiguration = configuration;
+            scheduler.request(getParameter());
+        }
+    }
+
+    /**
+     * Renders the gradient belonging to the provided parameter into the provided image.
+     * The gradient is rendered into a reusable pixel buffer, which is written into the image in its native layout.
+     *
+     * @param image     The image to render into.
+     * @param parameter The parameter to render the gradient for.
+     * @param copied    Whether the gradient was already copied from the cache into the pixel buffer.
+     */
+    private void renderInto(BufferedImage image, float parameter, boolean copied) {
+        int imageWidth = image.getWidth();
+        int imageHeight = image.getHeight();
+        if (!copied && !copyFromCache(parameter, imageWidth, imageHeight)) {
+            kernel.resize(imageWidth, imageHeight);
+            int[] pixels = buffers.pixels(imageWidth * imageHeight);
+            renderer.render(kernel, pixels, parameter);
+            GradientCache currentCache = cache;
+            if (currentCache != null) {
+                currentCache.store(kernel.getClass(), parameter, imageWidth, imageHeight, pixels);
+            }
+        }
+        buffers.write(imageWidth, imageHeight, image);
+    }
+
+    /**
+     * Sets the cache used to look up previously rendered gradients. Rendered gradients are stored in this cache.
+     *
+     * @param cache The cache to use, or null to always render the gradient.
+     */
+    public void setCache(GradientCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Renders the gradient belonging to the provided parameter into the back buffer. Renders a preview instead if one
+     * was requested and the full-resolution gradient is not cached, or if the gradient is suspended. The back buffers
+     * are only re-allocated if the requested size differs from their current size.
+     *
+     * @param parameter The parameter to render the gradient for.
+     */
+    @Override
+    public void renderFrame(float parameter) {
+        long start = ColorDialogMetrics.startRender();
+        long size = requestedSize;
+        int newWidth = (int) (size >>> Integer.SIZE);
+        int newHeight = (int) size;
+        prepareBuffers(size);
+        boolean progressive = !renderedSuspended && previewRequested && isProgressive(size);
+        boolean copied = progressive && copyFromCache(parameter, newWidth, newHeight);
+        renderedPreview = renderedSuspended || progressive && !copied;
+        if (renderedPreview) {
+            backPreviewImage = buffers.ensureImage(backPreviewImage, previewSize(newWidth), previewSize(newHeight));
+            renderPreview(parameter);
+            ColorDialogMetrics.renderFinished(start, backPreviewImage.getWidth(), backPreviewImage.getHeight(),
+                    parameter, true);
+        } else {
+            renderInto(backImage, parameter, copied);
+            ColorDialogMetrics.renderFinished(start, newWidth, newHeight, parameter, false);
+        }
+    }
+
+    /**
+     * Adopts the requested configuration and suspension for the next frame. The full-resolution back buffer is
+     * released when the gradient is suspended, and ensured to have the provided size otherwise.
+     *
+     * @param size The packed size of the next frame.
+     */
+    private void prepareBuffers(long size) {
+        GraphicsConfiguration configuration = requestedConfiguration;
+        if (configuration != buffers.getConfiguration()) {
+            buffers.adopt(configuration);
+        }
+        renderedSize = size;
+        renderedSuspended = suspended;
+        if (renderedSuspended) {
+            backImage = null;
+        } else {
+            backImage = buffers.ensureImage(backImage, (int) (size >>> Integer.SIZE), (int) size);
+        }
+    }
+
+    private void renderPreview(float parameter) {
+        int previewWidth = backPreviewImage.getWidth();
+        int previewHeight = backPreviewImage.getHeight();
+        previewKernel.resize(previewWidth, previewHeight);
+        renderer.render(previewKernel, buffers.pixels(previewWidth * previewHeight), parameter);
+        buffers.write(previewWidth, previewHeight, backPreviewImage);
+        if (renderedSuspended) {
+            buffers.release();
+        }
+    }
+
+    private boolean copyFromCache(float parameter, int imageWidth, int imageHeight) {
+        GradientCache currentCache = cache;
+        return currentCache != null && currentCache.copyInto(kernel.getClass(), parameter, imageWidth, imageHeight,
+                buffers.pixels(imageWidth * imageHeight));
+    }
+
+    /**
+     * Swaps the most recently rendered frame in. A preview replaces the previous preview, while a full-resolution
+     * frame replaces the previous full-resolution frame; this way neither back buffer is ever displayed.
+     */
+    @Override
+    public void publishFrame() {
+        BufferedImage oldImage = getGradientImage();
+        if (renderedPreview) {
+            BufferedImage oldPreview = previewImage;
+            previewImage = backPreviewImage;
+            backPreviewImage = oldPreview;
+        } else {
+            BufferedImage oldFull = gradientImage;
+            gradientImage = backImage;
+            backImage = oldFull;
+        }
+        showingPreview = renderedPreview;
+        shownParameter = scheduler.getPublishedParameter();
+        if (renderedSuspended) {
+            gradientImage = null;
+            backImage = null;
+            backPreviewImage = null;
+        }
+        width = (int) (renderedSize >>> Integer.SIZE);
+        height = (int) renderedSize;
+        changeSupport.firePropertyChange(GRADIENT_CHANGED, oldImage, getGradientImage());
+    }
+
+    /**
+     * Adds a PropertyChangeListener that is notified whenever a new gradient image has been swapped in.
+     *
+     * @param listener Instance that will be listening to this gradient.
+     */
+    public void addListener(PropertyChangeListener listener) {
+        changeSupport.addPropertyChangeListener(listener);
+    }
+}
@@ -0,0 +1,241 @@
+package bugelniels.colordialog.model.gradients;
+
+import lombok.Getter;
+
+import java.awt.*;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DirectColorModel;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * Writes rendered pixels into images of any pixel layout, such as images created for a {@link GraphicsConfiguration}.
+ * Gradients are rendered as packed RGB ints; this writer converts them into the native layout of the image, so that
+ * drawing the image onto a surface of the same layout does not convert every pixel on every blit.
+ * Pixels are written through the raster of the image instead of through its data array. Taking the data array out of
+ * an image makes Java2D stop tracking it, after which it can no longer cache the image in an accelerated surface.
+ * Images with one byte per component are written through a view of their data buffer whose bands are in memory
+ * order, so that every row is a single copy instead of a copy per component.
+ * A writer reuses a row buffer, so it must only be used by a single thread at a time.
+ *
+ * @author BugelNiels
+ */
+public final class RasterWriter {
+
+    private static final int OPAQUE = 0xff000000;
+    private static final int RED_MASK = 0xff0000;
+    private static final int GREEN_MASK = 0xff00;
+    private static final int BLUE_MASK = 0xff;
+    private static final int RGB_BANDS = 3;
+    private static final int RGBA_BANDS = 4;
+    private static final int BYTE_BITS = 8;
+    private static final int[] COMPONENT_SHIFTS = {16, 8, 0, 24};
+
+    @Getter
+    private final Layout layout;
+    private final int[] byteShifts;
+    private int[] intRow = new int[0];
+    private byte[] byteRow = new byte[0];
+    private BufferedImage viewTarget;
+    private WritableRaster view;
+
+    private RasterWriter(Layout layout, int[] byteShifts) {
+        this.layout = layout;
+        this.byteShifts = byteShifts;
+    }
+
+    /**
+     * Creates an opaque image of the provided size in the native layout of the provided configuration.
+     *
+     * @param configuration The configuration of the surface the image will be drawn on, or null if it is unknown.
+     * @param width         The width of the image.
+     * @param height        The height of the image.
+     * @return A compatible image, or a {@link BufferedImage#TYPE_INT_RGB} image if the configuration is null.
+     */
+    public static BufferedImage createImage(GraphicsConfiguration configuration, int width, int height) {
+        if (configuration == null) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        return configuration.createCompatibleImage(width, height, Transparency.OPAQUE);
+    }
+
+    /**
+     * Creates a writer for images with the same pixel layout as the provided image.
+     *
+     * @param image An image with the layout to write.
+     * @return The writer.
+     */
+    public static RasterWriter forImage(BufferedImage image) {
+        ColorModel colorModel = image.getColorModel();
+        if (colorModel instanceof DirectColorModel direct
+                && image.getSampleModel() instanceof SinglePixelPackedSampleModel
+                && colorModel.getTransferType() == DataBuffer.TYPE_INT && direct.getGreenMask() == GREEN_MASK
+                && (direct.getAlphaMask() == 0 || direct.getAlphaMask() == OPAQUE)) {
+            if (direct.getRedMask() == RED_MASK && direct.getBlueMask() == BLUE_MASK) {
+                return new RasterWriter(Layout.INT_RGB, null);
+            }
+            if (direct.getRedMask() == BLUE_MASK && direct.getBlueMask() == RED_MASK) {
+                return new RasterWriter(Layout.INT_BGR, null);
+            }
+        }
+        if (colorModel instanceof ComponentColorModel && image.getSampleModel() instanceof PixelInterleavedSampleModel
+                && colorModel.getTransferType() == DataBuffer.TYPE_BYTE && colorModel.getColorSpace().isCS_sRGB()
+                && isEightBitRgb(colorModel)) {
+            int[] shifts = byteShifts(image.getRaster(), colorModel.getNumComponents());
+            if (shifts != null) {
+                return new RasterWriter(Layout.BYTE_COMPONENTS, shifts);
+            }
+        }
+        return new RasterWriter(Layout.OTHER, null);
+    }
+
+    /**
+     * Determines which component is stored at which position within a pixel.
+     *
+     * @param raster     The raster of the image.
+     * @param components The number of components of the image.
+     * @return For every byte of a pixel in memory order, the shift that extracts its component from a packed ARGB
+     *         value, or null if the pixels are not stored as consecutive bytes in a single bank.
+     */
+    private static int[] byteShifts(WritableRaster raster, int components) {
+        PixelInterleavedSampleModel sampleModel = (PixelInterleavedSampleModel) raster.getSampleModel();
+        int[] offsets = sampleModel.getBandOffsets();
+        if (sampleModel.getPixelStride() != components || raster.getParent() != null
+                || raster.getDataBuffer().getNumBanks() != 1 || offsets.length != components) {
+            return null;
+        }
+        int[] shifts = new int[components];
+        boolean[] used = new boolean[components];
+        for (int component = 0; component < components; component++) {
+            int offset = offsets[component];
+            if (offset < 0 || offset >= components || used[offset]) {
+                return null;
+            }
+            used[offset] = true;
+            shifts[offset] = COMPONENT_SHIFTS[component];
+        }
+        return shifts;
+    }
+
+    private static boolean isEightBitRgb(ColorModel colorModel) {
+        int components = colorModel.getNumComponents();
+        if (components != RGB_BANDS && components != RGBA_BANDS
+                || colorModel.getColorSpace().getType() != ColorSpace.TYPE_RGB) {
+            return false;
+        }
+        for (int i = 0; i < components; i++) {
+            if (colorModel.getComponentSize(i) != BYTE_BITS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes rendered pixels into the top-left region of the provided image.
+     *
+     * @param pixels The packed RGB values, laid out row by row with a stride equal to the width. Must be opaque.
+     * @param width  The width of the region.
+     * @param height The height of the region.
+     * @param target The image to write into. Must have the layout of this writer.
+     */
+    public void write(int[] pixels, int width, int height, BufferedImage target) {
+        WritableRaster raster = target.getRaster();
+        switch (layout) {
+            case INT_RGB -> raster.setDataElements(0, 0, width, height, pixels);
+            case INT_BGR -> writeSwapped(pixels, width, height, raster);
+            case BYTE_COMPONENTS -> writeComponents(pixels, width, height, target);
+            default -> target.setRGB(0, 0, width, height, pixels, 0, width);
+        }
+    }
+
+    private void writeSwapped(int[] pixels, int width, int height, WritableRaster raster) {
+        if (intRow.length < width) {
+            intRow = new int[width];
+        }
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                intRow[x] = Integer.reverseBytes(pixels[offset + x]) >>> BYTE_BITS | OPAQUE;
+            }
+            raster.setDataElements(0, y, width, 1, intRow);
+        }
+    }
+
+    private void writeComponents(int[] pixels, int width, int height, BufferedImage target) {
+        int bands = byteShifts.length;
+        if (byteRow.length < width * bands) {
+            byteRow = new byte[width * bands];
+        }
+        WritableRaster memoryOrder = viewOf(target);
+        int first = byteShifts[0];
+        int second = byteShifts[1];
+        int third = byteShifts[2];
+        int fourth = byteShifts[bands - 1];
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0, i = 0; x < width; x++, i += bands) {
+                int argb = pixels[offset + x];
+                byteRow[i] = (byte) (argb >>> first);
+                byteRow[i + 1] = (byte) (argb >>> second);
+                byteRow[i + 2] = (byte) (argb >>> third);
+                if (bands == RGBA_BANDS) {
+                    byteRow[i + RGB_BANDS] = (byte) (argb >>> fourth);
+                }
+            }
+            memoryOrder.setDataElements(0, y, width, 1, byteRow);
+        }
+    }
+
+    /**
+     * Retrieves a raster sharing the data buffer of the provided image, whose bands are in memory order. Writing to
+     * this raster marks the image as modified, like writing to the raster of the image itself.
+     *
+     * @param target The image to view.
+     * @return The view of the image.
+     */
+    private WritableRaster viewOf(BufferedImage target) {
+        if (target != viewTarget) {
+            WritableRaster raster = target.getRaster();
+            PixelInterleavedSampleModel sampleModel = (PixelInterleavedSampleModel) raster.getSampleModel();
+            int[] memoryOffsets = new int[byteShifts.length];
+            for (int i = 0; i < memoryOffsets.length; i++) {
+                memoryOffsets[i] = i;
+            }
+            view = Raster.createInterleavedRaster(raster.getDataBuffer(), raster.getWidth(), raster.getHeight(),
+                    sampleModel.getScanlineStride(), sampleModel.getPixelStride(), memoryOffsets, null);
+            viewTarget = target;
+        }
+        return view;
+    }
+
+    /**
+     * The pixel layouts a writer distinguishes.
+     */
+    public enum Layout {
+        /**
+         * Packed ints with red in the highest byte, such as {@link BufferedImage#TYPE_INT_RGB} and opaque
+         * {@link BufferedImage#TYPE_INT_ARGB_PRE}. Rows are copied as they are.
+         */
+        INT_RGB,
+        /**
+         * Packed ints with blue in the highest byte, such as {@link BufferedImage#TYPE_INT_BGR}.
+         */
+        INT_BGR,
+        /**
+         * One byte per component, such as {@link BufferedImage#TYPE_3BYTE_BGR} and
+         * {@link BufferedImage#TYPE_4BYTE_ABGR}.
+         */
+        BYTE_COMPONENTS,
+        /**
+         * Any other layout, which is written through {@link BufferedImage#setRGB(int, int, int, int, int[], int, int)}.
+         */
+        OTHER
+    }
+}
@@ -0,0 +1,188 @@
+package bugelniels.colordialog.model.gradients;
+
+import bugelniels.colordialog.metrics.ColorDialogMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Schedules the rendering of a {@link RenderTarget} on a background thread. Only the most recently requested
+ * parameter is kept: requests that arrive while a frame is being rendered replace each other, so intermediate values
+ * that are already stale are never rendered. At most one frame is in flight at any time; the next frame is only
+ * started after the previous one has been published on the event dispatch thread. A frame that fails to render or
+ * publish is logged and its exception is left to the executor, after which the scheduler keeps serving new requests.
+ *
+ * @author BugelNiels
+ */
+public class RenderScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RenderScheduler.class);
+    private static ExecutorService sharedRenderThread;
+
+    private final RenderTarget target;
+    private final Executor renderExecutor;
+    private final Executor publishExecutor;
+
+    private float requestedParameter;
+    private boolean requestPending;
+    private boolean frameInFlight;
+    private long requestNanos;
+    private long renderingRequestNanos;
+    private long publishedRequestNanos;
+    private float renderingParameter;
+    private float publishedParameter;
+
+    private long requestCount;
+    private long renderedCount;
+
+    /**
+     * Creates a new scheduler that renders on the shared render thread and publishes on the event dispatch thread.
+     *
+     * @param target The target to render frames into.
+     */
+    public RenderScheduler(RenderTarget target) {
+        this(target, getSharedRenderThread(), SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param target          The target to render frames into.
+     * @param renderExecutor  The executor frames are rendered on.
+     * @param publishExecutor The executor frames are published on. Should run on the thread that displays the target.
+     */
+    public RenderScheduler(RenderTarget target, Executor renderExecutor, Executor publishExecutor) {
+        this.target = target;
+        this.renderExecutor = renderExecutor;
+        this.publishExecutor = publishExecutor;
+    }
+
+    private static synchronized Executor getSharedRenderThread() {
+        if (sharedRenderThread == null) {
+            sharedRenderThread = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "gradient-render");
+                thread.setDaemon(true);
+                thread.setUncaughtExceptionHandler((failed, e) -> LOGGER.error("Gradient rendering failed", e));
+                return thread;
+            });
+        }
+        return sharedRenderThread;
+    }
+
+    /**
+     * Requests a frame for the provided parameter. Returns immediately; the frame is rendered in the background.
+     *
+     * @param parameter The parameter of the frame, such as the hue.
+     */
+    public synchronized void request(float parameter) {
+        requestCount++;
+        if (requestPending) {
+            ColorDialogMetrics.frameCoalesced();
+        }
+        requestNanos = ColorDialogMetrics.frameRequested();
+        requestedParameter = parameter;
+        requestPending = true;
+        if (!frameInFlight) {
+            frameInFlight = true;
+            renderExecutor.execute(this::renderLatest);
+        }
+    }
+
+    /**
+     * Retrieves the number of frames that were requested.
+     *
+     * @return The number of requests.
+     */
+    public synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Retrieves the number of frames that were rendered.
+     *
+     * @return The number of rendered frames.
+     */
+    public synchronized long getRenderedCount() {
+        return renderedCount;
+    }
+
+    /**
+     * Retrieves the number of requests that were replaced by a newer request before they could be rendered.
+     *
+     * @return The number of coalesced requests.
+     */
+    public synchronized long getCoalescedCount() {
+        return requestCount - renderedCount - (requestPending ? 1 : 0);
+    }
+
+    /**
+     * Retrieves the moment the most recently published frame was requested, as returned by
+     * {@link ColorDialogMetrics#frameRequested()}. Should only be called on the thread frames are published on.
+     *
+     * @return The request time in nanoseconds, or 0 if it was not measured.
+     */
+    public long getPublishedRequestNanos() {
+        return publishedRequestNanos;
+    }
+
+    /**
+     * Retrieves the parameter the most recently published frame was rendered for. Should only be called on the thread
+     * frames are published on.
+     *
+     * @return The parameter of the published frame, or 0 if no frame was published yet.
+     */
+    public float getPublishedParameter() {
+        return publishedParameter;
+    }
+
+    private void renderLatest() {
+        float parameter;
+        synchronized (this) {
+            parameter = requestedParameter;
+            renderingParameter = parameter;
+            renderingRequestNanos = requestNanos;
+            requestPending = false;
+            renderedCount++;
+        }
+        boolean rendered = false;
+        try {
+            target.renderFrame(parameter);
+            rendered = true;
+        } finally {
+            if (rendered) {
+                publishExecutor.execute(this::publish);
+            } else {
+                LOGGER.error("Failed to render the frame for parameter {}, it is not published", parameter);
+                scheduleNext();
+            }
+        }
+    }
+
+    private void publish() {
+        synchronized (this) {
+            publishedRequestNanos = renderingRequestNanos;
+            publishedParameter = renderingParameter;
+        }
+        try {
+            target.publishFrame();
+        } finally {
+            scheduleNext();
+        }
+    }
+
+    /**
+     * Starts rendering the latest request if one arrived while the previous frame was in flight, and otherwise marks
+     * that no frame is in flight anymore.
+     */
+    private synchronized void scheduleNext() {
+        if (requestPending) {
+            renderExecutor.execute(this::renderLatest);
+        } else {
+            frameInFlight = false;
+        }
+    }
+}
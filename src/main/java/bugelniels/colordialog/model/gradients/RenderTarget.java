@@ -0,0 +1,23 @@
+package bugelniels.colordialog.model.gradients;
+
+/**
+ * A double-buffered render target that is driven by a {@link RenderScheduler}. Frames are rendered into a back buffer
+ * on a background thread and afterwards published, which swaps the back buffer with the visible front buffer.
+ *
+ * @author BugelNiels
+ */
+public interface RenderTarget {
+
+    /**
+     * Renders the frame belonging to the provided parameter into the back buffer. Called on a background thread.
+     *
+     * @param parameter The parameter of the frame, such as the hue.
+     */
+    void renderFrame(float parameter);
+
+    /**
+     * Swaps the back buffer with the front buffer and notifies anyone displaying the front buffer.
+     * Called on the Swing event dispatch thread.
+     */
+    void publishFrame();
+}
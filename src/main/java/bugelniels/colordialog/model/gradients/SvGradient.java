@@ -1,31 +1,23 @@
 package bugelniels.colordialog.model.gradients;
 
+import bugelniels.colordialog.model.ColorChangeListener;
 import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.rendering.SvRenderKernel;
+import bugelniels.colordialog.rendering.TiledRenderer;
 import lombok.Getter;
 
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferInt;
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
-
 /**
- * This class represents a 2-dimensional gradient containing all saturation and brightness values.
+ * This class represents a 2-dimensional gradient containing all saturation and brightness values for the hue of a
+ * color. The gradient is re-rendered in the background whenever the hue of the color changes; see
+ * {@link PlaneGradient} for how frames are rendered, previewed and swapped in.
  *
  * @author BugelNiels
  */
-public class SvGradient implements PropertyChangeListener {
+public class SvGradient extends PlaneGradient implements ColorChangeListener {
 
-    @Getter
-    private final BufferedImage gradientImage;
     @Getter
     private final GradientColor gradientColor;
 
-    @Getter
-    private final int width;
-    @Getter
-    private final int height;
-
     /**
      * Creates a new hue gradient with the provided width and height.
      * The width and height do not affect the saturation/value values displayed, only the size of the gradient.
@@ -35,40 +27,55 @@ public class SvGradient implements PropertyChangeListener {
      * @param gradientColor The color whose hue value will be used to determine how the gradient should be drawn.
      */
     public SvGradient(int width, int height, GradientColor gradientColor) {
-        this.width = width;
-        this.height = height;
-        gradientImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        this.gradientColor = gradientColor;
-        recalculateImage();
+        this(width, height, gradientColor, TiledRenderer.getDefault());
     }
 
     /**
-     * Recalculates the gradient image based on the current hue value of the gradient color.
+     * Creates a new hue gradient with the provided width and height that is rendered by the provided renderer.
+     *
+     * @param width         The width the gradient should have.
+     * @param height        The height the gradient should have.
+     * @param gradientColor The color whose hue value will be used to determine how the gradient should be drawn.
+     * @param renderer      The renderer used to fill the gradient image.
      */
-    private void recalculateImage() {
-        int[] gradientRaster = ((DataBufferInt) gradientImage.getRaster().getDataBuffer()).getData();
-        float gradientSize = (float) height - 1;
+    public SvGradient(int width, int height, GradientColor gradientColor, TiledRenderer renderer) {
+        this(width, height, gradientColor, renderer, false);
+    }
 
-        float hue = gradientColor.getHue();
-        for (int y = 0; y < height; y++) {
-            float value = 1 - y / gradientSize;
-            for (int x = 0; x < width; x++) {
-                gradientRaster[y * width + x] = Color.getHSBColor(hue, x / gradientSize, value).getRGB();
-            }
-        }
+    /**
+     * Creates a new hue gradient with the provided width and height that is rendered by the provided renderer, and
+     * optionally starts out suspended. A suspended gradient only allocates a low-resolution preview until it is
+     * resumed, see {@link #suspend()}.
+     *
+     * @param width         The width the gradient should have.
+     * @param height        The height the gradient should have.
+     * @param gradientColor The color whose hue value will be used to determine how the gradient should be drawn.
+     * @param renderer      The renderer used to fill the gradient image.
+     * @param suspended     True to start out suspended.
+     */
+    public SvGradient(int width, int height, GradientColor gradientColor, TiledRenderer renderer, boolean suspended) {
+        super(width, height, gradientColor.getHue(), renderer, new SvRenderKernel(width, height),
+                new SvRenderKernel(MIN_SIZE, MIN_SIZE), suspended);
+        this.gradientColor = gradientColor;
     }
 
+    @Override
+    protected float getParameter() {
+        return gradientColor.getHue();
+    }
 
     /**
-     * Will recalculate the gradient anytime the hue of the gradient color updates.
+     * Requests a new gradient anytime the hue of the gradient color updates.
      *
-     * @param evt Property change event.
+     * @param changedComponents The bitmask of the changed components.
+     * @param hue               The new hue.
+     * @param saturation        The new saturation.
+     * @param brightness        The new brightness.
      */
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
-        if (evt.getPropertyName().equals(GradientColor.HUE_CHANGED)) {
-            gradientColor.setHue((float) evt.getNewValue());
-            recalculateImage();
+    public void colorChanged(int changedComponents, float hue, float saturation, float brightness) {
+        if ((changedComponents & GradientColor.HUE_COMPONENT) != 0) {
+            requestParameter(hue);
         }
     }
 }
@@ -0,0 +1,153 @@
+package bugelniels.colordialog.model.names;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable list of named colors. Catalogs are read from text with one {@code name,#rrggbb} pair per line; blank
+ * lines and lines starting with {@code #} are ignored, and names may contain commas. The built-in catalog contains the
+ * named colors of CSS.
+ *
+ * @author BugelNiels
+ */
+public final class ColorNameCatalog {
+
+    private static final String BUILT_IN_RESOURCE = "css-colors.csv";
+    private static final int OPAQUE = 0xff000000;
+    private static final int HEX_DIGITS = 6;
+    private static final int HEX_RADIX = 16;
+    private static final char HASH = '#';
+
+    private final String[] names;
+    private final int[] colors;
+
+    /**
+     * Creates a new catalog. The arrays are copied.
+     *
+     * @param names  The names of the colors.
+     * @param colors The packed RGB values of the colors, in the same order as the names. The alpha is ignored.
+     */
+    public ColorNameCatalog(String[] names, int[] colors) {
+        if (names.length != colors.length) {
+            throw new IllegalArgumentException(names.length + " names were provided for " + colors.length + " colors");
+        }
+        this.names = names.clone();
+        this.colors = new int[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            this.colors[i] = OPAQUE | colors[i];
+        }
+    }
+
+    /**
+     * Reads the built-in catalog, which contains the named colors of CSS.
+     *
+     * @return The built-in catalog.
+     */
+    public static ColorNameCatalog builtIn() {
+        try (InputStream stream = ColorNameCatalog.class.getResourceAsStream(BUILT_IN_RESOURCE)) {
+            if (stream == null) {
+                throw new IllegalStateException("The built-in color names are missing: " + BUILT_IN_RESOURCE);
+            }
+            return read(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a catalog from a UTF-8 encoded file.
+     *
+     * @param file The file to read.
+     * @return The catalog.
+     * @throws IOException If the file could not be read.
+     */
+    public static ColorNameCatalog read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Reads a catalog from the provided reader. The reader is not closed.
+     *
+     * @param reader The reader to read the catalog from.
+     * @return The catalog.
+     * @throws IOException              If the reader could not be read.
+     * @throws IllegalArgumentException If a line is not a valid {@code name,#rrggbb} pair.
+     */
+    public static ColorNameCatalog read(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        List<String> names = new ArrayList<>();
+        List<Integer> colors = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.charAt(0) == HASH) {
+                continue;
+            }
+            int separator = trimmed.lastIndexOf(',');
+            int color = separator <= 0 ? -1 : parseColor(trimmed.substring(separator + 1).strip());
+            if (color < 0) {
+                throw new IllegalArgumentException("Line " + lineNumber + " is not a name,#rrggbb pair: " + line);
+            }
+            names.add(trimmed.substring(0, separator).strip());
+            colors.add(color);
+        }
+        int[] packed = colors.stream().mapToInt(Integer::intValue).toArray();
+        return new ColorNameCatalog(names.toArray(new String[0]), packed);
+    }
+
+    /**
+     * Parses a color written as six hexadecimal digits, optionally preceded by {@code #}.
+     *
+     * @param hex The text to parse.
+     * @return The packed RGB value without alpha, or -1 if the text is not a valid color.
+     */
+    private static int parseColor(String hex) {
+        String digits = !hex.isEmpty() && hex.charAt(0) == HASH ? hex.substring(1) : hex;
+        if (digits.length() != HEX_DIGITS || !digits.chars().allMatch(c -> Character.digit(c, HEX_RADIX) >= 0)) {
+            return -1;
+        }
+        return Integer.parseInt(digits, HEX_RADIX);
+    }
+
+    /**
+     * Retrieves the number of colors in this catalog.
+     *
+     * @return The number of colors.
+     */
+    public int size() {
+        return colors.length;
+    }
+
+    /**
+     * Retrieves the name of a color.
+     *
+     * @param index The index of the color.
+     * @return The name of the color.
+     */
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Retrieves the packed RGB value of a color.
+     *
+     * @param index The index of the color.
+     * @return The packed RGB value, with an alpha of 255.
+     */
+    public int getColor(int index) {
+        return colors[index];
+    }
+}
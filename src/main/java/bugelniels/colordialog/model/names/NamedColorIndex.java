@@ -0,0 +1,211 @@
+package bugelniels.colordialog.model.names;
+
+import bugelniels.colordialog.rendering.PerceptualConversions;
+import lombok.Getter;
+
+/**
+ * Spatial index that finds the named color closest to any color. The colors of a catalog are converted to OKLab once
+ * and stored in a balanced 3-dimensional k-d tree, so a lookup visits only a logarithmic number of colors on average
+ * instead of every color in the catalog. Distances are Euclidean distances in OKLab, which follow perceived color
+ * differences much more closely than distances in RGB. The tree is laid out implicitly in flat arrays: the node of a
+ * range of the arrays is the middle element of that range. An index is immutable, so a single index can be shared by
+ * any number of dialogs and threads.
+ *
+ * @author BugelNiels
+ */
+public final class NamedColorIndex {
+
+    private static final int DIMENSIONS = 3;
+    private static volatile NamedColorIndex defaultIndex;
+
+    @Getter
+    private final ColorNameCatalog catalog;
+    private final float[] points;
+    private final int[] entries;
+
+    /**
+     * Builds an index over all colors of the provided catalog.
+     *
+     * @param catalog The catalog to index.
+     */
+    public NamedColorIndex(ColorNameCatalog catalog) {
+        this.catalog = catalog;
+        int size = catalog.size();
+        float[] coordinates = new float[size * DIMENSIONS];
+        float[] oklab = new float[DIMENSIONS];
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            PerceptualConversions.rgbToOklab(catalog.getColor(i), oklab);
+            System.arraycopy(oklab, 0, coordinates, i * DIMENSIONS, DIMENSIONS);
+            order[i] = i;
+        }
+        build(coordinates, order, 0, size, 0);
+        points = new float[size * DIMENSIONS];
+        entries = order;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(coordinates, order[i] * DIMENSIONS, points, i * DIMENSIONS, DIMENSIONS);
+        }
+    }
+
+    /**
+     * Retrieves the index that dialogs use, which is built from the built-in catalog unless it was replaced.
+     *
+     * @return The default index.
+     */
+    public static NamedColorIndex getDefault() {
+        NamedColorIndex index = defaultIndex;
+        if (index == null) {
+            synchronized (NamedColorIndex.class) {
+                if (defaultIndex == null) {
+                    defaultIndex = new NamedColorIndex(ColorNameCatalog.builtIn());
+                }
+                index = defaultIndex;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Replaces the index that dialogs use, for example by an index over a custom catalog. Open dialogs use the new
+     * index from their next color change onwards.
+     *
+     * @param index The new default index.
+     */
+    public static void setDefault(NamedColorIndex index) {
+        defaultIndex = index;
+    }
+
+    /**
+     * Arranges the range [start, end) of the order so that its middle element is the median along the axis of the
+     * provided depth, with smaller elements before it and larger elements after it, and recurses into both halves.
+     *
+     * @param coordinates The OKLab coordinates of the colors, indexed by catalog index.
+     * @param order       The catalog indices, which are rearranged into tree order.
+     * @param start       The first position of the range (inclusive).
+     * @param end         The last position of the range (exclusive).
+     * @param depth       The depth of the node of the range in the tree.
+     */
+    private static void build(float[] coordinates, int[] order, int start, int end, int depth) {
+        if (end - start <= 1) {
+            return;
+        }
+        int middle = (start + end) >>> 1;
+        select(coordinates, order, start, end - 1, middle, depth % DIMENSIONS);
+        build(coordinates, order, start, middle, depth + 1);
+        build(coordinates, order, middle + 1, end, depth + 1);
+    }
+
+    /**
+     * Moves the element of rank k within [left, right] along the provided axis to position k, with smaller elements
+     * before it and larger elements after it.
+     *
+     * @param coordinates The OKLab coordinates of the colors, indexed by catalog index.
+     * @param order       The catalog indices, which are rearranged.
+     * @param left        The first position of the range (inclusive).
+     * @param right       The last position of the range (inclusive).
+     * @param k           The position of the element to select.
+     * @param axis        The axis to compare along.
+     */
+    private static void select(float[] coordinates, int[] order, int left, int right, int k, int axis) {
+        int low = left;
+        int high = right;
+        while (low < high) {
+            float pivot = coordinates[order[(low + high) >>> 1] * DIMENSIONS + axis];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (coordinates[order[i] * DIMENSIONS + axis] < pivot) {
+                    i++;
+                }
+                while (coordinates[order[j] * DIMENSIONS + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Finds the color closest to the provided packed RGB value.
+     *
+     * @param rgb The packed RGB value. The alpha is ignored.
+     * @return The index in the catalog of the closest color, or -1 if the catalog is empty.
+     */
+    public int nearest(int rgb) {
+        float[] oklab = new float[DIMENSIONS];
+        PerceptualConversions.rgbToOklab(rgb, oklab);
+        return nearest(oklab[0], oklab[1], oklab[2]);
+    }
+
+    /**
+     * Finds the color closest to the provided OKLab color.
+     *
+     * @param lightness The OKLab lightness.
+     * @param a         The OKLab a component.
+     * @param b         The OKLab b component.
+     * @return The index in the catalog of the closest color, or -1 if the catalog is empty.
+     */
+    public int nearest(float lightness, float a, float b) {
+        Search search = new Search(lightness, a, b);
+        search(search, 0, entries.length, 0);
+        return search.bestEntry < 0 ? -1 : entries[search.bestEntry];
+    }
+
+    private void search(Search search, int start, int end, int depth) {
+        if (start >= end) {
+            return;
+        }
+        int middle = (start + end) >>> 1;
+        int offset = middle * DIMENSIONS;
+        float dl = search.lightness - points[offset];
+        float da = search.a - points[offset + 1];
+        float db = search.b - points[offset + 2];
+        float distance = dl * dl + da * da + db * db;
+        if (distance < search.bestDistance) {
+            search.bestDistance = distance;
+            search.bestEntry = middle;
+        }
+        int axis = depth % DIMENSIONS;
+        float split = axis == 0 ? dl : axis == 1 ? da : db;
+        if (split < 0) {
+            search(search, start, middle, depth + 1);
+            if (split * split < search.bestDistance) {
+                search(search, middle + 1, end, depth + 1);
+            }
+        } else {
+            search(search, middle + 1, end, depth + 1);
+            if (split * split < search.bestDistance) {
+                search(search, start, middle, depth + 1);
+            }
+        }
+    }
+
+    /**
+     * State of a single nearest-neighbour query.
+     */
+    private static final class Search {
+
+        private final float lightness;
+        private final float a;
+        private final float b;
+        private float bestDistance = Float.POSITIVE_INFINITY;
+        private int bestEntry = -1;
+
+        private Search(float lightness, float a, float b) {
+            this.lightness = lightness;
+            this.a = a;
+            this.b = b;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package bugelniels.colordialog.rendering;
+
+import lombok.Getter;
+
+/**
+ * Kernel that composites a translucent color over a checkerboard, as shown by the alpha slider and the color swatch.
+ * The color is set through {@link #setColor(int)} and the parameter of the kernel is its alpha. A ramp fades the color
+ * from that alpha in the top row to fully transparent in the bottom row, which is the same mapping the alpha cross-hair
+ * uses; without a ramp, every row has the same alpha.
+ * <p>
+ * The checkerboard is pre-rendered once per cell size as a tile that is shared between all kernels. Compositing uses
+ * the premultiplied source-over operator in integer arithmetic: the premultiplied color of a row is computed once,
+ * blended with a single row of the tile, after which the blended row is repeated across the width of the raster.
+ * Rendering a row therefore costs one blend per tile column, regardless of the width.
+ *
+ * @author BugelNiels
+ */
+public final class AlphaRenderKernel implements RasterKernel {
+
+    /**
+     * Size in pixels of a single square of the checkerboard.
+     */
+    public static final int DEFAULT_CELL_SIZE = 5;
+
+    private static final int LIGHT_CELL = 0xFFFFFFFF;
+    private static final int DARK_CELL = 0xFFCCCCCC;
+    private static final int MAX_CHANNEL = 255;
+    private static final int SHARED_TILE_LIMIT = 4;
+    private static final AssetCache<int[]> TILES = new AssetCache<>(SHARED_TILE_LIMIT);
+
+    @Getter
+    private final int width;
+    @Getter
+    private final int height;
+    private final boolean ramp;
+    private final int tileSize;
+    private final int[] tile;
+    private int rgb;
+    private float alpha;
+
+    /**
+     * Creates a new kernel with a checkerboard of the default cell size.
+     *
+     * @param width  The width of the raster.
+     * @param height The height of the raster.
+     * @param ramp   True to fade the color out towards the bottom row, false to use the same alpha for every row.
+     */
+    public AlphaRenderKernel(int width, int height, boolean ramp) {
+        this(width, height, ramp, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates a new kernel.
+     *
+     * @param width    The width of the raster.
+     * @param height   The height of the raster.
+     * @param ramp     True to fade the color out towards the bottom row, false to use the same alpha for every row.
+     * @param cellSize The size in pixels of a single square of the checkerboard.
+     */
+    public AlphaRenderKernel(int width, int height, boolean ramp, int cellSize) {
+        if (cellSize < 1) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.width = width;
+        this.height = height;
+        this.ramp = ramp;
+        this.tileSize = 2 * cellSize;
+        this.tile = TILES.get(cellSize, key -> createTile(cellSize));
+    }
+
+    /**
+     * Creates a tile of the checkerboard, consisting of two light and two dark squares.
+     *
+     * @param cellSize The size of a single square.
+     * @return The packed RGB values of the tile, row by row.
+     */
+    private static int[] createTile(int cellSize) {
+        int size = 2 * cellSize;
+        int[] tile = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                tile[y * size + x] = (x / cellSize + y / cellSize) % 2 == 0 ? LIGHT_CELL : DARK_CELL;
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * Sets the color that is composited over the checkerboard. Must be called before {@link #prepare(float)}.
+     *
+     * @param newRgb The packed RGB value of the color. Its alpha bits are ignored.
+     */
+    public void setColor(int newRgb) {
+        this.rgb = newRgb;
+    }
+
+    /**
+     * Prepares the kernel for the provided alpha of the color.
+     *
+     * @param parameter The alpha of the color, between 0 and 1. For a ramp, this is the alpha of the top row.
+     */
+    @Override
+    public void prepare(float parameter) {
+        this.alpha = parameter;
+    }
+
+    /**
+     * Retrieves the alpha of the provided row.
+     *
+     * @param y The row.
+     * @return The alpha, between 0 and 255.
+     */
+    private int rowAlpha(int y) {
+        float rowAlpha = ramp ? alpha * (1 - y / (float) Math.max(1, height - 1)) : alpha;
+        return Math.round(rowAlpha * MAX_CHANNEL);
+    }
+
+    @Override
+    public void renderRow(int y, int[] target, int offset) {
+        int rowAlpha = rowAlpha(y);
+        int inverse = MAX_CHANNEL - rowAlpha;
+        int red = ((rgb >> 16) & 0xFF) * rowAlpha;
+        int green = ((rgb >> 8) & 0xFF) * rowAlpha;
+        int blue = (rgb & 0xFF) * rowAlpha;
+        int tileRow = (y % tileSize) * tileSize;
+        int blended = Math.min(tileSize, width);
+        for (int x = 0; x < blended; x++) {
+            target[offset + x] = over(red, green, blue, inverse, tile[tileRow + x]);
+        }
+        for (int x = blended; x < width; x += blended) {
+            System.arraycopy(target, offset, target, offset + x, Math.min(blended, width - x));
+        }
+    }
+
+    /**
+     * Composites a premultiplied color over an opaque background.
+     *
+     * @param red        The red channel of the color, premultiplied by its alpha and scaled by 255.
+     * @param green      The green channel of the color, premultiplied by its alpha and scaled by 255.
+     * @param blue       The blue channel of the color, premultiplied by its alpha and scaled by 255.
+     * @param inverse    255 minus the alpha of the color.
+     * @param background The packed RGB value of the background.
+     * @return The packed RGB value of the composited color.
+     */
+    private static int over(int red, int green, int blue, int inverse, int background) {
+        int r = (red + ((background >> 16) & 0xFF) * inverse + MAX_CHANNEL / 2) / MAX_CHANNEL;
+        int g = (green + ((background >> 8) & 0xFF) * inverse + MAX_CHANNEL / 2) / MAX_CHANNEL;
+        int b = (blue + (background & 0xFF) * inverse + MAX_CHANNEL / 2) / MAX_CHANNEL;
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+}
@@ -0,0 +1,59 @@
+package bugelniels.colordialog.rendering;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Small, bounded cache of immutable assets that are shared between all instances needing them, such as lookup
+ * tables or pre-rendered images. Assets are keyed by a long, which typically packs their size. When the cache is full,
+ * the least recently used asset is dropped. Callers must never modify the assets they receive.
+ *
+ * @author BugelNiels
+ * @param <V> The type of the cached assets.
+ */
+public final class AssetCache<V> {
+
+    private final Map<Long, V> assets;
+
+    /**
+     * Creates a new, empty cache.
+     *
+     * @param capacity The maximum number of assets kept in the cache.
+     */
+    public AssetCache(int capacity) {
+        assets = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Packs a width and a height into a single key.
+     *
+     * @param width  The width of the asset.
+     * @param height The height of the asset.
+     * @return The key belonging to the size.
+     */
+    public static long sizeKey(int width, int height) {
+        return ((long) width << Integer.SIZE) | (height & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Retrieves the asset belonging to the provided key, creating it if it is not cached.
+     *
+     * @param key     The key of the asset.
+     * @param factory Creates the asset if it is not cached. Called while holding the lock of this cache.
+     * @return The shared asset.
+     */
+    public synchronized V get(long key, LongFunction<V> factory) {
+        V asset = assets.get(key);
+        if (asset == null) {
+            asset = factory.apply(key);
+            assets.put(key, asset);
+        }
+        return asset;
+    }
+}
@@ -0,0 +1,53 @@
+package bugelniels.colordialog.rendering;
+
+/**
+ * Conversions between color representations that work on primitives only, without any dependency on AWT.
+ *
+ * @author BugelNiels
+ */
+public final class ColorConversions {
+
+    private static final int OPAQUE = 0xff000000;
+
+    private ColorConversions() {
+    }
+
+    /**
+     * Converts a color in the HSB model to a packed RGB value. The result is identical to
+     * {@link java.awt.Color#HSBtoRGB(float, float, float)}.
+     *
+     * @param hue        The hue of the color. Only the fractional part is used.
+     * @param saturation The saturation of the color, between 0 and 1.
+     * @param brightness The brightness of the color, between 0 and 1.
+     * @return The packed RGB value, with an alpha of 255.
+     */
+    public static int hsbToRgb(float hue, float saturation, float brightness) {
+        if (saturation == 0) {
+            int gray = channel(brightness);
+            return OPAQUE | (gray << 16) | (gray << 8) | gray;
+        }
+        float h = (hue - (float) Math.floor(hue)) * 6.0f;
+        float f = h - (float) Math.floor(h);
+        int v = channel(brightness);
+        int p = channel(brightness * (1.0f - saturation));
+        int q = channel(brightness * (1.0f - saturation * f));
+        int t = channel(brightness * (1.0f - (saturation * (1.0f - f))));
+        return switch ((int) h) {
+            case 0 -> pack(v, t, p);
+            case 1 -> pack(q, v, p);
+            case 2 -> pack(p, v, t);
+            case 3 -> pack(p, q, v);
+            case 4 -> pack(t, p, v);
+            case 5 -> pack(v, p, q);
+            default -> OPAQUE;
+        };
+    }
+
+    private static int pack(int red, int green, int blue) {
+        return OPAQUE | (red << 16) | (green << 8) | blue;
+    }
+
+    private static int channel(float component) {
+        return (int) (component * 255.0f + 0.5f);
+    }
+}
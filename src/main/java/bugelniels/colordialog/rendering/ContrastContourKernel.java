@@ -0,0 +1,245 @@
+package bugelniels.colordialog.rendering;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Kernel for the WCAG contrast overlay of the saturation-value gradient. It renders the contour lines where the
+ * contrast ratio between the gradient and a reference color crosses 3:1, 4.5:1 and 7:1 into a packed ARGB raster
+ * whose other pixels are fully transparent. Lines are black where they run through light parts of the gradient and
+ * white where they run through dark parts; 7:1 lines are solid, 4.5:1 lines are dashed and 3:1 lines are dotted.
+ * Every ratio has a contour on the side lighter than the reference and one on the side darker than it, either of which
+ * may fall outside the gradient.
+ * <p>
+ * The pixels are the same as those of {@link SvRenderKernel}, and their relative luminance is computed through the
+ * sRGB decode table of {@link PerceptualConversions}. Every channel of a pixel decreases with the saturation of its
+ * column, so the luminance never increases along a row and every contour crosses a row at most once. Instead of
+ * classifying every pixel, preparing the kernel binary searches the column where each contour crosses each row, which
+ * computes the luminance of about {@code 6 * log2(width)} pixels per row. Rendering a row then only draws the pixels
+ * between the crossings of that row and the next, which gives the same lines as comparing the contrast of every pixel
+ * with that of its right and bottom neighbours. The work per hue is further reduced by:
+ * <ul>
+ *     <li>computing the value channel of every row and the saturation of every column once per size;</li>
+ *     <li>computing the hue-dependent term of every column once per hue;</li>
+ *     <li>not searching again when the kernel is prepared again for the same hue and reference.</li>
+ * </ul>
+ *
+ * @author BugelNiels
+ */
+public final class ContrastContourKernel implements ResizableKernel {
+
+    private static final float[] RATIOS = {3.0f, 4.5f, 7.0f};
+    private static final int LINES = 2 * RATIOS.length;
+    private static final int[][] SECTOR_SHIFTS = {
+        {16, 8, 0}, {8, 16, 0}, {8, 0, 16}, {0, 8, 16}, {0, 16, 8}, {16, 0, 8}
+    };
+    private static final float LINE_SPLIT_LUMINANCE = (float) Math.sqrt(
+            (1 + PerceptualConversions.CONTRAST_FLARE) * PerceptualConversions.CONTRAST_FLARE)
+            - PerceptualConversions.CONTRAST_FLARE;
+    private static final int TRANSPARENT = 0;
+    private static final int DARK_LINE = 0xff000000;
+    private static final int LIGHT_LINE = 0xffffffff;
+
+    @Getter
+    private int width;
+    @Getter
+    private int height;
+
+    private float[] saturations;
+    private float[] values;
+    private int[] valueChannels;
+    private float[] midTerms;
+    private int[] crossings;
+
+    private final float[] thresholds = new float[LINES];
+    private final int[] lineColors = new int[LINES];
+    private boolean validSector;
+    private int valueShift;
+    private int midShift;
+    private int lowShift;
+    private boolean prepared;
+    private float preparedHue;
+
+    /**
+     * Creates a new kernel for a gradient of the provided size, with a white reference.
+     *
+     * @param width  The width of the gradient. Must be at least 2.
+     * @param height The height of the gradient. Must be at least 2.
+     */
+    public ContrastContourKernel(int width, int height) {
+        setReference(LIGHT_LINE);
+        resize(width, height);
+    }
+
+    /**
+     * Changes the size of the gradient this kernel renders. The hue-independent terms are computed again.
+     *
+     * @param newWidth  The new width of the gradient. Must be at least 2.
+     * @param newHeight The new height of the gradient. Must be at least 2.
+     */
+    @Override
+    public void resize(int newWidth, int newHeight) {
+        if (newWidth == width && newHeight == height && crossings != null) {
+            return;
+        }
+        width = newWidth;
+        height = newHeight;
+        saturations = new float[width];
+        midTerms = new float[width];
+        for (int x = 0; x < width; x++) {
+            saturations[x] = x / ((float) width - 1);
+        }
+        values = new float[height];
+        valueChannels = new int[height];
+        for (int y = 0; y < height; y++) {
+            values[y] = 1 - y / ((float) height - 1);
+            valueChannels[y] = channel(values[y]);
+        }
+        crossings = new int[height * LINES];
+        prepared = false;
+    }
+
+    /**
+     * Sets the color the contrast ratios are computed against. The crossings are searched again when the kernel is
+     * prepared next.
+     *
+     * @param rgb The packed RGB value of the reference color. The alpha is ignored.
+     */
+    public void setReference(int rgb) {
+        float reference = PerceptualConversions.relativeLuminance(rgb) + PerceptualConversions.CONTRAST_FLARE;
+        for (int i = 0; i < RATIOS.length; i++) {
+            thresholds[2 * i] = reference * RATIOS[i] - PerceptualConversions.CONTRAST_FLARE;
+            thresholds[2 * i + 1] = reference / RATIOS[i] - PerceptualConversions.CONTRAST_FLARE;
+        }
+        for (int line = 0; line < LINES; line++) {
+            lineColors[line] = thresholds[line] > LINE_SPLIT_LUMINANCE ? DARK_LINE : LIGHT_LINE;
+        }
+        prepared = false;
+    }
+
+    /**
+     * Finds where every contour crosses every row of the gradient belonging to the provided hue, unless this was
+     * already done for this hue and the current reference.
+     *
+     * @param hue The hue of the gradient.
+     */
+    @Override
+    public void prepare(float hue) {
+        if (prepared && Float.compare(hue, preparedHue) == 0) {
+            return;
+        }
+        float h = (hue - (float) Math.floor(hue)) * 6.0f;
+        float f = h - (float) Math.floor(h);
+        int sector = (int) h;
+        for (int x = 0; x < width; x++) {
+            midTerms[x] = sector % 2 == 0 ? 1.0f - (saturations[x] * (1.0f - f)) : 1.0f - saturations[x] * f;
+        }
+        validSector = sector < SECTOR_SHIFTS.length;
+        if (validSector) {
+            valueShift = SECTOR_SHIFTS[sector][0];
+            midShift = SECTOR_SHIFTS[sector][1];
+            lowShift = SECTOR_SHIFTS[sector][2];
+        }
+        for (int y = 0; y < height; y++) {
+            for (int line = 0; line < LINES; line++) {
+                crossings[y * LINES + line] = findCrossing(y, line);
+            }
+        }
+        prepared = true;
+        preparedHue = hue;
+    }
+
+    /**
+     * Finds the first column of a row that lies beyond a contour as seen from the reference. For a contour lighter
+     * than the reference this is the first column darker than the contour; for a darker contour it is the first column
+     * at least as dark as the contour.
+     *
+     * @param y    The row.
+     * @param line The contour: {@code 2 * ratio} for the lighter contour of a ratio and {@code 2 * ratio + 1} for the
+     *             darker one.
+     * @return The first column beyond the contour, or the width of the gradient if there is none.
+     */
+    private int findCrossing(int y, int line) {
+        float threshold = thresholds[line];
+        boolean lighter = line % 2 == 0;
+        int low = 0;
+        int high = width;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            float luminance = PerceptualConversions.relativeLuminance(pixel(middle, y));
+            if (lighter ? luminance < threshold : luminance <= threshold) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Computes a single pixel of the gradient, identical to the pixel {@link SvRenderKernel} renders. For a hue that,
+     * due to float rounding, falls just outside the last sector, the gradient is black except for the fully
+     * desaturated column, which is gray.
+     *
+     * @param x The column.
+     * @param y The row.
+     * @return The packed RGB value of the pixel.
+     */
+    private int pixel(int x, int y) {
+        int value = valueChannels[y];
+        if (!validSector) {
+            return x == 0 ? (value << 16) | (value << 8) | value : 0;
+        }
+        return (value << valueShift) | (channel(values[y] * midTerms[x]) << midShift)
+                | (channel(values[y] * (1.0f - saturations[x])) << lowShift);
+    }
+
+    /**
+     * Renders a row. A pixel lies on a contour if the contour crosses between it and its right neighbour, or between it
+     * and its bottom neighbour. Contours of higher ratios are drawn over those of lower ratios.
+     *
+     * @param y      The row to render.
+     * @param target The array to write the packed ARGB values into.
+     * @param offset The index in the target array of the first pixel of the row.
+     */
+    @Override
+    public void renderRow(int y, int[] target, int offset) {
+        Arrays.fill(target, offset, offset + width, TRANSPARENT);
+        int next = y < height - 1 ? y + 1 : y;
+        for (int line = 0; line < LINES; line++) {
+            int crossing = crossings[y * LINES + line];
+            int nextCrossing = crossings[next * LINES + line];
+            int start = Math.min(crossing, nextCrossing);
+            int end = Math.max(crossing, nextCrossing);
+            if (crossing > 0 && crossing < width) {
+                start = Math.min(start, crossing - 1);
+                end = Math.max(end, crossing);
+            }
+            drawLine(line, target, offset + start, end - start, start - y);
+        }
+    }
+
+    /**
+     * Draws a run of pixels of a contour, including the transparent gaps of its dash pattern, so that it fully
+     * replaces contours of lower ratios drawn at the same pixels.
+     *
+     * @param line     The contour.
+     * @param target   The array to write the packed ARGB values into.
+     * @param offset   The index in the target array of the first pixel of the run.
+     * @param length   The number of pixels in the run.
+     * @param position The position of the first pixel along the dash pattern.
+     */
+    private void drawLine(int line, int[] target, int offset, int length, int position) {
+        int ratio = line / 2 + 1;
+        boolean dashed = ratio < RATIOS.length;
+        for (int i = 0; i < length; i++) {
+            boolean gap = dashed && (((position + i) >> ratio) & 1) != 0;
+            target[offset + i] = gap ? TRANSPARENT : lineColors[line];
+        }
+    }
+
+    private static int channel(float component) {
+        return (int) (component * 255.0f + 0.5f);
+    }
+}
@@ -0,0 +1,144 @@
+package bugelniels.colordialog.rendering;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Renders color picker gradients into caller-supplied pixel targets, without any dependency on AWT or Swing.
+ * This makes it possible to render gradients of arbitrary sizes in bulk, for example on a server running with
+ * {@code java.awt.headless=true}. Every pixel is written as a packed ARGB int with an alpha of 255.
+ * Kernels hold per-size state and can be reused for any number of renders of the same size.
+ *
+ * @author BugelNiels
+ */
+public class GradientEngine {
+
+    private final TiledRenderer renderer;
+
+    /**
+     * Creates a new engine that renders arrays using the shared tiled renderer.
+     */
+    public GradientEngine() {
+        this(TiledRenderer.getDefault());
+    }
+
+    /**
+     * Creates a new engine.
+     *
+     * @param renderer The renderer used when rendering into contiguous arrays.
+     */
+    public GradientEngine(TiledRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Creates a kernel for a saturation-value gradient, whose parameter is the hue.
+     *
+     * @param width  The width of the gradient.
+     * @param height The height of the gradient.
+     * @return The kernel.
+     */
+    public RasterKernel svKernel(int width, int height) {
+        return new SvRenderKernel(width, height);
+    }
+
+    /**
+     * Creates a kernel for an OKLCH chroma-lightness plane, whose parameter is the OKLCH hue as a fraction of a full
+     * turn. Colors outside the sRGB gamut are hatched.
+     *
+     * @param width  The width of the plane.
+     * @param height The height of the plane.
+     * @return The kernel.
+     */
+    public RasterKernel oklchKernel(int width, int height) {
+        return new OklchRenderKernel(width, height);
+    }
+
+    /**
+     * Creates a kernel for a hue gradient, which does not have a parameter.
+     *
+     * @param width  The width of the gradient.
+     * @param height The height of the gradient.
+     * @return The kernel.
+     */
+    public RasterKernel hueKernel(int width, int height) {
+        return new HueRenderKernel(width, height);
+    }
+
+    /**
+     * Renders the kernel into a contiguous array, laid out row by row with a stride equal to the width of the kernel.
+     * Large rasters are rendered in parallel.
+     *
+     * @param kernel    The kernel to render.
+     * @param parameter The parameter of the gradient, such as the hue.
+     * @param target    The array to render into. Must hold at least width x height values.
+     */
+    public void render(RasterKernel kernel, float parameter, int[] target) {
+        checkCapacity(kernel, target.length);
+        renderer.render(kernel, target, parameter);
+    }
+
+    /**
+     * Renders the kernel into a region of an array, for example a region of a larger image.
+     *
+     * @param kernel    The kernel to render.
+     * @param parameter The parameter of the gradient, such as the hue.
+     * @param target    The array to render into.
+     * @param offset    The index in the target array of the top-left pixel.
+     * @param stride    The distance in the target array between the first pixels of two consecutive rows.
+     */
+    public void render(RasterKernel kernel, float parameter, int[] target, int offset, int stride) {
+        if (stride < kernel.getWidth()) {
+            throw new IllegalArgumentException("Stride " + stride + " is smaller than the width " + kernel.getWidth());
+        }
+        checkCapacity(kernel, target.length - offset - (long) (stride - kernel.getWidth()) * (kernel.getHeight() - 1));
+        kernel.prepare(parameter);
+        for (int y = 0; y < kernel.getHeight(); y++) {
+            kernel.renderRow(y, target, offset + y * stride);
+        }
+    }
+
+    /**
+     * Renders the kernel into an int buffer, starting at its current position. The position is not changed.
+     * The buffer may be direct or heap-backed.
+     *
+     * @param kernel    The kernel to render.
+     * @param parameter The parameter of the gradient, such as the hue.
+     * @param target    The buffer to render into. Must have at least width x height values remaining.
+     */
+    public void render(RasterKernel kernel, float parameter, IntBuffer target) {
+        checkCapacity(kernel, target.remaining());
+        if (target.hasArray() && !target.isReadOnly()) {
+            render(kernel, parameter, target.array(), target.arrayOffset() + target.position(), kernel.getWidth());
+            return;
+        }
+        int width = kernel.getWidth();
+        int[] row = new int[width];
+        int start = target.position();
+        kernel.prepare(parameter);
+        for (int y = 0; y < kernel.getHeight(); y++) {
+            kernel.renderRow(y, row, 0);
+            target.put(start + y * width, row, 0, width);
+        }
+    }
+
+    /**
+     * Renders the kernel into a byte buffer, such as an off-heap buffer, starting at its current position.
+     * Every pixel occupies 4 bytes and is written in the byte order of the buffer. The position is not changed.
+     *
+     * @param kernel    The kernel to render.
+     * @param parameter The parameter of the gradient, such as the hue.
+     * @param target    The buffer to render into. Must have at least 4 x width x height bytes remaining.
+     */
+    public void render(RasterKernel kernel, float parameter, ByteBuffer target) {
+        render(kernel, parameter, target.slice().order(target.order()).asIntBuffer());
+    }
+
+    private static void checkCapacity(RasterKernel kernel, long available) {
+        long required = (long) kernel.getWidth() * kernel.getHeight();
+        if (available < required) {
+            throw new IllegalArgumentException("Target holds " + available + " pixels, but " + required
+                    + " are required");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package bugelniels.colordialog.rendering;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Kernel for the 1-dimensional hue gradient. Every row contains a single, fully saturated and fully bright hue.
+ * Row y contains the hue {@code y / height}, which is the same mapping the hue cross-hair uses.
+ * The gradient does not depend on a parameter, so the colors of all rows are computed once per height and shared
+ * between all kernels of that height.
+ *
+ * @author BugelNiels
+ */
+public final class HueRenderKernel implements RasterKernel {
+
+    private static final int SHARED_TABLE_LIMIT = 16;
+    private static final AssetCache<int[]> ROW_COLOR_TABLES = new AssetCache<>(SHARED_TABLE_LIMIT);
+
+    @Getter
+    private final int width;
+    @Getter
+    private final int height;
+    private final int[] rowColors;
+
+    /**
+     * Creates a new kernel for a hue gradient of the provided size.
+     *
+     * @param width  The width of the gradient.
+     * @param height The height of the gradient.
+     */
+    public HueRenderKernel(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.rowColors = ROW_COLOR_TABLES.get(height, key -> createRowColors(height));
+    }
+
+    private static int[] createRowColors(int height) {
+        int[] rowColors = new int[height];
+        for (int y = 0; y < height; y++) {
+            rowColors[y] = ColorConversions.hsbToRgb(y / (float) height, 1.0f, 1.0f);
+        }
+        return rowColors;
+    }
+
+    /**
+     * Does nothing, as the hue gradient does not depend on a parameter.
+     *
+     * @param parameter Ignored.
+     */
+    @Override
+    public void prepare(float parameter) {
+    }
+
+    @Override
+    public void renderRow(int y, int[] target, int offset) {
+        Arrays.fill(target, offset, offset + width, rowColors[y]);
+    }
+}
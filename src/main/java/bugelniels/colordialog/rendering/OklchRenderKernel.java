@@ -0,0 +1,122 @@
+package bugelniels.colordialog.rendering;
+
+import lombok.Getter;
+
+/**
+ * Kernel for a 2-dimensional OKLCH plane at a fixed hue. The chroma of a column is its x coordinate divided by
+ * {@code width - 1}, multiplied by {@link #MAX_CHROMA}, and the lightness of a row is one minus its y coordinate
+ * divided by {@code height - 1}. The parameter of the kernel is the OKLCH hue, as a fraction of a full turn.
+ * For a fixed hue, the a and b components of a column only depend on its chroma, so their contribution to the cone
+ * responses is computed once per hue; every pixel then costs three cubes, a 3x3 matrix product and three lookups in
+ * the sRGB encoding table. Pixels outside the sRGB gamut are detected with the same linear values and drawn as a
+ * diagonal hatch, which is cheaper than searching for the closest color inside the gamut.
+ *
+ * @author BugelNiels
+ */
+public final class OklchRenderKernel implements ResizableKernel {
+
+    /**
+     * The chroma of the rightmost column. This is slightly more than the largest chroma of any sRGB color.
+     */
+    public static final float MAX_CHROMA = 0.37f;
+
+    private static final int OPAQUE = 0xff000000;
+    private static final int HATCH_LIGHT = 0xffb4b4b4;
+    private static final int HATCH_DARK = 0xff969696;
+    private static final int HATCH_SHIFT = 2;
+    private static final float GAMUT_TOLERANCE = 1e-4f;
+    private static final float LOWER_LIMIT = -GAMUT_TOLERANCE;
+    private static final float UPPER_LIMIT = 1.0f + GAMUT_TOLERANCE;
+
+    @Getter
+    private int width;
+    @Getter
+    private int height;
+
+    private float[] chromas;
+    private float[] lightnesses;
+    private float[] longTerms;
+    private float[] mediumTerms;
+    private float[] shortTerms;
+
+    /**
+     * Creates a new kernel for a plane of the provided size.
+     *
+     * @param width  The width of the plane. Must be at least 2.
+     * @param height The height of the plane. Must be at least 2.
+     */
+    public OklchRenderKernel(int width, int height) {
+        resize(width, height);
+    }
+
+    /**
+     * Changes the size of the plane this kernel renders. Only the terms belonging to a dimension that actually changed
+     * are re-allocated. The kernel must be prepared again before rendering.
+     *
+     * @param newWidth  The new width of the plane. Must be at least 2.
+     * @param newHeight The new height of the plane. Must be at least 2.
+     */
+    @Override
+    public void resize(int newWidth, int newHeight) {
+        if (newWidth != width || chromas == null) {
+            chromas = new float[newWidth];
+            longTerms = new float[newWidth];
+            mediumTerms = new float[newWidth];
+            shortTerms = new float[newWidth];
+            for (int x = 0; x < newWidth; x++) {
+                chromas[x] = MAX_CHROMA * x / (newWidth - 1);
+            }
+        }
+        if (newHeight != height || lightnesses == null) {
+            lightnesses = new float[newHeight];
+            for (int y = 0; y < newHeight; y++) {
+                lightnesses[y] = 1.0f - y / (float) (newHeight - 1);
+            }
+        }
+        width = newWidth;
+        height = newHeight;
+    }
+
+    /**
+     * Computes the contribution of the a and b components of every column to the long, medium and short cone
+     * responses.
+     *
+     * @param hue The OKLCH hue of the plane, as a fraction of a full turn.
+     */
+    @Override
+    public void prepare(float hue) {
+        double angle = hue * 2 * Math.PI;
+        float cos = (float) Math.cos(angle);
+        float sin = (float) Math.sin(angle);
+        for (int x = 0; x < width; x++) {
+            float a = chromas[x] * cos;
+            float b = chromas[x] * sin;
+            longTerms[x] = 0.3963377774f * a + 0.2158037573f * b;
+            mediumTerms[x] = -0.1055613458f * a - 0.0638541728f * b;
+            shortTerms[x] = -0.0894841775f * a - 1.2914855480f * b;
+        }
+    }
+
+    @Override
+    public void renderRow(int y, int[] target, int offset) {
+        float lightness = lightnesses[y];
+        for (int x = 0; x < width; x++) {
+            float l = lightness + longTerms[x];
+            float m = lightness + mediumTerms[x];
+            float s = lightness + shortTerms[x];
+            l = l * l * l;
+            m = m * m * m;
+            s = s * s * s;
+            float red = 4.0767416621f * l - 3.3077115913f * m + 0.2309699292f * s;
+            float green = -1.2684380046f * l + 2.6097574011f * m - 0.3413193965f * s;
+            float blue = -0.0041960863f * l - 0.7034186147f * m + 1.7076147010f * s;
+            if (red < LOWER_LIMIT || red > UPPER_LIMIT || green < LOWER_LIMIT || green > UPPER_LIMIT
+                    || blue < LOWER_LIMIT || blue > UPPER_LIMIT) {
+                target[offset + x] = ((x + y) >> HATCH_SHIFT & 1) == 0 ? HATCH_LIGHT : HATCH_DARK;
+            } else {
+                target[offset + x] = OPAQUE | (PerceptualConversions.toSrgb(red) << 16)
+                        | (PerceptualConversions.toSrgb(green) << 8) | PerceptualConversions.toSrgb(blue);
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package bugelniels.colordialog.rendering;
+
+/**
+ * Conversions between sRGB and the OKLab, OKLCH, CIELAB and HSL color spaces, and the WCAG relative luminance and
+ * contrast ratio, that work on primitives only, without any dependency on AWT. The sRGB transfer function is evaluated
+ * through precomputed tables: decoding an 8-bit channel is a single lookup in a table of 256 linear values, and
+ * encoding a linear value is a single lookup in a table of {@value #ENCODE_STEPS} + 1 8-bit values. Encoded channels
+ * are within one unit of the exactly rounded value.
+ * Components are written into caller-supplied arrays, so no objects are created per conversion.
+ *
+ * @author BugelNiels
+ */
+public final class PerceptualConversions {
+
+    /**
+     * The number of steps between 0 and 1 in the table used to encode linear values to sRGB channels.
+     */
+    public static final int ENCODE_STEPS = 1 << 14;
+    /**
+     * Weight of the linear red channel in the relative luminance.
+     */
+    public static final float LUMINANCE_RED = 0.2126f;
+    /**
+     * Weight of the linear green channel in the relative luminance.
+     */
+    public static final float LUMINANCE_GREEN = 0.7152f;
+    /**
+     * Weight of the linear blue channel in the relative luminance.
+     */
+    public static final float LUMINANCE_BLUE = 0.0722f;
+    /**
+     * The flare term WCAG adds to both luminances of a contrast ratio.
+     */
+    public static final float CONTRAST_FLARE = 0.05f;
+
+    private static final int OPAQUE = 0xff000000;
+    private static final int CHANNEL_MASK = 0xff;
+    private static final float CHANNEL_MAX = 255.0f;
+    private static final float[] DECODE_TABLE = createDecodeTable();
+    private static final byte[] ENCODE_TABLE = createEncodeTable();
+
+    private static final float LAB_EPSILON = 216.0f / 24389.0f;
+    private static final float LAB_KAPPA = 24389.0f / 27.0f;
+    private static final float WHITE_X = 0.95047f;
+    private static final float WHITE_Z = 1.08883f;
+    private static final double FULL_TURN = 2 * Math.PI;
+
+    private PerceptualConversions() {
+    }
+
+    private static float[] createDecodeTable() {
+        float[] table = new float[CHANNEL_MASK + 1];
+        for (int i = 0; i < table.length; i++) {
+            double encoded = i / (double) CHANNEL_MASK;
+            table[i] = (float) (encoded <= 0.04045 ? encoded / 12.92 : Math.pow((encoded + 0.055) / 1.055, 2.4));
+        }
+        return table;
+    }
+
+    private static byte[] createEncodeTable() {
+        byte[] table = new byte[ENCODE_STEPS + 1];
+        for (int i = 0; i < table.length; i++) {
+            double linear = i / (double) ENCODE_STEPS;
+            double encoded = linear <= 0.0031308 ? linear * 12.92 : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+            table[i] = (byte) Math.round(encoded * CHANNEL_MAX);
+        }
+        return table;
+    }
+
+    /**
+     * Decodes an 8-bit sRGB channel to its linear-light value.
+     *
+     * @param channel The channel, between 0 and 255.
+     * @return The linear value, between 0 and 1.
+     */
+    public static float toLinear(int channel) {
+        return DECODE_TABLE[channel & CHANNEL_MASK];
+    }
+
+    /**
+     * Encodes a linear-light value to an 8-bit sRGB channel. Values outside [0, 1] are clamped.
+     *
+     * @param linear The linear value.
+     * @return The channel, between 0 and 255.
+     */
+    public static int toSrgb(float linear) {
+        float clamped = Math.max(0.0f, Math.min(1.0f, linear));
+        return ENCODE_TABLE[(int) (clamped * ENCODE_STEPS + 0.5f)] & CHANNEL_MASK;
+    }
+
+    /**
+     * Packs three linear-light values into a packed RGB value, clamping each of them to [0, 1].
+     *
+     * @param red   The linear red value.
+     * @param green The linear green value.
+     * @param blue  The linear blue value.
+     * @return The packed RGB value, with an alpha of 255.
+     */
+    public static int packLinear(float red, float green, float blue) {
+        return OPAQUE | (toSrgb(red) << 16) | (toSrgb(green) << 8) | toSrgb(blue);
+    }
+
+    /**
+     * Computes the WCAG relative luminance of a packed RGB value. The WCAG definition decodes channels with a slightly
+     * different threshold than sRGB itself, but both give the same result for every 8-bit channel.
+     *
+     * @param rgb The packed RGB value. The alpha is ignored.
+     * @return The relative luminance, between 0 (black) and 1 (white).
+     */
+    public static float relativeLuminance(int rgb) {
+        return LUMINANCE_RED * toLinear(rgb >> 16) + LUMINANCE_GREEN * toLinear(rgb >> 8)
+                + LUMINANCE_BLUE * toLinear(rgb);
+    }
+
+    /**
+     * Computes the WCAG contrast ratio between two relative luminances. The order of the luminances does not matter.
+     *
+     * @param luminance      The relative luminance of the first color.
+     * @param otherLuminance The relative luminance of the second color.
+     * @return The contrast ratio, between 1 and 21.
+     */
+    public static float contrastRatio(float luminance, float otherLuminance) {
+        float lighter = Math.max(luminance, otherLuminance);
+        float darker = Math.min(luminance, otherLuminance);
+        return (lighter + CONTRAST_FLARE) / (darker + CONTRAST_FLARE);
+    }
+
+    /**
+     * Converts a packed RGB value to OKLab.
+     *
+     * @param rgb   The packed RGB value. The alpha is ignored.
+     * @param oklab The array to write the lightness (0 to 1), a and b components into. Must hold 3 values.
+     */
+    public static void rgbToOklab(int rgb, float[] oklab) {
+        float red = toLinear(rgb >> 16);
+        float green = toLinear(rgb >> 8);
+        float blue = toLinear(rgb);
+        float l = (float) Math.cbrt(0.4122214708f * red + 0.5363325363f * green + 0.0514459929f * blue);
+        float m = (float) Math.cbrt(0.2119034982f * red + 0.6806995451f * green + 0.1073969566f * blue);
+        float s = (float) Math.cbrt(0.0883024619f * red + 0.2817188376f * green + 0.6299787005f * blue);
+        oklab[0] = 0.2104542553f * l + 0.7936177850f * m - 0.0040720468f * s;
+        oklab[1] = 1.9779984951f * l - 2.4285922050f * m + 0.4505937099f * s;
+        oklab[2] = 0.0259040371f * l + 0.7827717662f * m - 0.8086757660f * s;
+    }
+
+    /**
+     * Converts an OKLab color to linear sRGB. The result may lie outside [0, 1] if the color is outside the sRGB gamut.
+     *
+     * @param lightness The lightness, between 0 and 1.
+     * @param a         The a component.
+     * @param b         The b component.
+     * @param linearRgb The array to write the linear red, green and blue values into. Must hold 3 values.
+     */
+    public static void oklabToLinear(float lightness, float a, float b, float[] linearRgb) {
+        float l = lightness + 0.3963377774f * a + 0.2158037573f * b;
+        float m = lightness - 0.1055613458f * a - 0.0638541728f * b;
+        float s = lightness - 0.0894841775f * a - 1.2914855480f * b;
+        l = l * l * l;
+        m = m * m * m;
+        s = s * s * s;
+        linearRgb[0] = 4.0767416621f * l - 3.3077115913f * m + 0.2309699292f * s;
+        linearRgb[1] = -1.2684380046f * l + 2.6097574011f * m - 0.3413193965f * s;
+        linearRgb[2] = -0.0041960863f * l - 0.7034186147f * m + 1.7076147010f * s;
+    }
+
+    /**
+     * Converts a packed RGB value to OKLCH, the polar form of OKLab. The hue is expressed as a fraction of a full turn,
+     * like the hue of the HSB model; it is 0 for colors without chroma.
+     *
+     * @param rgb   The packed RGB value. The alpha is ignored.
+     * @param oklch The array to write the lightness (0 to 1), chroma and hue (0 to 1) into. Must hold 3 values.
+     */
+    public static void rgbToOklch(int rgb, float[] oklch) {
+        rgbToOklab(rgb, oklch);
+        float a = oklch[1];
+        float b = oklch[2];
+        double turns = Math.atan2(b, a) / FULL_TURN;
+        oklch[1] = (float) Math.sqrt(a * a + b * b);
+        oklch[2] = (float) (turns < 0 ? turns + 1 : turns);
+    }
+
+    /**
+     * Converts an OKLCH color to a packed RGB value. Colors outside the sRGB gamut are clipped per channel.
+     *
+     * @param lightness The lightness, between 0 and 1.
+     * @param chroma    The chroma.
+     * @param hue       The hue, as a fraction of a full turn.
+     * @param scratch   An array of at least 3 values used to hold intermediate results.
+     * @return The packed RGB value, with an alpha of 255.
+     */
+    public static int oklchToRgb(float lightness, float chroma, float hue, float[] scratch) {
+        double angle = hue * FULL_TURN;
+        oklabToLinear(lightness, (float) (chroma * Math.cos(angle)), (float) (chroma * Math.sin(angle)), scratch);
+        return packLinear(scratch[0], scratch[1], scratch[2]);
+    }
+
+    /**
+     * Converts a packed RGB value to CIELAB, relative to the D65 white point.
+     *
+     * @param rgb The packed RGB value. The alpha is ignored.
+     * @param lab The array to write the lightness (0 to 100), a* and b* components into. Must hold 3 values.
+     */
+    public static void rgbToLab(int rgb, float[] lab) {
+        float red = toLinear(rgb >> 16);
+        float green = toLinear(rgb >> 8);
+        float blue = toLinear(rgb);
+        float x = labCurve((0.4124564f * red + 0.3575761f * green + 0.1804375f * blue) / WHITE_X);
+        float y = labCurve(0.2126729f * red + 0.7151522f * green + 0.0721750f * blue);
+        float z = labCurve((0.0193339f * red + 0.1191920f * green + 0.9503041f * blue) / WHITE_Z);
+        lab[0] = 116.0f * y - 16.0f;
+        lab[1] = 500.0f * (x - y);
+        lab[2] = 200.0f * (y - z);
+    }
+
+    private static float labCurve(float t) {
+        return t > LAB_EPSILON ? (float) Math.cbrt(t) : (LAB_KAPPA * t + 16.0f) / 116.0f;
+    }
+
+    /**
+     * Converts a packed RGB value to HSL. The hue matches the hue of the HSB model.
+     *
+     * @param rgb The packed RGB value. The alpha is ignored.
+     * @param hsl The array to write the hue, saturation and lightness into, all between 0 and 1. Must hold 3 values.
+     */
+    public static void rgbToHsl(int rgb, float[] hsl) {
+        int red = (rgb >> 16) & CHANNEL_MASK;
+        int green = (rgb >> 8) & CHANNEL_MASK;
+        int blue = rgb & CHANNEL_MASK;
+        int max = Math.max(red, Math.max(green, blue));
+        int min = Math.min(red, Math.min(green, blue));
+        float range = (max - min) / CHANNEL_MAX;
+        float lightness = (max + min) / (2 * CHANNEL_MAX);
+        hsl[0] = max == min ? 0.0f : hue(red, green, blue, max, max - min);
+        hsl[1] = max == min ? 0.0f : range / (1.0f - Math.abs(2.0f * lightness - 1.0f));
+        hsl[2] = lightness;
+    }
+
+    private static float hue(int red, int green, int blue, int max, int range) {
+        float sector;
+        if (max == red) {
+            sector = (green - blue) / (float) range;
+        } else if (max == green) {
+            sector = 2.0f + (blue - red) / (float) range;
+        } else {
+            sector = 4.0f + (red - green) / (float) range;
+        }
+        float hue = sector / 6.0f;
+        return hue < 0 ? hue + 1.0f : hue;
+    }
+
+    /**
+     * Converts an HSL color to a packed RGB value.
+     *
+     * @param hue        The hue of the color. Only the fractional part is used.
+     * @param saturation The saturation of the color, between 0 and 1.
+     * @param lightness  The lightness of the color, between 0 and 1.
+     * @return The packed RGB value, with an alpha of 255.
+     */
+    public static int hslToRgb(float hue, float saturation, float lightness) {
+        float brightness = lightness + saturation * Math.min(lightness, 1.0f - lightness);
+        float hsbSaturation = brightness == 0 ? 0.0f : 2.0f * (1.0f - lightness / brightness);
+        return ColorConversions.hsbToRgb(hue, hsbSaturation, brightness);
+    }
+}
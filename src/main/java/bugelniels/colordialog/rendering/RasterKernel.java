@@ -0,0 +1,56 @@
+package bugelniels.colordialog.rendering;
+
+/**
+ * A kernel that renders a gradient row by row into a packed RGB raster. Rendering happens in two steps: the kernel is
+ * first prepared for a single parameter (such as the hue), after which any range of rows can be rendered.
+ * Rendering distinct row ranges only reads the prepared state, so different ranges may be rendered concurrently.
+ *
+ * @author BugelNiels
+ */
+public interface RasterKernel {
+
+    /**
+     * Retrieves the width of the raster this kernel renders.
+     *
+     * @return The width of the raster.
+     */
+    int getWidth();
+
+    /**
+     * Retrieves the height of the raster this kernel renders.
+     *
+     * @return The height of the raster.
+     */
+    int getHeight();
+
+    /**
+     * Prepares the kernel for rendering the gradient belonging to the provided parameter.
+     *
+     * @param parameter The parameter of the gradient, such as its hue.
+     */
+    void prepare(float parameter);
+
+    /**
+     * Renders a single row into the provided array.
+     *
+     * @param y      The row to render.
+     * @param target The array to write the packed RGB values into.
+     * @param offset The index in the target array of the first pixel of the row.
+     */
+    void renderRow(int y, int[] target, int offset);
+
+    /**
+     * Renders the rows in the range [rowStart, rowEnd) into the provided raster.
+     * The raster is expected to be laid out row by row, with a stride equal to the width of the kernel.
+     *
+     * @param raster   The raster to write the packed RGB values into.
+     * @param rowStart The first row to render (inclusive).
+     * @param rowEnd   The last row to render (exclusive).
+     */
+    default void renderRows(int[] raster, int rowStart, int rowEnd) {
+        int width = getWidth();
+        for (int y = rowStart; y < rowEnd; y++) {
+            renderRow(y, raster, y * width);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package bugelniels.colordialog.rendering;
+
+/**
+ * A kernel that can be resized after creation, so the same kernel and its per-size state can be reused when the
+ * raster it renders changes size.
+ *
+ * @author BugelNiels
+ */
+public interface ResizableKernel extends RasterKernel {
+
+    /**
+     * Changes the size of the raster this kernel renders. The kernel must be prepared again before rendering.
+     *
+     * @param newWidth  The new width of the raster. Must be at least 2.
+     * @param newHeight The new height of the raster. Must be at least 2.
+     */
+    void resize(int newWidth, int newHeight);
+}
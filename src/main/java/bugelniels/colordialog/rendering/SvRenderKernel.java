@@ -0,0 +1,169 @@
+package bugelniels.colordialog.rendering;
+
+import lombok.Getter;
+
+/**
+ * Primitive-only HSV to RGB kernel for the saturation-value gradient. The result of every pixel is identical to
+ * {@link ColorConversions#hsbToRgb(float, float, float)}, but no objects are created while rendering.
+ * For a fixed hue, every channel of a pixel is either the brightness of its row, or the brightness of its row
+ * multiplied by a term that only depends on the saturation of its column. These column terms are computed once per
+ * hue, after which every row is filled using a single multiplication per channel.
+ *
+ * @author BugelNiels
+ */
+public final class SvRenderKernel implements ResizableKernel {
+
+    private static final int OPAQUE = 0xff000000;
+    private static final int RED_SHIFT = 16;
+    private static final int GREEN_SHIFT = 8;
+    private static final int BLUE_SHIFT = 0;
+    private static final int SECTORS = 6;
+
+    @Getter
+    private int width;
+    @Getter
+    private int height;
+
+    private float[] saturations;
+    private float[] lowTerms;
+    private float[] fallingTerms;
+    private float[] risingTerms;
+    private float[] values;
+    private int[] valueChannels;
+
+    private boolean validSector;
+    private int valueShift;
+    private float[] firstTerms;
+    private int firstShift;
+    private float[] secondTerms;
+    private int secondShift;
+
+    /**
+     * Creates a new kernel for a gradient of the provided size. The saturation of a column is its x coordinate divided
+     * by {@code width - 1}, and the value of a row is one minus its y coordinate divided by {@code height - 1}.
+     *
+     * @param width  The width of the gradient. Must be at least 2.
+     * @param height The height of the gradient. Must be at least 2.
+     */
+    public SvRenderKernel(int width, int height) {
+        resize(width, height);
+    }
+
+    /**
+     * Changes the size of the gradient this kernel renders. Only the terms belonging to a dimension that actually
+     * changed are re-allocated. The kernel must be prepared again before rendering.
+     *
+     * @param newWidth  The new width of the gradient. Must be at least 2.
+     * @param newHeight The new height of the gradient. Must be at least 2.
+     */
+    @Override
+    public void resize(int newWidth, int newHeight) {
+        if (newWidth != width || saturations == null) {
+            width = newWidth;
+            allocateColumns();
+        }
+        if (newHeight != height || values == null) {
+            height = newHeight;
+            allocateRows();
+        }
+    }
+
+    private void allocateColumns() {
+        saturations = new float[width];
+        lowTerms = new float[width];
+        fallingTerms = new float[width];
+        risingTerms = new float[width];
+        float gradientWidth = (float) width - 1;
+        for (int x = 0; x < width; x++) {
+            saturations[x] = x / gradientWidth;
+            lowTerms[x] = 1.0f - saturations[x];
+        }
+    }
+
+    private void allocateRows() {
+        values = new float[height];
+        valueChannels = new int[height];
+        float gradientHeight = (float) height - 1;
+        for (int y = 0; y < height; y++) {
+            values[y] = 1 - y / gradientHeight;
+            valueChannels[y] = channel(values[y]);
+        }
+    }
+
+    /**
+     * Prepares the per-column terms for the provided hue. Must be called before rendering any rows.
+     *
+     * @param hue The hue of the gradient.
+     */
+    @Override
+    public void prepare(float hue) {
+        float h = (hue - (float) Math.floor(hue)) * 6.0f;
+        float f = h - (float) Math.floor(h);
+        for (int x = 0; x < width; x++) {
+            fallingTerms[x] = 1.0f - saturations[x] * f;
+            risingTerms[x] = 1.0f - (saturations[x] * (1.0f - f));
+        }
+        selectSector((int) h);
+    }
+
+    /**
+     * Determines which channel receives the value and which channels receive which column terms.
+     *
+     * @param sector The hue sector, in the range [0, 6).
+     */
+    private void selectSector(int sector) {
+        validSector = sector >= 0 && sector < SECTORS;
+        switch (sector) {
+            case 0 -> assign(RED_SHIFT, risingTerms, GREEN_SHIFT, lowTerms, BLUE_SHIFT);
+            case 1 -> assign(GREEN_SHIFT, fallingTerms, RED_SHIFT, lowTerms, BLUE_SHIFT);
+            case 2 -> assign(GREEN_SHIFT, lowTerms, RED_SHIFT, risingTerms, BLUE_SHIFT);
+            case 3 -> assign(BLUE_SHIFT, lowTerms, RED_SHIFT, fallingTerms, GREEN_SHIFT);
+            case 4 -> assign(BLUE_SHIFT, risingTerms, RED_SHIFT, lowTerms, GREEN_SHIFT);
+            case 5 -> assign(RED_SHIFT, lowTerms, GREEN_SHIFT, fallingTerms, BLUE_SHIFT);
+            default -> assign(BLUE_SHIFT, lowTerms, RED_SHIFT, lowTerms, GREEN_SHIFT);
+        }
+    }
+
+    private void assign(int valueShift, float[] firstTerms, int firstShift, float[] secondTerms, int secondShift) {
+        this.valueShift = valueShift;
+        this.firstTerms = firstTerms;
+        this.firstShift = firstShift;
+        this.secondTerms = secondTerms;
+        this.secondShift = secondShift;
+    }
+
+    @Override
+    public void renderRow(int y, int[] target, int offset) {
+        if (!validSector) {
+            renderDegenerateRow(y, target, offset);
+            return;
+        }
+        float value = values[y];
+        int base = OPAQUE | (valueChannels[y] << valueShift);
+        for (int x = 0; x < width; x++) {
+            target[offset + x] = base
+                    | (channel(value * firstTerms[x]) << firstShift)
+                    | (channel(value * secondTerms[x]) << secondShift);
+        }
+    }
+
+    /**
+     * Handles hues that, due to float rounding, fall just outside the last sector. {@link ColorConversions#hsbToRgb}
+     * produces black for those, except for the fully desaturated column which it renders as gray.
+     *
+     * @param y      The row to render.
+     * @param target The array to write the packed RGB values into.
+     * @param offset The index in the target array of the first pixel of the row.
+     */
+    private void renderDegenerateRow(int y, int[] target, int offset) {
+        int gray = valueChannels[y];
+        int grayRGB = OPAQUE | (gray << RED_SHIFT) | (gray << GREEN_SHIFT) | gray;
+        for (int x = 0; x < width; x++) {
+            target[offset + x] = saturations[x] == 0 ? grayRGB : OPAQUE;
+        }
+    }
+
+    private static int channel(float component) {
+        return (int) (component * 255.0f + 0.5f);
+    }
+}
@@ -0,0 +1,119 @@
+package bugelniels.colordialog.rendering;
+
+import lombok.Getter;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders raster kernels by splitting the raster into bands of rows and filling these bands in parallel on a
+ * ForkJoin pool. Rasters smaller than the parallel threshold are rendered on the calling thread, as the cost of
+ * handing the work to the pool would outweigh the gain.
+ *
+ * @author BugelNiels
+ */
+public class TiledRenderer {
+
+    /**
+     * Default minimum number of pixels a raster needs before it is rendered in parallel.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 256 * 256;
+
+    private static final int BANDS_PER_THREAD = 4;
+
+    private static TiledRenderer defaultRenderer;
+
+    @Getter
+    private final int parallelism;
+    @Getter
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new renderer with its own pool.
+     *
+     * @param parallelism       The number of threads used to render a single raster. A parallelism of 1 means that
+     *                          everything is rendered on the calling thread.
+     * @param parallelThreshold The minimum number of pixels a raster needs before it is rendered in parallel.
+     */
+    public TiledRenderer(int parallelism, int parallelThreshold) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.parallelThreshold = parallelThreshold;
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    /**
+     * Retrieves the renderer shared by all gradients that were not given a renderer explicitly.
+     * Its parallelism equals the number of available processors.
+     *
+     * @return The shared renderer.
+     */
+    public static synchronized TiledRenderer getDefault() {
+        if (defaultRenderer == null) {
+            defaultRenderer = new TiledRenderer(Runtime.getRuntime().availableProcessors(), DEFAULT_PARALLEL_THRESHOLD);
+        }
+        return defaultRenderer;
+    }
+
+    /**
+     * Prepares the kernel for the provided parameter and renders the full raster.
+     *
+     * @param kernel    The kernel to render.
+     * @param raster    The raster to render into. Must hold at least width x height values.
+     * @param parameter The parameter to prepare the kernel with, such as the hue.
+     */
+    public void render(RasterKernel kernel, int[] raster, float parameter) {
+        kernel.prepare(parameter);
+        int height = kernel.getHeight();
+        if (pool == null || pool.isShutdown() || kernel.getWidth() * height < parallelThreshold) {
+            kernel.renderRows(raster, 0, height);
+            return;
+        }
+        int bandHeight = Math.max(1, (height + parallelism * BANDS_PER_THREAD - 1) / (parallelism * BANDS_PER_THREAD));
+        pool.invoke(new BandTask(kernel, raster, 0, height, bandHeight));
+    }
+
+    /**
+     * Stops the threads of this renderer. The renderer keeps working afterwards, but only on the calling thread.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Task that renders a range of rows, splitting it in halves until the range fits in a single band.
+     */
+    @SuppressWarnings("serial") // Only ever run in the pool of this renderer, never serialized.
+    private static final class BandTask extends RecursiveAction {
+
+        private final RasterKernel kernel;
+        private final int[] raster;
+        private final int rowStart;
+        private final int rowEnd;
+        private final int bandHeight;
+
+        private BandTask(RasterKernel kernel, int[] raster, int rowStart, int rowEnd, int bandHeight) {
+            this.kernel = kernel;
+            this.raster = raster;
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+            this.bandHeight = bandHeight;
+        }
+
+        @Override
+        protected void compute() {
+            if (rowEnd - rowStart <= bandHeight) {
+                kernel.renderRows(raster, rowStart, rowEnd);
+                return;
+            }
+            int middle = (rowStart + rowEnd) >>> 1;
+            invokeAll(new BandTask(kernel, raster, rowStart, middle, bandHeight),
+                    new BandTask(kernel, raster, middle, rowEnd, bandHeight));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package bugelniels.colordialog.view;
+
+import bugelniels.colordialog.model.ColorChangeListener;
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.model.crosshairs.AlphaCrossHair;
+import bugelniels.colordialog.model.gradients.AlphaGradient;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Panel responsible for drawing the alpha gradient and its cross-hair.
+ * Changing the alpha only repaints the bands covered by the previous and the new position of the cross-hair; the
+ * gradient itself is only repainted when the RGB value of the color changes. The height of the gradient follows the
+ * height of the panel.
+ *
+ * @author BugelNiels
+ */
+public class AlphaSliderPanel extends JPanel implements ColorChangeListener {
+
+    private static final int STROKE_WIDTH = 3;
+    private static final int RGB_COMPONENTS = GradientColor.HUE_COMPONENT | GradientColor.SATURATION_COMPONENT
+            | GradientColor.BRIGHTNESS_COMPONENT;
+    private final AlphaGradient alphaGradient;
+    private final AlphaCrossHair alphaCrossHair;
+    private int shownY;
+
+    /**
+     * Creates a new panel.
+     *
+     * @param crossHair The cross-hair that should be drawn. This cross-hair has as its parent the gradient itself.
+     */
+    public AlphaSliderPanel(AlphaCrossHair crossHair) {
+        this.alphaCrossHair = crossHair;
+        this.alphaGradient = crossHair.getParent();
+        this.shownY = crossHair.getY();
+        new ResizeDebouncer(this, ResizeDebouncer.DEFAULT_DELAY, this::resizeGradient);
+    }
+
+    /**
+     * Resizes the gradient to the height of the panel and moves the cross-hair accordingly.
+     */
+    private void resizeGradient() {
+        alphaGradient.resize(alphaGradient.getWidth(), getHeight());
+        syncWithColor();
+    }
+
+    /**
+     * Moves the cross-hair to the current alpha of the color and repaints the full panel. Used when the color was
+     * replaced as a whole, for example when a pooled dialog is reused.
+     */
+    public void syncWithColor() {
+        alphaCrossHair.updatePosition();
+        shownY = alphaCrossHair.getY();
+        repaint();
+    }
+
+    private void paintGradient(Graphics2D g) {
+        alphaGradient.setGraphicsConfiguration(getGraphicsConfiguration());
+        g.drawImage(alphaGradient.getAlphaGradientImage(), 0, 0, null);
+    }
+
+    private void paintCrossHair(Graphics2D g) {
+        g.setColor(Color.black);
+        g.setStroke(new BasicStroke(STROKE_WIDTH));
+        g.drawLine(0, alphaCrossHair.getY(), alphaGradient.getWidth(), alphaCrossHair.getY());
+    }
+
+    /**
+     * Paints a cross-hair and an alpha gradient.
+     *
+     * @param g the <code>Graphics</code> object used to paint.
+     */
+    @Override
+    public void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+        paintGradient(g2d);
+        paintCrossHair(g2d);
+    }
+
+    /**
+     * Repaints the band of rows covered by the cross-hair at the provided y coordinate, including its stroke and
+     * anti-aliasing.
+     *
+     * @param y The y coordinate of the cross-hair.
+     */
+    private void repaintCrossHair(int y) {
+        int padding = STROKE_WIDTH + 1;
+        repaint(0, y - padding, getWidth(), 2 * padding + 1);
+    }
+
+    /**
+     * Repaints the full panel when the RGB value of the color may have changed, as the gradient shows that value.
+     * When only the alpha changed, only the previous and the new position of the cross-hair are repainted.
+     *
+     * @param changedComponents The bitmask of the changed components.
+     * @param hue               The new hue.
+     * @param saturation        The new saturation.
+     * @param brightness        The new brightness.
+     */
+    @Override
+    public void colorChanged(int changedComponents, float hue, float saturation, float brightness) {
+        if ((changedComponents & RGB_COMPONENTS) != 0) {
+            shownY = alphaCrossHair.getY();
+            repaint();
+        } else if ((changedComponents & GradientColor.ALPHA_COMPONENT) != 0) {
+            repaintCrossHair(shownY);
+            shownY = alphaCrossHair.getY();
+            repaintCrossHair(shownY);
+        }
+    }
+}
@@ -1,40 +1,79 @@
 package bugelniels.colordialog.view;
 
+import bugelniels.colordialog.model.ColorChangeListener;
 import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.model.names.NamedColorIndex;
+import bugelniels.colordialog.rendering.PerceptualConversions;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 // TODO: add more representations and easy copy-paste
 // TODO: add user input
 
 /**
- * Panel that contains the information about the color, such as the RGB and HSV values.
+ * Panel that contains the information about the color, such as the RGB, alpha, HSV, HSL and CIELAB values, and the
+ * name of the closest named color according to {@link NamedColorIndex#getDefault()}. The swatch shows the color both
+ * opaque and with its alpha over a checkerboard.
+ * Updates are incremental: the swatch image is reused, and a text field is only updated when its formatted value
+ * actually changed. Changing only the alpha repaints the swatch, but does not convert the color again.
  *
  * @author BugelNiels
  */
-public class ColorInformationPanel extends JPanel implements PropertyChangeListener {
+public class ColorInformationPanel extends JPanel implements ColorChangeListener {
 
     private static final int ICON_WIDTH = 50;
     private static final int ICON_HEIGHT = 20;
 
+    private static final int RED = 0;
+    private static final int GREEN = 1;
+    private static final int BLUE = 2;
+    private static final int HUE = 3;
+    private static final int SATURATION = 4;
+    private static final int VALUE = 5;
+    private static final int RGB_INT = 6;
+    private static final int HSL_HUE = 7;
+    private static final int HSL_SATURATION = 8;
+    private static final int HSL_LIGHTNESS = 9;
+    private static final int LAB_LIGHTNESS = 10;
+    private static final int LAB_A = 11;
+    private static final int LAB_B = 12;
+    private static final int ALPHA = 13;
+    private static final int FIELD_COUNT = 14;
+
     private final GradientColor gradientColor;
+    private final ColorSwatch swatch = new ColorSwatch(ICON_WIDTH, ICON_HEIGHT);
+    private final long[] shownValues = new long[FIELD_COUNT];
+    private final StringBuilder formatBuffer = new StringBuilder();
+    private final float[] components = new float[3];
+    private int shownARGB;
+    private NamedColorIndex shownNames;
+    private int shownNameEntry = -1;
+    private long appliedUpdates;
+    private long skippedUpdates;
     private JLabel colorLabel;
 
     private JTextField redLabel;
     private JTextField greenLabel;
     private JTextField blueLabel;
+    private JTextField alphaLabel;
 
     private JTextField hueLabel;
     private JTextField satLabel;
     private JTextField valLabel;
 
+    private JTextField hslHueLabel;
+    private JTextField hslSatLabel;
+    private JTextField hslLightLabel;
+
+    private JTextField labLightLabel;
+    private JTextField labALabel;
+    private JTextField labBLabel;
+
     private JTextField rgbIntLabel;
 
     /**
@@ -45,19 +84,26 @@ public class ColorInformationPanel extends JPanel implements PropertyChangeListe
     public ColorInformationPanel(GradientColor gradientColor) {
         super(new GridBagLayout());
         this.gradientColor = gradientColor;
+        Arrays.fill(shownValues, Long.MIN_VALUE);
         paintLabels();
         colorLabels();
+        shownARGB = ~gradientColor.getARGBInt();
+        updateFields();
         setBorder(new EmptyBorder(10, 30, 10, 30));
     }
 
     private void paintLabels() {
-        setLayout(new GridLayout(7, 1));
+        setLayout(new GridLayout(11, 1));
         add(paintColor());
         add(new JSeparator());
         add(paintRGB());
         add(new JSeparator());
         add(paintHSV());
         add(new JSeparator());
+        add(paintHSL());
+        add(new JSeparator());
+        add(paintLab());
+        add(new JSeparator());
         add(paintRGBInt());
     }
 
@@ -67,26 +113,28 @@ public class ColorInformationPanel extends JPanel implements PropertyChangeListe
         JLabel cLabel = new JLabel("Color:");
         panel.add(cLabel);
         colorLabel = new JLabel("");
-        colorLabel.setIcon(createIcon(gradientColor.getColor()));
+        colorLabel.setIcon(new ImageIcon(swatch.getImage()));
         panel.add(colorLabel);
         return panel;
     }
 
     private JPanel paintRGB() {
         JPanel panel = new JPanel();
-        panel.setLayout(new GridLayout(2, 3));
+        panel.setLayout(new GridLayout(2, 4));
         JLabel rLabel = new JLabel("Red:");
         panel.add(rLabel);
         JLabel gLabel = new JLabel("Green:");
         panel.add(gLabel);
         JLabel bLabel = new JLabel("Blue:");
         panel.add(bLabel);
+        panel.add(new JLabel("Alpha:"));
 
-        Color color = gradientColor.getColor();
-        redLabel = new JTextField(String.valueOf(color.getRed()));
-        greenLabel = new JTextField(String.valueOf(color.getGreen()));
-        blueLabel = new JTextField(String.valueOf(color.getBlue()));
+        redLabel = new JTextField();
+        greenLabel = new JTextField();
+        blueLabel = new JTextField();
+        alphaLabel = new JTextField();
         addLabelsToPanel(redLabel, greenLabel, blueLabel, panel);
+        panel.add(alphaLabel);
         return panel;
     }
 
@@ -100,20 +148,50 @@ public class ColorInformationPanel extends JPanel implements PropertyChangeListe
         JLabel vLabel = new JLabel("Value:");
         panel.add(vLabel);
 
-        hueLabel = new JTextField(String.valueOf(gradientColor.getHue()));
-        satLabel = new JTextField(String.valueOf(gradientColor.getSaturation()));
-        valLabel = new JTextField(String.valueOf(gradientColor.getBrightness()));
+        hueLabel = new JTextField();
+        satLabel = new JTextField();
+        valLabel = new JTextField();
 
         addLabelsToPanel(hueLabel, satLabel, valLabel, panel);
         return panel;
     }
 
+    private JPanel paintHSL() {
+        JPanel panel = new JPanel();
+        panel.setLayout(new GridLayout(2, 3));
+        panel.add(new JLabel("HSL hue:"));
+        panel.add(new JLabel("HSL saturation:"));
+        panel.add(new JLabel("Lightness:"));
+
+        hslHueLabel = new JTextField();
+        hslSatLabel = new JTextField();
+        hslLightLabel = new JTextField();
+
+        addLabelsToPanel(hslHueLabel, hslSatLabel, hslLightLabel, panel);
+        return panel;
+    }
+
+    private JPanel paintLab() {
+        JPanel panel = new JPanel();
+        panel.setLayout(new GridLayout(2, 3));
+        panel.add(new JLabel("L*:"));
+        panel.add(new JLabel("a*:"));
+        panel.add(new JLabel("b*:"));
+
+        labLightLabel = new JTextField();
+        labALabel = new JTextField();
+        labBLabel = new JTextField();
+
+        addLabelsToPanel(labLightLabel, labALabel, labBLabel, panel);
+        return panel;
+    }
+
     private JPanel paintRGBInt() {
         JPanel panel = new JPanel();
         panel.setLayout(new GridLayout(1, 2));
         JLabel rLabel = new JLabel("RGB int:");
         panel.add(rLabel);
-        rgbIntLabel = new JTextField(String.valueOf(gradientColor.getRGBInt()));
+        rgbIntLabel = new JTextField();
         panel.add(rgbIntLabel);
         return panel;
     }
@@ -129,11 +207,20 @@ public class ColorInformationPanel extends JPanel implements PropertyChangeListe
         textFields.add(redLabel);
         textFields.add(blueLabel);
         textFields.add(greenLabel);
+        textFields.add(alphaLabel);
 
         textFields.add(hueLabel);
         textFields.add(satLabel);
         textFields.add(valLabel);
 
+        textFields.add(hslHueLabel);
+        textFields.add(hslSatLabel);
+        textFields.add(hslLightLabel);
+
+        textFields.add(labLightLabel);
+        textFields.add(labALabel);
+        textFields.add(labBLabel);
+
         textFields.add(rgbIntLabel);
 
         for (JTextField text : textFields) {
@@ -143,17 +230,6 @@ public class ColorInformationPanel extends JPanel implements PropertyChangeListe
         }
     }
 
-    private ImageIcon createIcon(Color main) {
-        BufferedImage image = new BufferedImage(ICON_WIDTH, ICON_HEIGHT, java.awt.image.BufferedImage.TYPE_INT_RGB);
-        Graphics2D graphics = image.createGraphics();
-        graphics.setColor(main);
-        graphics.fillRect(0, 0, ICON_WIDTH, ICON_HEIGHT);
-        graphics.setXORMode(Color.DARK_GRAY);
-        graphics.drawRect(0, 0, ICON_WIDTH - 1, ICON_HEIGHT - 1);
-        image.flush();
-        return new ImageIcon(image);
-    }
-
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
@@ -167,22 +243,118 @@ public class ColorInformationPanel extends JPanel implements PropertyChangeListe
     /**
      * Updates the information on this panel. Executed whenever the gradient color fires an event.
      *
-     * @param evt The change event.
+     * @param changedComponents The bitmask of the changed components.
+     * @param hue               The new hue.
+     * @param saturation        The new saturation.
+     * @param brightness        The new brightness.
      */
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
+    public void colorChanged(int changedComponents, float hue, float saturation, float brightness) {
+        updateFields();
+    }
+
+    private void updateFields() {
+        int argb = gradientColor.getARGBInt();
+        int rgb = gradientColor.getRGBInt();
+        if (argb != shownARGB) {
+            if (((argb ^ shownARGB) & 0xFFFFFF) != 0) {
+                updatePerceptualFields(rgb);
+            }
+            shownARGB = argb;
+            swatch.paint(argb);
+            colorLabel.repaint();
+        }
+        updateField(redLabel, RED, gradientColor.getRed(), false);
+        updateField(greenLabel, GREEN, gradientColor.getGreen(), false);
+        updateField(blueLabel, BLUE, gradientColor.getBlue(), false);
+        updateField(alphaLabel, ALPHA, gradientColor.getAlphaInt(), false);
+
+        updateField(hueLabel, HUE, Math.round(gradientColor.getHue() * 100d), true);
+        updateField(satLabel, SATURATION, Math.round(gradientColor.getSaturation() * 100d), true);
+        updateField(valLabel, VALUE, Math.round(gradientColor.getBrightness() * 100d), true);
 
-        Color color = gradientColor.getColor();
-        colorLabel.setIcon(createIcon(color));
-        redLabel.setText(String.valueOf(color.getRed()));
-        greenLabel.setText(String.valueOf(color.getGreen()));
-        blueLabel.setText(String.valueOf(color.getBlue()));
+        updateField(rgbIntLabel, RGB_INT, rgb, false);
+    }
+
+    /**
+     * Updates the HSL and CIELAB fields and the color name. These only depend on the RGB value, so they are only
+     * converted when it changed.
+     *
+     * @param rgb The packed RGB value of the color.
+     */
+    private void updatePerceptualFields(int rgb) {
+        PerceptualConversions.rgbToHsl(rgb, components);
+        updateField(hslHueLabel, HSL_HUE, Math.round(components[0] * 100d), true);
+        updateField(hslSatLabel, HSL_SATURATION, Math.round(components[1] * 100d), true);
+        updateField(hslLightLabel, HSL_LIGHTNESS, Math.round(components[2] * 100d), true);
+
+        PerceptualConversions.rgbToLab(rgb, components);
+        updateField(labLightLabel, LAB_LIGHTNESS, Math.round(components[0] * 100d), true);
+        updateField(labALabel, LAB_A, Math.round(components[1] * 100d), true);
+        updateField(labBLabel, LAB_B, Math.round(components[2] * 100d), true);
+
+        PerceptualConversions.rgbToOklab(rgb, components);
+        updateName(components[0], components[1], components[2]);
+    }
+
+    /**
+     * Shows the name of the named color closest to the provided OKLab color next to the swatch. The name is only
+     * replaced if a different named color is closest.
+     *
+     * @param lightness The OKLab lightness.
+     * @param a         The OKLab a component.
+     * @param b         The OKLab b component.
+     */
+    private void updateName(float lightness, float a, float b) {
+        NamedColorIndex names = NamedColorIndex.getDefault();
+        int entry = names.nearest(lightness, a, b);
+        if (names == shownNames && entry == shownNameEntry) {
+            return;
+        }
+        shownNames = names;
+        shownNameEntry = entry;
+        colorLabel.setText(entry < 0 ? "" : names.getCatalog().getName(entry));
+    }
 
-        hueLabel.setText(String.valueOf(Math.round(gradientColor.getHue() * 100d) / 100d));
-        satLabel.setText(String.valueOf(Math.round(gradientColor.getSaturation() * 100d) / 100d));
-        valLabel.setText(String.valueOf(Math.round(gradientColor.getBrightness() * 100d) / 100d));
+    /**
+     * Updates the text of the provided field, but only if the value differs from the value it currently shows.
+     *
+     * @param field      The field to update.
+     * @param index      The index of the field in the shown values.
+     * @param value      The new value of the field.
+     * @param hundredths Whether the value is expressed in hundredths and should be shown as a decimal number.
+     */
+    private void updateField(JTextField field, int index, long value, boolean hundredths) {
+        if (shownValues[index] == value) {
+            skippedUpdates++;
+            return;
+        }
+        shownValues[index] = value;
+        formatBuffer.setLength(0);
+        if (hundredths) {
+            formatBuffer.append(value / 100d);
+        } else {
+            formatBuffer.append(value);
+        }
+        field.setText(formatBuffer.toString());
+        appliedUpdates++;
+    }
+
+    /**
+     * Retrieves the number of text field updates that were applied because the shown value changed.
+     *
+     * @return The number of applied updates.
+     */
+    public long getAppliedUpdates() {
+        return appliedUpdates;
+    }
 
-        rgbIntLabel.setText(String.valueOf(gradientColor.getRGBInt()));
-        repaint();
+    /**
+     * Retrieves the number of text field updates that were skipped because the shown value did not change.
+     *
+     * @return The number of skipped updates.
+     */
+    public long getSkippedUpdates() {
+        return skippedUpdates;
     }
 }
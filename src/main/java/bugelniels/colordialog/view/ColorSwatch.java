@@ -0,0 +1,67 @@
+package bugelniels.colordialog.view;
+
+import bugelniels.colordialog.rendering.AlphaRenderKernel;
+import lombok.Getter;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Swatch showing a color in the information panel. The left half shows the color opaque, while the right half shows it
+ * with its alpha, composited over a checkerboard by an {@link AlphaRenderKernel}. The image is reused: painting a color
+ * only rewrites the inside of the swatch, directly in the pixel array of the image.
+ *
+ * @author BugelNiels
+ */
+final class ColorSwatch {
+
+    private static final float MAX_CHANNEL = 255f;
+
+    private final int width;
+    private final int height;
+    @Getter
+    private final BufferedImage image;
+    private final AlphaRenderKernel kernel;
+
+    /**
+     * Creates a new swatch, including its border.
+     *
+     * @param width  The width of the swatch.
+     * @param height The height of the swatch.
+     */
+    ColorSwatch(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.kernel = new AlphaRenderKernel(width - 1 - width / 2, height - 2, false);
+        paintBorder();
+    }
+
+    /**
+     * Draws the border of the swatch. The border is never covered by the color, so it only needs to be drawn once.
+     */
+    private void paintBorder() {
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.DARK_GRAY);
+        graphics.drawRect(0, 0, width - 1, height - 1);
+        graphics.dispose();
+    }
+
+    /**
+     * Fills the inside of the swatch with the provided color.
+     *
+     * @param argb The packed ARGB value to fill the swatch with.
+     */
+    void paint(int argb) {
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        int half = width / 2;
+        kernel.setColor(argb);
+        kernel.prepare((argb >>> 24) / MAX_CHANNEL);
+        for (int y = 1; y < height - 1; y++) {
+            Arrays.fill(pixels, y * width + 1, y * width + half, argb | 0xFF000000);
+            kernel.renderRow(y - 1, pixels, y * width + half);
+        }
+    }
+}
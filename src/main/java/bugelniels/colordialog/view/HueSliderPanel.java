@@ -1,24 +1,26 @@
 package bugelniels.colordialog.view;
 
+import bugelniels.colordialog.model.ColorChangeListener;
 import bugelniels.colordialog.model.GradientColor;
 import bugelniels.colordialog.model.crosshairs.HueCrossHair;
 import bugelniels.colordialog.model.gradients.HueGradient;
 
 import javax.swing.*;
 import java.awt.*;
-import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
 
 /**
  * Panel responsible for drawing the hue gradient and its cross-hair.
+ * Moving the cross-hair only repaints the bands covered by its previous and its new position. The height of the
+ * gradient follows the height of the panel.
  *
  * @author BugelNiels
  */
-public class HueSliderPanel extends JPanel implements PropertyChangeListener {
+public class HueSliderPanel extends JPanel implements ColorChangeListener {
 
     private static final int STROKE_WIDTH = 3;
     private final HueGradient hueGradient;
     private final HueCrossHair hueCrossHair;
+    private int shownY;
 
     /**
      * Creates a new panel.
@@ -28,10 +30,40 @@ public class HueSliderPanel extends JPanel implements PropertyChangeListener {
     public HueSliderPanel(HueCrossHair crossHair) {
         this.hueCrossHair = crossHair;
         this.hueGradient = crossHair.getParent();
+        this.shownY = crossHair.getY();
+        new ResizeDebouncer(this, ResizeDebouncer.DEFAULT_DELAY, this::resizeGradient);
     }
 
+    /**
+     * Resizes the gradient to the height of the panel and moves the cross-hair accordingly.
+     */
+    private void resizeGradient() {
+        hueGradient.resize(hueGradient.getWidth(), getHeight());
+        hueCrossHair.updatePosition();
+        shownY = hueCrossHair.getY();
+        repaint();
+    }
+
+    /**
+     * Moves the cross-hair to the current hue of the color and repaints the full panel. Used when the color was
+     * replaced as a whole, for example when a pooled dialog is reused.
+     */
+    public void syncWithColor() {
+        hueCrossHair.updatePosition();
+        shownY = hueCrossHair.getY();
+        repaint();
+    }
+
+    /**
+     * Draws the hue gradient by stretching its 1 pixel wide column to the width of the gradient. Every row holds a
+     * single color, so nearest-neighbour stretching is exact.
+     *
+     * @param g The graphics to draw with.
+     */
     private void paintGradient(Graphics2D g) {
-        g.drawImage(hueGradient.getHueGradientImage(), 0, 0, null);
+        hueGradient.setGraphicsConfiguration(getGraphicsConfiguration());
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.drawImage(hueGradient.getHueGradientImage(), 0, 0, hueGradient.getWidth(), hueGradient.getHeight(), null);
     }
 
     private void paintCrossHair(Graphics2D g) {
@@ -58,14 +90,31 @@ public class HueSliderPanel extends JPanel implements PropertyChangeListener {
     }
 
     /**
-     * Repaints the panel. Happens only when the hue value of the gradient color is changed.
+     * Repaints the band of rows covered by the cross-hair at the provided y coordinate, including its stroke and
+     * anti-aliasing.
+     *
+     * @param y The y coordinate of the cross-hair.
+     */
+    private void repaintCrossHair(int y) {
+        int padding = STROKE_WIDTH + 1;
+        repaint(0, y - padding, getWidth(), 2 * padding + 1);
+    }
+
+    /**
+     * Repaints the previous and the new position of the cross-hair. Happens only when the hue value of the gradient
+     * color is changed.
      *
-     * @param evt The event sent from the gradient color.
+     * @param changedComponents The bitmask of the changed components.
+     * @param hue               The new hue.
+     * @param saturation        The new saturation.
+     * @param brightness        The new brightness.
      */
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
-        if (evt.getPropertyName().equals(GradientColor.HUE_CHANGED)) {
-            repaint();
+    public void colorChanged(int changedComponents, float hue, float saturation, float brightness) {
+        if ((changedComponents & GradientColor.HUE_COMPONENT) != 0) {
+            repaintCrossHair(shownY);
+            shownY = hueCrossHair.getY();
+            repaintCrossHair(shownY);
         }
     }
 }
@@ -0,0 +1,136 @@
+package bugelniels.colordialog.view;
+
+import bugelniels.colordialog.model.ColorChangeListener;
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.model.crosshairs.OklchCrossHair;
+import bugelniels.colordialog.model.gradients.OklchGradient;
+
+import javax.swing.*;
+import java.awt.*;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+/**
+ * Panel responsible for drawing the OKLCH plane and its cross-hair.
+ * The cross-hair follows the lightness and chroma of the color, and moving it only repaints the regions covered by its
+ * previous and its new position; the full panel is only repainted when the plane image itself changed. The size of the
+ * plane follows the size of the panel.
+ *
+ * @author BugelNiels
+ */
+public class OklchSelectionPanel extends JPanel implements PropertyChangeListener, ColorChangeListener {
+
+    private static final int STROKE_WIDTH = 2;
+    private static final int RGB_COMPONENTS = GradientColor.HUE_COMPONENT | GradientColor.SATURATION_COMPONENT
+            | GradientColor.BRIGHTNESS_COMPONENT;
+
+    private final OklchGradient oklchGradient;
+    private final OklchCrossHair oklchCrossHair;
+    private final Rectangle shownCrossHairBounds = new Rectangle();
+
+    /**
+     * Creates a new panel.
+     *
+     * @param crossHair The cross-hair that should be drawn. This cross-hair has as its parent the plane itself.
+     */
+    public OklchSelectionPanel(OklchCrossHair crossHair) {
+        this.oklchGradient = crossHair.getParent();
+        this.oklchCrossHair = crossHair;
+        crossHairBounds(shownCrossHairBounds);
+        new ResizeDebouncer(this, ResizeDebouncer.DEFAULT_DELAY, () -> oklchGradient.resize(getWidth(), getHeight()));
+    }
+
+    /**
+     * Draws the plane image. A low-resolution preview is scaled up to the size of the plane.
+     *
+     * @param g The graphics to draw with.
+     */
+    private void paintGradient(Graphics2D g) {
+        oklchGradient.setGraphicsConfiguration(getGraphicsConfiguration());
+        Image image = oklchGradient.getGradientImage();
+        int width = oklchGradient.getWidth();
+        int height = oklchGradient.getHeight();
+        if (image.getWidth(null) == width && image.getHeight(null) == height) {
+            g.drawImage(image, 0, 0, null);
+            return;
+        }
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+    }
+
+    private void paintCrossHair(Graphics2D g) {
+        g.setColor(oklchCrossHair.getCrossHairColor());
+        g.setStroke(new BasicStroke(STROKE_WIDTH));
+        int half = oklchCrossHair.getSize() / 2;
+        g.drawLine(oklchCrossHair.getX() - half, oklchCrossHair.getY(), oklchCrossHair.getX() + half,
+                oklchCrossHair.getY());
+        g.drawLine(oklchCrossHair.getX(), oklchCrossHair.getY() - half, oklchCrossHair.getX(),
+                oklchCrossHair.getY() + half);
+    }
+
+    /**
+     * Paints a cross-hair and an OKLCH plane.
+     *
+     * @param g the <code>Graphics</code> object used to paint.
+     */
+    @Override
+    public void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        paintGradient(g2d);
+        paintCrossHair(g2d);
+    }
+
+    /**
+     * Computes the region covered by the cross-hair at its current position, including its stroke and anti-aliasing.
+     *
+     * @param bounds The rectangle to store the region in.
+     */
+    private void crossHairBounds(Rectangle bounds) {
+        int padding = STROKE_WIDTH + 1;
+        int half = oklchCrossHair.getSize() / 2 + padding;
+        bounds.setBounds(oklchCrossHair.getX() - half, oklchCrossHair.getY() - half, 2 * half + 1, 2 * half + 1);
+    }
+
+    /**
+     * Moves the cross-hair to the current lightness and chroma of the color and repaints the full panel. Used when the
+     * color was replaced as a whole, for example when a pooled dialog is reused.
+     */
+    public void syncWithColor() {
+        oklchCrossHair.updatePosition();
+        crossHairBounds(shownCrossHairBounds);
+        repaint();
+    }
+
+    /**
+     * Repaints the full panel whenever the plane swapped in a new image.
+     *
+     * @param evt The event sent from the plane.
+     */
+    @Override
+    public void propertyChange(PropertyChangeEvent evt) {
+        if (OklchGradient.GRADIENT_CHANGED.equals(evt.getPropertyName())) {
+            syncWithColor();
+        }
+    }
+
+    /**
+     * Moves the cross-hair to the lightness and chroma of the color whenever its RGB value may have changed, and
+     * repaints its previous and its new region.
+     *
+     * @param changedComponents The bitmask of the changed components.
+     * @param hue               The new hue.
+     * @param saturation        The new saturation.
+     * @param brightness        The new brightness.
+     */
+    @Override
+    public void colorChanged(int changedComponents, float hue, float saturation, float brightness) {
+        if ((changedComponents & RGB_COMPONENTS) != 0) {
+            repaint(shownCrossHairBounds);
+            oklchCrossHair.updatePosition();
+            crossHairBounds(shownCrossHairBounds);
+            repaint(shownCrossHairBounds);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package bugelniels.colordialog.view;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+
+/**
+ * Runs an action once a component stopped being resized. Every resize event restarts the delay, so dragging the edge
+ * of a window only runs the action after the drag paused, instead of once for every pixel.
+ *
+ * @author BugelNiels
+ */
+public class ResizeDebouncer extends ComponentAdapter {
+
+    /**
+     * Default delay in milliseconds between the last resize event and running the action.
+     */
+    public static final int DEFAULT_DELAY = 150;
+
+    private final Timer timer;
+
+    /**
+     * Starts listening to resize events of the provided component.
+     *
+     * @param component   The component to listen to.
+     * @param delayMillis The delay in milliseconds between the last resize event and running the action.
+     * @param action      The action to run on the event dispatch thread once resizing stopped.
+     */
+    public ResizeDebouncer(Component component, int delayMillis, Runnable action) {
+        timer = new Timer(delayMillis, e -> action.run());
+        timer.setRepeats(false);
+        component.addComponentListener(this);
+    }
+
+    /**
+     * Restarts the delay whenever the component is resized.
+     *
+     * @param e The resize event.
+     */
+    @Override
+    public void componentResized(ComponentEvent e) {
+        timer.restart();
+    }
+}
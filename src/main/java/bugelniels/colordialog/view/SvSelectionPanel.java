@@ -1,6 +1,10 @@
 package bugelniels.colordialog.view;
 
+import bugelniels.colordialog.metrics.ColorDialogMetrics;
+import bugelniels.colordialog.model.ColorChangeListener;
+import bugelniels.colordialog.model.GradientColor;
 import bugelniels.colordialog.model.crosshairs.SvCrossHair;
+import bugelniels.colordialog.model.gradients.ContrastOverlay;
 import bugelniels.colordialog.model.gradients.SvGradient;
 
 import javax.swing.*;
@@ -10,13 +14,24 @@ import java.beans.PropertyChangeListener;
 
 /**
  * Panel responsible for drawing the saturation-value gradient and its cross-hair.
+ * Moving the cross-hair only repaints the regions covered by its previous and its new position; the full panel is
+ * only repainted when the gradient image itself changed. The size of the gradient follows the size of the panel.
+ * Optionally, a {@link ContrastOverlay} shows where the contrast ratio against a reference color crosses 3:1, 4.5:1 and
+ * 7:1, see {@link #setContrastReference(Color)}.
  *
  * @author BugelNiels
  */
-public class SvSelectionPanel extends JPanel implements PropertyChangeListener {
+public class SvSelectionPanel extends JPanel implements PropertyChangeListener, ColorChangeListener {
+
+    private static final int STROKE_WIDTH = 2;
+    private static final int SV_COMPONENTS = GradientColor.SATURATION_COMPONENT | GradientColor.BRIGHTNESS_COMPONENT;
 
     private final SvGradient svGradient;
     private final SvCrossHair svCrossHair;
+    private final Rectangle shownCrossHairBounds = new Rectangle();
+    private ContrastOverlay contrastOverlay;
+    private boolean framePending;
+    private long frameRequestNanos;
 
     /**
      * Creates a new panel.
@@ -26,15 +41,72 @@ public class SvSelectionPanel extends JPanel implements PropertyChangeListener {
     public SvSelectionPanel(SvCrossHair crossHair) {
         this.svGradient = crossHair.getParent();
         this.svCrossHair = crossHair;
+        crossHairBounds(shownCrossHairBounds);
+        new ResizeDebouncer(this, ResizeDebouncer.DEFAULT_DELAY, () -> svGradient.resize(getWidth(), getHeight()));
     }
 
+    /**
+     * Draws the gradient image. A low-resolution preview is scaled up to the size of the gradient.
+     *
+     * @param g The graphics to draw with.
+     */
     private void paintGradient(Graphics2D g) {
-        g.drawImage(svGradient.getGradientImage(), 0, 0, null);
+        svGradient.setGraphicsConfiguration(getGraphicsConfiguration());
+        Image image = svGradient.getGradientImage();
+        int width = svGradient.getWidth();
+        int height = svGradient.getHeight();
+        if (image.getWidth(null) == width && image.getHeight(null) == height) {
+            g.drawImage(image, 0, 0, null);
+            return;
+        }
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+    }
+
+    /**
+     * Draws the contrast overlay, if any, for the hue of the gradient image that is shown. While a new hue is being
+     * rendered, the overlay keeps matching the image underneath it instead of running ahead of it.
+     *
+     * @param g The graphics to draw with.
+     */
+    private void paintContrastOverlay(Graphics2D g) {
+        if (contrastOverlay == null) {
+            return;
+        }
+        contrastOverlay.resize(svGradient.getWidth(), svGradient.getHeight());
+        g.drawImage(contrastOverlay.getOverlayImage(svGradient.getShownParameter()), 0, 0, null);
+    }
+
+    /**
+     * Shows the contour lines where the WCAG contrast ratio against the provided reference color crosses 3:1, 4.5:1
+     * and 7:1 on top of the gradient, or hides them. The overlay is only allocated while it is shown.
+     *
+     * @param reference The color the contrast is computed against, such as a text or background color, or null to
+     *                  hide the overlay. The alpha is ignored.
+     */
+    public void setContrastReference(Color reference) {
+        if (reference == null) {
+            contrastOverlay = null;
+        } else if (contrastOverlay == null) {
+            contrastOverlay = new ContrastOverlay(svGradient.getWidth(), svGradient.getHeight(), reference.getRGB());
+        } else {
+            contrastOverlay.setReference(reference.getRGB());
+        }
+        repaint();
+    }
+
+    /**
+     * Retrieves the color the contrast overlay is computed against.
+     *
+     * @return The reference color, or null if the overlay is hidden.
+     */
+    public Color getContrastReference() {
+        return contrastOverlay == null ? null : new Color(contrastOverlay.getReference());
     }
 
     private void paintCrossHair(Graphics2D g) {
         g.setColor(svCrossHair.getCrossHairColor());
-        g.setStroke(new BasicStroke(2));
+        g.setStroke(new BasicStroke(STROKE_WIDTH));
         g.drawLine(svCrossHair.getX() - svCrossHair.getSize() / 2, svCrossHair.getY(),
                 svCrossHair.getX() + svCrossHair.getSize() / 2, svCrossHair.getY());
         g.drawLine(svCrossHair.getX(), svCrossHair.getY() - svCrossHair.getSize() / 2,
@@ -43,12 +115,13 @@ public class SvSelectionPanel extends JPanel implements PropertyChangeListener {
 
 
     /**
-     * Paints a cross-hair and a saturation-value gradient.
+     * Paints a cross-hair and a saturation-value gradient. The paint is timed when metrics are collected.
      *
      * @param g the <code>Graphics</code> object used to paint.
      */
     @Override
     public void paintComponent(Graphics g) {
+        long start = ColorDialogMetrics.startPaint();
         super.paintComponent(g);
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
@@ -56,16 +129,67 @@ public class SvSelectionPanel extends JPanel implements PropertyChangeListener {
         g2d.setRenderingHint(RenderingHints.KEY_RENDERING,
                 RenderingHints.VALUE_RENDER_QUALITY);
         paintGradient(g2d);
+        paintContrastOverlay(g2d);
         paintCrossHair(g2d);
+        ColorDialogMetrics.paintFinished(start, framePending ? frameRequestNanos : 0, getWidth(), getHeight());
+        framePending = false;
+    }
+
+    /**
+     * Computes the region covered by the cross-hair at its current position, including its stroke and anti-aliasing.
+     *
+     * @param bounds The rectangle to store the region in.
+     */
+    private void crossHairBounds(Rectangle bounds) {
+        int padding = STROKE_WIDTH + 1;
+        int half = svCrossHair.getSize() / 2 + padding;
+        bounds.setBounds(svCrossHair.getX() - half, svCrossHair.getY() - half, 2 * half + 1, 2 * half + 1);
+    }
+
+    /**
+     * Moves the cross-hair to the current saturation and brightness of the color and repaints the full panel. Used
+     * when the color was replaced as a whole, for example when a pooled dialog is reused.
+     */
+    public void syncWithColor() {
+        svCrossHair.updatePosition();
+        crossHairBounds(shownCrossHairBounds);
+        repaint();
     }
 
     /**
-     * Repaints the panel. Fires on any event.
+     * Repaints the full panel whenever the gradient swapped in a new image. If the previous image was swapped in but
+     * never painted while the panel is showing, it is counted as a dropped frame.
      *
-     * @param evt The event sent from the gradient color.
+     * @param evt The event sent from the gradient.
      */
     @Override
     public void propertyChange(PropertyChangeEvent evt) {
-        repaint();
+        if (SvGradient.GRADIENT_CHANGED.equals(evt.getPropertyName())) {
+            if (framePending && isShowing()) {
+                ColorDialogMetrics.frameDropped();
+            }
+            framePending = true;
+            frameRequestNanos = svGradient.getScheduler().getPublishedRequestNanos();
+            svCrossHair.updatePosition();
+            crossHairBounds(shownCrossHairBounds);
+            repaint();
+        }
+    }
+
+    /**
+     * Repaints the previous and the new region of the cross-hair when the saturation or brightness changed.
+     *
+     * @param changedComponents The bitmask of the changed components.
+     * @param hue               The new hue.
+     * @param saturation        The new saturation.
+     * @param brightness        The new brightness.
+     */
+    @Override
+    public void colorChanged(int changedComponents, float hue, float saturation, float brightness) {
+        if ((changedComponents & SV_COMPONENTS) != 0) {
+            repaint(shownCrossHairBounds);
+            crossHairBounds(shownCrossHairBounds);
+            repaint(shownCrossHairBounds);
+        }
     }
 }
@@ -0,0 +1,123 @@
+package bugelniels.colordialog.view;
+
+import bugelniels.colordialog.model.ColorHistory;
+import lombok.Getter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+/**
+ * Horizontal strip of swatches showing the colors of a {@link ColorHistory}, from most to least recent. The strip is
+ * meant to be placed in a scroll pane and is virtualized: a paint only copies and draws the colors of the swatches
+ * that intersect the clip, so painting costs the same for a history of ten colors as for one of thousands. The colors
+ * are written into a reused image with a pixel per swatch, from which every swatch is drawn, so painting does not
+ * allocate a {@link Color} per swatch.
+ * The strip only listens to its history while it is displayable.
+ *
+ * @author BugelNiels
+ */
+public class SwatchStrip extends JPanel implements PropertyChangeListener {
+
+    /**
+     * The width and height of a single swatch, including the gap to the next swatch.
+     */
+    public static final int SWATCH_STEP = 20;
+    private static final int SWATCH_SIZE = SWATCH_STEP - 2;
+
+    @Getter
+    private final ColorHistory history;
+    private int[] visibleColors = new int[0];
+    private BufferedImage swatchPixels = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+    @Getter
+    private int paintedSwatches;
+
+    /**
+     * Creates a new strip.
+     *
+     * @param history The history whose colors should be shown.
+     */
+    public SwatchStrip(ColorHistory history) {
+        this.history = history;
+        updateSize();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        history.addListener(this);
+        updateSize();
+    }
+
+    @Override
+    public void removeNotify() {
+        history.removeListener(this);
+        super.removeNotify();
+    }
+
+    private void updateSize() {
+        setPreferredSize(new Dimension(Math.max(1, history.size()) * SWATCH_STEP, SWATCH_STEP));
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Retrieves the index in the history of the swatch at the provided x coordinate.
+     *
+     * @param x The x coordinate in the space of this strip.
+     * @return The index of the swatch, or -1 if there is no swatch at that position.
+     */
+    public int indexAt(int x) {
+        int index = x / SWATCH_STEP;
+        return x >= 0 && index < history.size() ? index : -1;
+    }
+
+    /**
+     * Paints the swatches that intersect the clip.
+     *
+     * @param g the <code>Graphics</code> object used to paint.
+     */
+    @Override
+    public void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Rectangle clip = g.getClipBounds();
+        int first = clip == null ? 0 : Math.max(0, clip.x / SWATCH_STEP);
+        int last = clip == null ? getWidth() / SWATCH_STEP : (clip.x + clip.width - 1) / SWATCH_STEP;
+        int count = Math.max(0, last - first + 1);
+        if (visibleColors.length < count) {
+            visibleColors = new int[count];
+            swatchPixels = new BufferedImage(count, 1, BufferedImage.TYPE_INT_ARGB);
+        }
+        paintedSwatches = history.copyTo(first, visibleColors, 0, count);
+        if (paintedSwatches == 0) {
+            return;
+        }
+        swatchPixels.getRaster().setDataElements(0, 0, paintedSwatches, 1, visibleColors);
+        g.setColor(Color.DARK_GRAY);
+        for (int i = 0; i < paintedSwatches; i++) {
+            int x = (first + i) * SWATCH_STEP;
+            g.drawImage(swatchPixels, x, 0, x + SWATCH_SIZE, SWATCH_SIZE, i, 0, i + 1, 1, null);
+            g.drawRect(x, 0, SWATCH_SIZE - 1, SWATCH_SIZE - 1);
+        }
+    }
+
+    /**
+     * Resizes and repaints the strip whenever the colors of the history changed. Changes made on other threads are
+     * handled on the event dispatch thread.
+     *
+     * @param evt The event sent from the history.
+     */
+    @Override
+    public void propertyChange(PropertyChangeEvent evt) {
+        if (!ColorHistory.HISTORY_CHANGED.equals(evt.getPropertyName())) {
+            return;
+        }
+        if (SwingUtilities.isEventDispatchThread()) {
+            updateSize();
+        } else {
+            SwingUtilities.invokeLater(this::updateSize);
+        }
+    }
+}
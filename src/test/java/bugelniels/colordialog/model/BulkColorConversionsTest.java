@@ -0,0 +1,75 @@
+package bugelniels.colordialog.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Checks that the bulk conversions are bit-identical to {@link Color#RGBtoHSB(int, int, int, float[])} and
+ * {@link Color#HSBtoRGB(float, float, float)} for every RGB value. The tests run with the vector API, so both the
+ * vectorized and the scalar converter are checked.
+ *
+ * @author BugelNiels
+ */
+class BulkColorConversionsTest {
+
+    private static final int RGB_VALUES = 1 << 24;
+    private static final int BLOCK = 4096;
+
+    @Test
+    void vectorApiIsUsed() {
+        assertTrue(BulkColorConversions.isVectorized(), "the tests should run with the vector API");
+    }
+
+    @Test
+    void vectorizedConverterMatchesColorForEveryRgb() {
+        assertMatchesColorForEveryRgb(BulkColorConversions.getConverter());
+    }
+
+    @Test
+    void scalarConverterMatchesColorForEveryRgb() {
+        assertMatchesColorForEveryRgb(BulkColorConversions.getScalarConverter());
+    }
+
+    /**
+     * Converts every RGB value to HSB and back, at an offset so that the tail of a vector is exercised as well, and
+     * compares every component and every packed value bit for bit.
+     *
+     * @param converter The converter to check.
+     */
+    private static void assertMatchesColorForEveryRgb(HsbBulkConverter converter) {
+        int offset = 3;
+        int[] rgb = new int[BLOCK + offset];
+        float[] hue = new float[BLOCK + offset];
+        float[] saturation = new float[BLOCK + offset];
+        float[] brightness = new float[BLOCK + offset];
+        int[] roundTrip = new int[BLOCK + offset];
+        float[] expected = new float[3];
+        for (int start = 0; start < RGB_VALUES; start += BLOCK) {
+            for (int i = 0; i < BLOCK; i++) {
+                rgb[offset + i] = 0xAB000000 | (start + i);
+            }
+            converter.rgbToHsb(rgb, offset, hue, saturation, brightness, offset, BLOCK);
+            converter.hsbToRgb(hue, saturation, brightness, offset, roundTrip, offset, BLOCK);
+            for (int i = offset; i < BLOCK + offset; i++) {
+                int value = rgb[i];
+                Color.RGBtoHSB((value >> 16) & 0xFF, (value >> 8) & 0xFF, value & 0xFF, expected);
+                if (Float.floatToRawIntBits(hue[i]) != Float.floatToRawIntBits(expected[0])
+                        || Float.floatToRawIntBits(saturation[i]) != Float.floatToRawIntBits(expected[1])
+                        || Float.floatToRawIntBits(brightness[i]) != Float.floatToRawIntBits(expected[2])) {
+                    fail(String.format("RGB %06x: expected %s, got [%s, %s, %s]", value & 0xFFFFFF,
+                            java.util.Arrays.toString(expected), hue[i], saturation[i], brightness[i]));
+                }
+                int expectedRgb = Color.HSBtoRGB(hue[i], saturation[i], brightness[i]);
+                if (roundTrip[i] != expectedRgb) {
+                    assertEquals(Integer.toHexString(expectedRgb), Integer.toHexString(roundTrip[i]),
+                            String.format("HSB of RGB %06x", value & 0xFFFFFF));
+                }
+            }
+        }
+    }
+}
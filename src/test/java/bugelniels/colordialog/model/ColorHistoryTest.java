@@ -0,0 +1,111 @@
+package bugelniels.colordialog.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the ring buffer of {@link ColorHistory} and its persistence in a memory-mapped file.
+ *
+ * @author BugelNiels
+ */
+class ColorHistoryTest {
+
+    private static final int CAPACITY = 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fullHistoryOverwritesLeastRecentColor() {
+        ColorHistory history = new ColorHistory(CAPACITY);
+        for (int argb = 1; argb <= CAPACITY + 2; argb++) {
+            history.add(argb);
+        }
+        assertArrayEquals(new int[]{6, 5, 4, 3}, history.toArray());
+    }
+
+    @Test
+    void addingPresentColorMovesItToTheFront() {
+        ColorHistory history = new ColorHistory(CAPACITY);
+        for (int argb = 1; argb <= CAPACITY + 1; argb++) {
+            history.add(argb);
+        }
+        history.add(3);
+        assertArrayEquals(new int[]{3, 5, 4, 2}, history.toArray());
+        history.remove(4);
+        assertArrayEquals(new int[]{3, 5, 2}, history.toArray());
+        history.add(7);
+        history.add(8);
+        assertArrayEquals(new int[]{8, 7, 3, 5}, history.toArray());
+    }
+
+    @Test
+    void copyToOnlyCopiesPresentColors() {
+        ColorHistory history = new ColorHistory(CAPACITY);
+        history.add(1);
+        history.add(2);
+        int[] target = new int[CAPACITY];
+        assertEquals(1, history.copyTo(1, target, 2, CAPACITY));
+        assertArrayEquals(new int[]{0, 0, 1, 0}, target);
+        assertEquals(0, history.copyTo(2, target, 0, CAPACITY));
+    }
+
+    @Test
+    void reopenedFileKeepsColors() throws IOException {
+        Path file = directory.resolve("history.bin");
+        try (ColorHistory history = ColorHistory.open(file, CAPACITY)) {
+            for (int argb = 1; argb <= CAPACITY + 1; argb++) {
+                history.add(0x80000000 | argb);
+            }
+            history.remove(0x80000003);
+        }
+        try (ColorHistory history = ColorHistory.open(file, CAPACITY)) {
+            assertArrayEquals(new int[]{0x80000005, 0x80000004, 0x80000002}, history.toArray());
+        }
+    }
+
+    @Test
+    void fileWithOtherCapacityKeepsMostRecentColors() throws IOException {
+        Path file = directory.resolve("history.bin");
+        try (ColorHistory history = ColorHistory.open(file, CAPACITY)) {
+            for (int argb = 1; argb <= CAPACITY; argb++) {
+                history.add(argb);
+            }
+        }
+        try (ColorHistory history = ColorHistory.open(file, 2)) {
+            assertArrayEquals(new int[]{4, 3}, history.toArray());
+        }
+        assertEquals((5 + 2) * Integer.BYTES, Files.size(file));
+    }
+
+    @Test
+    void invalidFileStartsEmpty() throws IOException {
+        Path file = directory.resolve("history.bin");
+        Files.write(file, new byte[(5 + CAPACITY) * Integer.BYTES]);
+        try (ColorHistory history = ColorHistory.open(file, CAPACITY)) {
+            assertEquals(0, history.size());
+        }
+    }
+
+    @Test
+    void fileIsLockedUntilClosed() throws IOException {
+        Path file = directory.resolve("history.bin");
+        ColorHistory history = ColorHistory.open(file, CAPACITY);
+        history.add(1);
+        assertThrows(IOException.class, () -> ColorHistory.open(file, CAPACITY));
+        history.close();
+        history.add(2);
+        assertArrayEquals(new int[]{2, 1}, history.toArray());
+        try (ColorHistory reopened = ColorHistory.open(file, CAPACITY)) {
+            assertArrayEquals(new int[]{1}, reopened.toArray());
+        }
+    }
+}
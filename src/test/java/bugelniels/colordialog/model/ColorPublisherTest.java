@@ -0,0 +1,199 @@
+package bugelniels.colordialog.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the delivery of colors by a {@link ColorPublisher}.
+ *
+ * @author BugelNiels
+ */
+class ColorPublisherTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    /**
+     * Subscriber that requests every color and collects them, optionally waiting for a latch in every call to onNext.
+     */
+    private static final class CollectingSubscriber implements Flow.Subscriber<Color> {
+
+        private final BlockingQueue<Color> colors = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+
+        private CollectingSubscriber(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(Color item) {
+            colors.add(item);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        private Color next() throws InterruptedException {
+            return colors.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Subscriber that requests every color and throws the provided exception from onSubscribe, or from onNext once it
+     * received the provided number of colors.
+     */
+    private static final class ThrowingSubscriber implements Flow.Subscriber<Color> {
+
+        private final RuntimeException onSubscribeFailure;
+        private final Error onNextFailure;
+        private final int colorsBeforeFailure;
+        private final List<Color> colors = new ArrayList<>();
+        private final List<Throwable> errors = new ArrayList<>();
+
+        private ThrowingSubscriber(RuntimeException onSubscribeFailure, Error onNextFailure, int colorsBeforeFailure) {
+            this.onSubscribeFailure = onSubscribeFailure;
+            this.onNextFailure = onNextFailure;
+            this.colorsBeforeFailure = colorsBeforeFailure;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+            if (onSubscribeFailure != null) {
+                throw onSubscribeFailure;
+            }
+        }
+
+        @Override
+        public void onNext(Color item) {
+            if (colors.size() == colorsBeforeFailure) {
+                if (onNextFailure != null) {
+                    throw onNextFailure;
+                }
+                throw new IllegalStateException("Subscriber failed on " + item);
+            }
+            colors.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            errors.add(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            throw new IllegalStateException("Subscriber failed on completion");
+        }
+    }
+
+    @Test
+    void slowSubscriberDoesNotDelayOthers() throws InterruptedException {
+        GradientColor color = new GradientColor(Color.RED);
+        ColorPublisher publisher = new ColorPublisher(color, EmissionPolicy.latestOnly());
+        CountDownLatch release = new CountDownLatch(1);
+        CollectingSubscriber slow = new CollectingSubscriber(release);
+        publisher.subscribe(slow);
+        assertEquals(Color.RED, slow.next());
+
+        CollectingSubscriber fast = new CollectingSubscriber(new CountDownLatch(0));
+        publisher.subscribe(fast);
+        assertEquals(Color.RED, fast.next());
+        color.setARGB(Color.BLUE.getRGB());
+        assertEquals(Color.BLUE, fast.next());
+
+        release.countDown();
+        assertEquals(Color.BLUE, slow.next());
+        publisher.close();
+    }
+
+    @Test
+    void subscriberOnOtherThreadReceivesLatestColor() throws InterruptedException {
+        GradientColor color = new GradientColor(Color.RED);
+        ColorPublisher publisher = new ColorPublisher(color, EmissionPolicy.latestOnly());
+        color.setARGB(Color.GREEN.getRGB());
+        CollectingSubscriber subscriber = new CollectingSubscriber(new CountDownLatch(0));
+        Thread subscribing = new Thread(() -> publisher.subscribe(subscriber));
+        subscribing.start();
+        subscribing.join();
+        assertEquals(Color.GREEN, subscriber.next());
+        publisher.close();
+    }
+
+    @Test
+    void throwingSubscriberIsCancelledWithoutStoppingOthers() throws InterruptedException {
+        GradientColor color = new GradientColor(Color.RED);
+        ColorPublisher publisher = new ColorPublisher(color, EmissionPolicy.latestOnly(), Runnable::run);
+        ThrowingSubscriber throwing = new ThrowingSubscriber(null, null, 1);
+        CollectingSubscriber other = new CollectingSubscriber(new CountDownLatch(0));
+        publisher.subscribe(throwing);
+        publisher.subscribe(other);
+        color.setARGB(Color.BLUE.getRGB());
+        color.setARGB(Color.GREEN.getRGB());
+
+        assertEquals(List.of(Color.RED), throwing.colors);
+        assertEquals(1, throwing.errors.size());
+        assertEquals(IllegalStateException.class, throwing.errors.get(0).getClass());
+        assertEquals(1, publisher.getSubscriberCount());
+        assertEquals(Color.RED, other.next());
+        assertEquals(Color.BLUE, other.next());
+        assertEquals(Color.GREEN, other.next());
+        publisher.close();
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    void subscriberThrowingFromOnSubscribeReceivesError() {
+        GradientColor color = new GradientColor(Color.RED);
+        ColorPublisher publisher = new ColorPublisher(color, EmissionPolicy.latestOnly(), Runnable::run);
+        IllegalStateException failure = new IllegalStateException("Subscriber failed to subscribe");
+        ThrowingSubscriber throwing = new ThrowingSubscriber(failure, null, Integer.MAX_VALUE);
+        publisher.subscribe(throwing);
+        color.setARGB(Color.BLUE.getRGB());
+
+        assertEquals(List.of(), throwing.colors);
+        assertEquals(List.of(failure), throwing.errors);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    void errorEscapingSubscriberStillEndsTheDrain() {
+        GradientColor color = new GradientColor(Color.RED);
+        ColorPublisher publisher = new ColorPublisher(color, EmissionPolicy.latestOnly(), Runnable::run);
+        AssertionError failure = new AssertionError("Subscriber failed fatally");
+        ThrowingSubscriber throwing = new ThrowingSubscriber(null, failure, 1);
+        publisher.subscribe(throwing);
+        assertSame(failure, assertThrows(AssertionError.class, () -> color.setARGB(Color.BLUE.getRGB())));
+        assertEquals(0, publisher.getSubscriberCount());
+
+        ThrowingSubscriber next = new ThrowingSubscriber(null, null, Integer.MAX_VALUE);
+        publisher.subscribe(next);
+        color.setARGB(Color.GREEN.getRGB());
+        assertEquals(List.of(Color.BLUE, Color.GREEN), next.colors);
+    }
+}
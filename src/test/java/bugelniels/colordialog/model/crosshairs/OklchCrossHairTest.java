@@ -0,0 +1,57 @@
+package bugelniels.colordialog.model.crosshairs;
+
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.model.gradients.OklchGradient;
+import bugelniels.colordialog.rendering.PerceptualConversions;
+import bugelniels.colordialog.rendering.TiledRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that colors picked in an OKLCH plane keep the hue of the plane and lie inside the sRGB gamut.
+ *
+ * @author BugelNiels
+ */
+class OklchCrossHairTest {
+
+    private static final int SIZE = 64;
+    private static final float LIGHTNESS_TOLERANCE = 0.01f;
+    private static final float HUE_TOLERANCE = 0.01f;
+
+    @Test
+    void picksKeepThePlaneHue() {
+        GradientColor color = new GradientColor(new Color(0x803366cc, true));
+        OklchGradient gradient = new OklchGradient(SIZE, SIZE, color, new TiledRenderer(1, 0));
+        color.addColorListener(gradient);
+        OklchCrossHair crossHair = new OklchCrossHair(color, gradient);
+        float oklchHue = gradient.getOklchHue();
+        float[] oklch = new float[3];
+        for (int y = SIZE / 8; y < SIZE - SIZE / 8; y++) {
+            crossHair.setPosition(crossHair.getMaxX(), y);
+            assertEquals(oklchHue, gradient.getOklchHue());
+            assertEquals(0x80, color.getAlphaInt());
+            PerceptualConversions.rgbToOklch(color.getRGBInt(), oklch);
+            assertEquals(1 - y / (float) crossHair.getMaxY(), oklch[0], LIGHTNESS_TOLERANCE);
+            assertEquals(oklchHue, oklch[2], HUE_TOLERANCE);
+        }
+        assertEquals(0, gradient.getScheduler().getRequestCount());
+    }
+
+    @Test
+    void picksOutsideTheGamutLieOnItsBoundary() {
+        GradientColor color = new GradientColor(new Color(0x3366cc));
+        OklchGradient gradient = new OklchGradient(SIZE, SIZE, color, new TiledRenderer(1, 0));
+        OklchCrossHair crossHair = new OklchCrossHair(color, gradient);
+        for (int y = SIZE / 8; y < SIZE - SIZE / 8; y++) {
+            crossHair.setPosition(crossHair.getMaxX(), y);
+            int rgb = color.getRGBInt();
+            int min = Math.min(rgb >> 16 & 0xff, Math.min(rgb >> 8 & 0xff, rgb & 0xff));
+            int max = Math.max(rgb >> 16 & 0xff, Math.max(rgb >> 8 & 0xff, rgb & 0xff));
+            assertTrue(min <= 1 || max >= 254, "Color " + Integer.toHexString(rgb) + " is not on the gamut boundary");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package bugelniels.colordialog.model.gradients;
+
+import bugelniels.colordialog.rendering.SvRenderKernel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the memory budget and the least-recently-used eviction of a {@link GradientCache}.
+ *
+ * @author BugelNiels
+ */
+class GradientCacheTest {
+
+    private static final int SIZE = 8;
+    private static final long RASTER_BYTES = (long) SIZE * SIZE * Integer.BYTES;
+
+    private static int[] raster(int value) {
+        int[] raster = new int[SIZE * SIZE];
+        Arrays.fill(raster, value);
+        return raster;
+    }
+
+    @Test
+    void leastRecentlyUsedRasterIsEvicted() {
+        GradientCache cache = new GradientCache(2 * RASTER_BYTES);
+        cache.store(SvRenderKernel.class, 0.1f, SIZE, SIZE, raster(1));
+        cache.store(SvRenderKernel.class, 0.2f, SIZE, SIZE, raster(2));
+        int[] target = new int[SIZE * SIZE];
+        assertTrue(cache.copyInto(SvRenderKernel.class, 0.1f, SIZE, SIZE, target));
+        cache.store(SvRenderKernel.class, 0.3f, SIZE, SIZE, raster(3));
+
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2 * RASTER_BYTES, cache.getUsedBytes());
+        assertFalse(cache.copyInto(SvRenderKernel.class, 0.2f, SIZE, SIZE, target));
+        assertTrue(cache.copyInto(SvRenderKernel.class, 0.1f, SIZE, SIZE, target));
+        assertArrayEquals(raster(1), target);
+    }
+
+    @Test
+    void storingCachedKeyDoesNotEvictOtherRasters() {
+        GradientCache cache = new GradientCache(2 * RASTER_BYTES);
+        cache.store(SvRenderKernel.class, 0.1f, SIZE, SIZE, raster(1));
+        cache.store(SvRenderKernel.class, 0.2f, SIZE, SIZE, raster(2));
+        cache.store(SvRenderKernel.class, 0.2f, SIZE, SIZE, raster(4));
+        cache.store(SvRenderKernel.class, 0.1f, SIZE, SIZE, raster(5));
+
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+        assertEquals(2 * RASTER_BYTES, cache.getUsedBytes());
+        int[] target = new int[SIZE * SIZE];
+        assertTrue(cache.copyInto(SvRenderKernel.class, 0.2f, SIZE, SIZE, target));
+        assertArrayEquals(raster(4), target);
+        assertTrue(cache.copyInto(SvRenderKernel.class, 0.1f, SIZE, SIZE, target));
+        assertArrayEquals(raster(5), target);
+    }
+
+    @Test
+    void rasterLargerThanBudgetIsNotStored() {
+        GradientCache cache = new GradientCache(RASTER_BYTES - 1);
+        cache.store(SvRenderKernel.class, 0.1f, SIZE, SIZE, raster(1));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getUsedBytes());
+    }
+}
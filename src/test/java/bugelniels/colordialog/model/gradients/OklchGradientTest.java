@@ -0,0 +1,45 @@
+package bugelniels.colordialog.model.gradients;
+
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.rendering.TiledRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Checks which color changes make an {@link OklchGradient} render a new plane.
+ *
+ * @author BugelNiels
+ */
+class OklchGradientTest {
+
+    private static final int SIZE = 32;
+    private static final int STEPS = 100;
+
+    @Test
+    void saturationAndBrightnessDragsDoNotRequestPlanes() {
+        GradientColor color = new GradientColor(new Color(0x3366cc));
+        OklchGradient gradient = new OklchGradient(SIZE, SIZE, color, new TiledRenderer(1, 0));
+        color.addColorListener(gradient);
+        float oklchHue = gradient.getParameter();
+        for (int i = 1; i <= STEPS; i++) {
+            color.setHSB(color.getHue(), i / (float) STEPS, 1 - i / (2.0f * STEPS));
+        }
+        assertEquals(0, gradient.getScheduler().getRequestCount());
+        assertEquals(oklchHue, gradient.getParameter());
+    }
+
+    @Test
+    void hueChangesRequestPlanes() {
+        GradientColor color = new GradientColor(new Color(0x3366cc));
+        OklchGradient gradient = new OklchGradient(SIZE, SIZE, color, new TiledRenderer(1, 0));
+        color.addColorListener(gradient);
+        float oklchHue = gradient.getParameter();
+        color.setHue(0.1f);
+        assertEquals(1, gradient.getScheduler().getRequestCount());
+        assertNotEquals(oklchHue, gradient.getParameter());
+    }
+}
@@ -0,0 +1,78 @@
+package bugelniels.colordialog.model.gradients;
+
+import bugelniels.colordialog.model.GradientColor;
+import bugelniels.colordialog.rendering.SvRenderKernel;
+import bugelniels.colordialog.rendering.TiledRenderer;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks how a {@link PlaneGradient} uses its cache during progressive rendering, and which parameter it reports for
+ * the image it shows.
+ *
+ * @author BugelNiels
+ */
+class PlaneGradientTest {
+
+    private static final int SIZE = 64;
+    private static final float HUE = 0.5f;
+
+    @Test
+    void cachedGradientIsLookedUpOnce() throws InterruptedException {
+        SvGradient gradient = new SvGradient(SIZE, SIZE, new GradientColor(Color.RED), new TiledRenderer(1, 0));
+        gradient.setProgressiveThreshold(1);
+        gradient.setRefineDelay((int) TimeUnit.MINUTES.toMillis(1));
+        GradientCache cache = new GradientCache(SIZE * SIZE * Integer.BYTES);
+        SvRenderKernel kernel = new SvRenderKernel(SIZE, SIZE);
+        int[] pixels = new int[SIZE * SIZE];
+        kernel.prepare(HUE);
+        kernel.renderRows(pixels, 0, SIZE);
+        cache.store(SvRenderKernel.class, HUE, SIZE, SIZE, pixels);
+        gradient.setCache(cache);
+
+        CountDownLatch published = new CountDownLatch(1);
+        gradient.addListener(event -> published.countDown());
+        gradient.requestParameter(HUE);
+        assertTrue(published.await(1, TimeUnit.MINUTES));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+        assertEquals(pixels[SIZE * SIZE / 2 + SIZE / 2], gradient.getGradientImage().getRGB(SIZE / 2, SIZE / 2));
+        assertEquals(SIZE, gradient.getGradientImage().getWidth(), "the cached gradient should not be a preview");
+    }
+
+    @Test
+    void shownParameterChangesWhenFrameIsPublished() throws InterruptedException {
+        SvGradient gradient = new SvGradient(SIZE, SIZE, new GradientColor(Color.RED), new TiledRenderer(1, 0));
+        assertEquals(0.0f, gradient.getShownParameter());
+        CountDownLatch published = new CountDownLatch(1);
+        gradient.addListener(event -> published.countDown());
+        CountDownLatch eventThreadBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SwingUtilities.invokeLater(() -> {
+            eventThreadBlocked.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(eventThreadBlocked.await(1, TimeUnit.MINUTES));
+        gradient.requestParameter(HUE);
+        assertEquals(0.0f, gradient.getShownParameter(), "the new frame has not been published yet");
+        release.countDown();
+        assertTrue(published.await(1, TimeUnit.MINUTES));
+        assertEquals(HUE, gradient.getShownParameter());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package bugelniels.colordialog.model.gradients;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a {@link RenderScheduler} keeps rendering new requests after a frame failed.
+ *
+ * @author BugelNiels
+ */
+class RenderSchedulerTest {
+
+    /**
+     * Target that fails to render or publish the frames of selected parameters.
+     */
+    private static class FailingTarget implements RenderTarget {
+
+        private final List<Float> published = new ArrayList<>();
+        private float failingRender = Float.NaN;
+        private boolean failPublish;
+        private float rendered;
+
+        @Override
+        public void renderFrame(float parameter) {
+            if (parameter == failingRender) {
+                throw new IllegalStateException("render failure");
+            }
+            rendered = parameter;
+        }
+
+        @Override
+        public void publishFrame() {
+            if (failPublish) {
+                throw new IllegalStateException("publish failure");
+            }
+            published.add(rendered);
+        }
+    }
+
+    @Test
+    void rendersAfterFailedRender() {
+        FailingTarget target = new FailingTarget();
+        target.failingRender = 0.25f;
+        RenderScheduler scheduler = new RenderScheduler(target, Runnable::run, Runnable::run);
+        assertThrows(IllegalStateException.class, () -> scheduler.request(0.25f));
+        scheduler.request(0.5f);
+        assertEquals(List.of(0.5f), target.published);
+    }
+
+    @Test
+    void rendersAfterFailedPublish() {
+        FailingTarget target = new FailingTarget();
+        target.failPublish = true;
+        RenderScheduler scheduler = new RenderScheduler(target, Runnable::run, Runnable::run);
+        assertThrows(IllegalStateException.class, () -> scheduler.request(0.25f));
+        target.failPublish = false;
+        scheduler.request(0.5f);
+        assertEquals(List.of(0.5f), target.published);
+    }
+
+    @Test
+    void rendersAfterRenderError() {
+        FailingTarget target = new FailingTarget() {
+            @Override
+            public void renderFrame(float parameter) {
+                if (parameter == 0.25f) {
+                    throw new OutOfMemoryError("render error");
+                }
+                super.renderFrame(parameter);
+            }
+        };
+        RenderScheduler scheduler = new RenderScheduler(target, Runnable::run, Runnable::run);
+        assertThrows(OutOfMemoryError.class, () -> scheduler.request(0.25f));
+        scheduler.request(0.5f);
+        assertEquals(List.of(0.5f), target.published);
+    }
+}
@@ -0,0 +1,93 @@
+package bugelniels.colordialog.model.names;
+
+import bugelniels.colordialog.rendering.PerceptualConversions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the nearest-neighbour search of the k-d tree of {@link NamedColorIndex} against a linear scan over the
+ * catalog. Catalogs may contain colors at equal distances, so the distances of the results are compared rather than
+ * the results themselves.
+ *
+ * @author BugelNiels
+ */
+class NamedColorIndexTest {
+
+    private static final int RANDOM_COLORS = 50000;
+    private static final int RANDOM_QUERIES = 5000;
+    private static final int QUERY_STRIDE = 4099;
+    private static final long SEED = 20;
+
+    @Test
+    void builtInCatalogMatchesLinearScan() {
+        ColorNameCatalog catalog = ColorNameCatalog.builtIn();
+        NamedColorIndex index = new NamedColorIndex(catalog);
+        float[] points = toOklab(catalog);
+        for (int rgb = 0; rgb < 1 << 24; rgb += QUERY_STRIDE) {
+            assertNearest(points, index, rgb);
+        }
+    }
+
+    @Test
+    void randomCatalogMatchesLinearScan() {
+        Random random = new Random(SEED);
+        String[] names = new String[RANDOM_COLORS];
+        int[] colors = new int[RANDOM_COLORS];
+        for (int i = 0; i < RANDOM_COLORS; i++) {
+            names[i] = "color" + i;
+            colors[i] = 0xff000000 | random.nextInt(1 << 24);
+        }
+        ColorNameCatalog catalog = new ColorNameCatalog(names, colors);
+        NamedColorIndex index = new NamedColorIndex(catalog);
+        float[] points = toOklab(catalog);
+        for (int i = 0; i < RANDOM_QUERIES; i++) {
+            assertNearest(points, index, random.nextInt(1 << 24));
+        }
+    }
+
+    @Test
+    void catalogColorsFindThemselves() {
+        ColorNameCatalog catalog = ColorNameCatalog.builtIn();
+        NamedColorIndex index = new NamedColorIndex(catalog);
+        for (int i = 0; i < catalog.size(); i++) {
+            assertEquals(catalog.getColor(i), catalog.getColor(index.nearest(catalog.getColor(i))));
+        }
+    }
+
+    @Test
+    void emptyCatalogHasNoNearestColor() {
+        NamedColorIndex index = new NamedColorIndex(new ColorNameCatalog(new String[0], new int[0]));
+        assertEquals(-1, index.nearest(0x123456));
+    }
+
+    private static float[] toOklab(ColorNameCatalog catalog) {
+        float[] points = new float[catalog.size() * 3];
+        float[] oklab = new float[3];
+        for (int i = 0; i < catalog.size(); i++) {
+            PerceptualConversions.rgbToOklab(catalog.getColor(i), oklab);
+            System.arraycopy(oklab, 0, points, i * 3, 3);
+        }
+        return points;
+    }
+
+    private static void assertNearest(float[] points, NamedColorIndex index, int rgb) {
+        float[] query = new float[3];
+        PerceptualConversions.rgbToOklab(rgb, query);
+        float best = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < points.length / 3; i++) {
+            best = Math.min(best, distance(query, points, i));
+        }
+        int nearest = index.nearest(rgb);
+        assertEquals(best, distance(query, points, nearest), () -> "Nearest color of " + Integer.toHexString(rgb));
+    }
+
+    private static float distance(float[] query, float[] points, int entry) {
+        float dl = query[0] - points[entry * 3];
+        float da = query[1] - points[entry * 3 + 1];
+        float db = query[2] - points[entry * 3 + 2];
+        return dl * dl + da * da + db * db;
+    }
+}
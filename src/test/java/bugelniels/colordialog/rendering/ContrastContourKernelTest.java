@@ -0,0 +1,87 @@
+package bugelniels.colordialog.rendering;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the contour lines of {@link ContrastContourKernel} against a naive rule that classifies every pixel of the
+ * gradient rendered by {@link SvRenderKernel}: a pixel lies on a contour if it lies on the other side of the contour
+ * than its right or bottom neighbour.
+ *
+ * @author BugelNiels
+ */
+class ContrastContourKernelTest {
+
+    private static final float[] RATIOS = {3.0f, 4.5f, 7.0f};
+    private static final int[] REFERENCES = {0xffffff, 0x000000, 0x777777, 0x3366cc, 0xffcc00};
+    private static final float[] HUES = {0.0f, 0.1f, 1 / 6.0f, 0.4f, 0.5f, 0.75f, 0.99f, -Float.MIN_VALUE};
+    private static final int WIDTH = 67;
+    private static final int HEIGHT = 53;
+    private static final int DARK_LINE = 0xff000000;
+    private static final int LIGHT_LINE = 0xffffffff;
+
+    @Test
+    void contoursMatchPerPixelClassification() {
+        SvRenderKernel gradient = new SvRenderKernel(WIDTH, HEIGHT);
+        ContrastContourKernel contours = new ContrastContourKernel(WIDTH, HEIGHT);
+        int[] pixels = new int[WIDTH * HEIGHT];
+        int[] lines = new int[WIDTH * HEIGHT];
+        int drawn = 0;
+        for (int reference : REFERENCES) {
+            contours.setReference(reference);
+            for (float hue : HUES) {
+                gradient.prepare(hue);
+                gradient.renderRows(pixels, 0, HEIGHT);
+                contours.prepare(hue);
+                contours.renderRows(lines, 0, HEIGHT);
+                int[] expected = naiveContours(pixels, PerceptualConversions.relativeLuminance(reference));
+                for (int i = 0; i < lines.length; i++) {
+                    int x = i % WIDTH;
+                    int y = i / WIDTH;
+                    assertEquals(expected[i], lines[i], "Pixel " + x + ", " + y + " at hue " + hue
+                            + " against " + Integer.toHexString(reference));
+                    drawn += lines[i] == 0 ? 0 : 1;
+                }
+            }
+        }
+        assertTrue(drawn > 0);
+    }
+
+    private static int[] naiveContours(int[] pixels, float referenceLuminance) {
+        float flare = PerceptualConversions.CONTRAST_FLARE;
+        float split = (float) Math.sqrt((1 + flare) * flare) - flare;
+        int[] result = new int[pixels.length];
+        for (int line = 0; line < 2 * RATIOS.length; line++) {
+            float ratio = RATIOS[line / 2];
+            boolean lighter = line % 2 == 0;
+            float reference = referenceLuminance + flare;
+            float threshold = lighter ? reference * ratio - flare : reference / ratio - flare;
+            boolean[] beyond = new boolean[pixels.length];
+            for (int i = 0; i < pixels.length; i++) {
+                float luminance = PerceptualConversions.relativeLuminance(pixels[i]);
+                beyond[i] = lighter ? luminance < threshold : luminance <= threshold;
+            }
+            int color = threshold > split ? DARK_LINE : LIGHT_LINE;
+            int shift = line / 2 + 1;
+            boolean dashed = shift < RATIOS.length;
+            for (int i = 0; i < pixels.length; i++) {
+                if (onContour(beyond, i)) {
+                    int x = i % WIDTH;
+                    int y = i / WIDTH;
+                    boolean gap = dashed && (((x - y) >> shift) & 1) != 0;
+                    result[i] = gap ? 0 : color;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean onContour(boolean[] beyond, int i) {
+        int x = i % WIDTH;
+        int y = i / WIDTH;
+        return x < WIDTH - 1 && beyond[i] != beyond[i + 1]
+                || y < HEIGHT - 1 && beyond[i] != beyond[i + WIDTH];
+    }
+}
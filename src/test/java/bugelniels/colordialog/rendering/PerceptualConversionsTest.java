@@ -0,0 +1,112 @@
+package bugelniels.colordialog.rendering;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the table-driven sRGB transfer function of {@link PerceptualConversions}, the round trips through OKLCH and
+ * HSL, and the pixels of {@link OklchRenderKernel} against the scalar conversion. The round trips cover every RGB
+ * value.
+ *
+ * @author BugelNiels
+ */
+class PerceptualConversionsTest {
+
+    private static final int COLORS = 1 << 24;
+    private static final int OPAQUE = 0xff000000;
+    private static final float REFERENCE_TOLERANCE = 1e-4f;
+    private static final float GAMUT_TOLERANCE = 1e-4f;
+    private static final int KERNEL_SIZE = 97;
+    private static final int HUES = 36;
+
+    @Test
+    void everyChannelSurvivesDecodeAndEncode() {
+        for (int channel = 0; channel < 256; channel++) {
+            assertEquals(channel, PerceptualConversions.toSrgb(PerceptualConversions.toLinear(channel)));
+        }
+    }
+
+    @Test
+    void everyColorSurvivesOklch() {
+        float[] oklch = new float[3];
+        float[] scratch = new float[3];
+        for (int rgb = 0; rgb < COLORS; rgb++) {
+            PerceptualConversions.rgbToOklch(rgb, oklch);
+            int back = PerceptualConversions.oklchToRgb(oklch[0], oklch[1], oklch[2], scratch);
+            assertEquals(OPAQUE | rgb, back, () -> "OKLCH round trip of " + Integer.toHexString(OPAQUE | back));
+        }
+    }
+
+    @Test
+    void everyColorSurvivesHsl() {
+        float[] hsl = new float[3];
+        for (int rgb = 0; rgb < COLORS; rgb++) {
+            PerceptualConversions.rgbToHsl(rgb, hsl);
+            int back = PerceptualConversions.hslToRgb(hsl[0], hsl[1], hsl[2]);
+            assertEquals(OPAQUE | rgb, back, () -> "HSL round trip of " + Integer.toHexString(OPAQUE | back));
+        }
+    }
+
+    @Test
+    void redMatchesReferenceValues() {
+        float[] oklab = new float[3];
+        PerceptualConversions.rgbToOklab(0xff0000, oklab);
+        assertEquals(0.627955f, oklab[0], REFERENCE_TOLERANCE);
+        assertEquals(0.224863f, oklab[1], REFERENCE_TOLERANCE);
+        assertEquals(0.125846f, oklab[2], REFERENCE_TOLERANCE);
+        float[] lab = new float[3];
+        PerceptualConversions.rgbToLab(0xff0000, lab);
+        assertEquals(53.2408f, lab[0], 1e-2f);
+        assertEquals(80.0925f, lab[1], 1e-2f);
+        assertEquals(67.2032f, lab[2], 1e-2f);
+    }
+
+    @Test
+    void inGamutKernelPixelsMatchScalarConversion() {
+        OklchRenderKernel kernel = new OklchRenderKernel(KERNEL_SIZE, KERNEL_SIZE);
+        int[] row = new int[KERNEL_SIZE];
+        float[] scratch = new float[3];
+        int inGamut = 0;
+        for (int i = 0; i < HUES; i++) {
+            float hue = i / (float) HUES;
+            kernel.prepare(hue);
+            for (int y = 0; y < KERNEL_SIZE; y++) {
+                kernel.renderRow(y, row, 0);
+                float lightness = 1.0f - y / (float) (KERNEL_SIZE - 1);
+                for (int x = 0; x < KERNEL_SIZE; x++) {
+                    float chroma = OklchRenderKernel.MAX_CHROMA * x / (KERNEL_SIZE - 1);
+                    int expected = PerceptualConversions.oklchToRgb(lightness, chroma, hue, scratch);
+                    if (isInGamut(scratch)) {
+                        assertChannelsWithinOneStep(expected, row[x], "Pixel " + x + ", " + y + " at hue " + hue);
+                        inGamut++;
+                    }
+                }
+            }
+        }
+        assertTrue(inGamut > 0);
+    }
+
+    /**
+     * The kernel adds the precomputed chroma terms of a column to the lightness of a row, while the scalar conversion
+     * adds both terms to the lightness in turn. The float rounding of both orders may differ just at the edge of an
+     * 8-bit step.
+     */
+    private static void assertChannelsWithinOneStep(int expected, int actual, String message) {
+        assertEquals(expected >>> 24, actual >>> 24, message);
+        for (int shift = 0; shift < 24; shift += 8) {
+            int difference = ((expected >> shift) & 0xff) - ((actual >> shift) & 0xff);
+            assertTrue(Math.abs(difference) <= 1, message);
+        }
+    }
+
+    private static boolean isInGamut(float[] linearRgb) {
+        for (float channel : linearRgb) {
+            if (channel < -GAMUT_TOLERANCE || channel > 1 + GAMUT_TOLERANCE) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package bugelniels.colordialog.rendering;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the saturation-value kernel renders exactly the pixels {@link Color#HSBtoRGB(float, float, float)}
+ * produces.
+ *
+ * @author BugelNiels
+ */
+class SvRenderKernelTest {
+
+    private static final int MAX_SLIDER_HEIGHT = 1024;
+    private static final int WIDTH = 17;
+    private static final int HEIGHT = 13;
+    private static final int LARGE_WIDTH = 255;
+    private static final int LARGE_HEIGHT = 200;
+
+    /**
+     * Collects every hue the hue slider can select, which is {@code y / height} for every cross-hair position y in a
+     * slider of any height up to {@link #MAX_SLIDER_HEIGHT}.
+     *
+     * @return The distinct hues, sorted.
+     */
+    private static float[] sliderHues() {
+        float[] hues = new float[(MAX_SLIDER_HEIGHT + 1) * (MAX_SLIDER_HEIGHT + 2) / 2];
+        int count = 0;
+        for (int height = 1; height <= MAX_SLIDER_HEIGHT; height++) {
+            for (int y = 0; y <= height; y++) {
+                hues[count++] = y / (float) height;
+            }
+        }
+        Arrays.sort(hues, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || hues[i] != hues[distinct - 1]) {
+                hues[distinct++] = hues[i];
+            }
+        }
+        return Arrays.copyOf(hues, distinct);
+    }
+
+    private static void assertMatchesHsbToRgb(SvRenderKernel kernel, float hue, int[] raster) {
+        int width = kernel.getWidth();
+        int height = kernel.getHeight();
+        kernel.prepare(hue);
+        kernel.renderRows(raster, 0, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int expected = Color.HSBtoRGB(hue, x / (width - 1f), 1 - y / (height - 1f));
+                int actual = raster[y * width + x];
+                if (actual != expected) {
+                    assertEquals(Integer.toHexString(expected), Integer.toHexString(actual),
+                            "hue " + hue + " at (" + x + ", " + y + ")");
+                }
+            }
+        }
+    }
+
+    @Test
+    void matchesHsbToRgbForEverySliderHue() {
+        SvRenderKernel kernel = new SvRenderKernel(WIDTH, HEIGHT);
+        int[] raster = new int[WIDTH * HEIGHT];
+        for (float hue : sliderHues()) {
+            assertMatchesHsbToRgb(kernel, hue, raster);
+        }
+    }
+
+    @Test
+    void matchesHsbToRgbForHueRoundingIntoSectorSix() {
+        float hue = -Float.MIN_VALUE;
+        assertEquals(6.0f, (hue - (float) Math.floor(hue)) * 6.0f, "the hue should round into sector 6");
+        SvRenderKernel kernel = new SvRenderKernel(WIDTH, HEIGHT);
+        int[] raster = new int[WIDTH * HEIGHT];
+        assertMatchesHsbToRgb(kernel, hue, raster);
+        assertTrue(Arrays.stream(raster).anyMatch(pixel -> pixel != 0xff000000), "the gray column should be rendered");
+    }
+
+    @Test
+    void matchesHsbToRgbAfterResize() {
+        SvRenderKernel kernel = new SvRenderKernel(2, 2);
+        kernel.resize(LARGE_WIDTH, LARGE_HEIGHT);
+        int[] raster = new int[LARGE_WIDTH * LARGE_HEIGHT];
+        for (int i = 0; i <= 360; i++) {
+            assertMatchesHsbToRgb(kernel, i / 360f, raster);
+        }
+    }
+}